@@ -0,0 +1,573 @@
+package com.mulesoft.meetups;
+
+import lombok.SneakyThrows;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Configuration and plumbing shared by the Anypoint goals: credentials, execution deadline,
+ * per-phase timing and the execution report.
+ */
+public abstract class AbstractAnypointMojo extends AbstractMojo
+{
+    @Parameter(name = "username", required = true)
+    protected String username = null;
+
+    @Parameter(name = "password", required = true)
+    protected String password = null;
+
+    /**
+     * Overall execution budget, clean-up reserve included.
+     */
+    @Parameter(name = "executionTimeoutInMilliseconds", defaultValue = "1800000")
+    protected long executionTimeoutInMilliseconds = 1800000;
+
+    /**
+     * Timeout of each Anypoint call.
+     */
+    @Parameter(name = "operationTimeoutInMilliseconds", defaultValue = "60000")
+    protected long operationTimeoutInMilliseconds = 60000;
+
+    /**
+     * Part of the execution budget reserved for clean-up.
+     */
+    @Parameter(name = "cleanupTimeoutInMilliseconds", defaultValue = "120000")
+    protected long cleanupTimeoutInMilliseconds = 120000;
+
+    /**
+     * Circuit breakers guarding each Anypoint endpoint family, shared by every execution in the JVM.
+     */
+    @Parameter(name = "circuitBreaker")
+    protected AnypointCircuitBreakerConfig circuitBreaker = new AnypointCircuitBreakerConfig();
+
+    /**
+     * Skips the goal, instead of failing it, when an Anypoint endpoint family is unavailable.
+     */
+    @Parameter(name = "skipWhenCircuitOpen", defaultValue = "false")
+    protected boolean skipWhenCircuitOpen = false;
+
+    /**
+     * Adaptive concurrency of bulk Anypoint operations (resource uploads, page reads, provisioning,
+     * clean-up): the configured concurrency is the starting limit.
+     */
+    @Parameter(name = "adaptiveConcurrency")
+    protected AnypointConcurrencyLimitConfig adaptiveConcurrency = new AnypointConcurrencyLimitConfig();
+
+    /**
+     * HTTP transport of the Anypoint client: webclient (reactor-netty) or jdk (java.net.http, fewer classes to load).
+     */
+    @Parameter(name = "transport", defaultValue = "webclient")
+    protected String transport = AnypointHttpTransport.WEBCLIENT;
+
+    /**
+     * Records every Anypoint call, with credentials scrubbed, to the cassette (record), or answers
+     * them from the cassette through a local server instead of Anypoint (replay); off otherwise.
+     */
+    @Parameter(name = "cassetteMode", defaultValue = "off")
+    protected String cassetteMode = AnypointCassette.OFF;
+
+    /**
+     * Cassette of record and replay modes, target/anypoint/&lt;goal&gt;-cassette.json by default.
+     */
+    @Parameter(name = "cassetteFile")
+    protected File cassetteFile = null;
+
+    /**
+     * Factor applied to the recorded latencies in replay mode: 1 replays the original timing, 0
+     * answers at once.
+     */
+    @Parameter(name = "replayTimingScale", defaultValue = "1.0")
+    protected double replayTimingScale = 1.0;
+
+    /**
+     * Runs concurrent blocking calls on virtual threads when the runtime supports them (JDK 21+),
+     * on a bounded platform pool otherwise.
+     */
+    @Parameter(name = "virtualThreads", defaultValue = "true")
+    protected boolean virtualThreads = true;
+
+    /**
+     * Root directory of the organization inventories written by the inventory goal.
+     */
+    @Parameter(name = "inventoryDirectory", defaultValue = "${user.home}/.anypoint-maven-plugin/inventory")
+    protected File inventoryDirectory = new File(System.getProperty("user.home"), ".anypoint-maven-plugin/inventory");
+
+    @Parameter(defaultValue = "${project.build.directory}", readonly = true)
+    protected File buildDirectory = null;
+
+    /**
+     * Anypoint REST API client.
+     */
+    protected AnypointRestAPIClient client = new AnypointRestAPIClient();
+
+    /**
+     * Authenticated session, with the lookups shared by the workflows of the execution.
+     */
+    protected AnypointSession session;
+
+    /**
+     * Metrics reported at the end of the execution.
+     */
+    protected AnypointExecutionReport report;
+
+    /**
+     * Deadline of the current execution.
+     */
+    protected AnypointDeadline deadline = AnypointDeadline.unbounded();
+
+    /**
+     * Session used by deferred removals, opened at the end of the build on a client of its own.
+     */
+    private AnypointSession teardownSession;
+
+    private Map<String, Long> phases = Collections.synchronizedMap(new LinkedHashMap<>());
+    private String phasePrefix = "";
+
+    protected AbstractAnypointMojo(String goal) {
+        this.report = new AnypointExecutionReport(goal);
+    }
+
+    /**
+     * Starts the execution deadline and applies it to the Anypoint client, and opens the session.
+     */
+    protected void startExecution() {
+        deadline = new AnypointDeadline(
+                Duration.ofMillis(executionTimeoutInMilliseconds),
+                Duration.ofMillis(cleanupTimeoutInMilliseconds));
+
+        //--- Continues the session warmed up at the start of the build, if any (its login is neither recorded nor replayed) ---//
+        AnypointSession prepared = AnypointCassette.OFF.equalsIgnoreCase(cassetteMode)
+                ? AnypointSessionPrewarmer.take(getPluginContext(), username, password, transport, Duration.ofMillis(operationTimeoutInMilliseconds))
+                : null;
+        if (prepared != null) {
+            client = prepared.getClient();
+            session = prepared;
+        } else {
+            client.setTransport(this.newTransport());
+            session = new AnypointSession(client, AnypointLogin.builder()
+                    .username(username)
+                    .password(password)
+                    .build());
+        }
+        report.metric("prewarmed", prepared != null);
+
+        client.setDeadline(deadline);
+        client.setOperationTimeout(Duration.ofMillis(operationTimeoutInMilliseconds));
+        client.setCircuitBreakerConfig(circuitBreaker);
+        report.metric("executor", virtualThreads && AnypointExecutors.isVirtualThreadSupported() ? "virtual" : "platform");
+    }
+
+    /**
+     * Runs this goal as a workflow of another execution: shares its client session, deadline and
+     * report, phases being recorded as &lt;goal&gt;.&lt;phase&gt;.
+     *
+     * @param parent started execution
+     */
+    void joinExecution(AbstractAnypointMojo parent) {
+        phasePrefix = String.format("%s.", report.getGoal());
+        client = parent.client;
+        session = parent.session;
+        deadline = parent.deadline;
+        report = parent.report;
+        phases = parent.phases;
+        skipWhenCircuitOpen = parent.skipWhenCircuitOpen;
+        virtualThreads = parent.virtualThreads;
+        buildDirectory = parent.buildDirectory;
+        inventoryDirectory = parent.inventoryDirectory;
+        username = parent.username;
+        password = parent.password;
+        transport = parent.transport;
+        operationTimeoutInMilliseconds = parent.operationTimeoutInMilliseconds;
+        cleanupTimeoutInMilliseconds = parent.cleanupTimeoutInMilliseconds;
+        circuitBreaker = parent.circuitBreaker;
+        adaptiveConcurrency = parent.adaptiveConcurrency;
+        cassetteMode = parent.cassetteMode;
+        cassetteFile = parent.cassetteFile;
+        replayTimingScale = parent.replayTimingScale;
+        setPluginContext(parent.getPluginContext());
+        setLog(parent.getLog());
+    }
+
+    /**
+     * Releases the clean-up reserve of the deadline.
+     */
+    protected void enterCleanup() {
+        deadline.enterCleanup();
+    }
+
+    /**
+     * Opens a session for work outliving the execution: same credentials, transport, timeouts and
+     * circuit breakers, no execution deadline, continuing with the token of the execution.
+     *
+     * @return session
+     */
+    protected AnypointSession newBackgroundSession() {
+        AnypointRestAPIClient background = new AnypointRestAPIClient();
+        background.setTransport(this.newTransport());
+        background.setOperationTimeout(Duration.ofMillis(operationTimeoutInMilliseconds));
+        background.setCircuitBreakerConfig(circuitBreaker);
+
+        AnypointSession backgroundSession = new AnypointSession(background, AnypointLogin.builder()
+                .username(username)
+                .password(password)
+                .build());
+        backgroundSession.useToken(session.token());
+        return backgroundSession;
+    }
+
+    /**
+     * @return registry of the resources removed at the end of the build, null when the build
+     * extension is not loaded or the running Maven does not signal the end of the build
+     */
+    protected Map<String, Callable<String>> teardownRegistry() {
+        return AnypointTeardown.registry(getPluginContext());
+    }
+
+    /**
+     * Registers the removal of a resource for the end of the build. The removal gets a client and an
+     * access token then, from a new session, and the clean-up timeout as deadline.
+     *
+     * @param registry registry of the build
+     * @param stage AnypointTeardown.CONTRACTS or AnypointTeardown.RESOURCES
+     * @param resource kind:id of the resource
+     * @param removal removal, given the client and an access token
+     * @return false when another execution already registered the resource
+     */
+    protected boolean deferTeardown(Map<String, Callable<String>> registry, int stage, String resource, Teardown removal) {
+        return AnypointTeardown.register(registry, stage, resource, () -> {
+            AnypointSession teardown = this.teardownSession();
+            removal.run(teardown.getClient(), teardown.token());
+            return String.format("%s (%s)", resource, report.getGoal());
+        });
+    }
+
+    private synchronized AnypointSession teardownSession() {
+        if (teardownSession == null) {
+            //--- A client of its own: the execution client may still be in use by another execution ---//
+            AnypointRestAPIClient teardown = new AnypointRestAPIClient();
+            teardown.setTransport(this.newTransport());
+            teardown.setOperationTimeout(Duration.ofMillis(operationTimeoutInMilliseconds));
+            teardown.setCircuitBreakerConfig(circuitBreaker);
+            teardown.setDeadline(new AnypointDeadline(Duration.ofMillis(cleanupTimeoutInMilliseconds), Duration.ZERO));
+            teardownSession = new AnypointSession(teardown, AnypointLogin.builder()
+                    .username(username)
+                    .password(password)
+                    .build());
+        }
+        return teardownSession;
+    }
+
+    /**
+     * Displays the time breakdown and writes the execution report.
+     */
+    protected void finishExecution() {
+        AnypointCircuitBreaker.states().forEach((family, state) -> report.metric(String.format("circuitBreaker.%s.state", family), state.name()));
+        report.metric("cassette", cassetteMode.toUpperCase());
+        this.writeCassette();
+        this.printTimeBreakdown();
+        this.writeReport();
+    }
+
+    /**
+     * Decides what to do with a call rejected by an open circuit breaker.
+     *
+     * @param exception rejection
+     * @throws AnypointCircuitOpenException unless skipWhenCircuitOpen is set
+     */
+    protected void skipOrFail(AnypointCircuitOpenException exception) {
+        if (skipWhenCircuitOpen == false) {
+            throw exception;
+        }
+        getLog().warn(String.format("SKIPPED: %s", exception.getMessage()));
+        report.metric("status", "SKIPPED");
+    }
+
+    /**
+     * Runs one phase of the execution and records its duration, also as a flight recorder event.
+     *
+     * @param phase phase name
+     * @param step phase body
+     * @return phase result
+     * @throws Exception
+     */
+    protected <T> T timed(String phase, Callable<T> step) throws Exception {
+        final AnypointMojoStepEvent event = new AnypointMojoStepEvent();
+        final long start = System.nanoTime();
+        boolean failed = true;
+        event.begin();
+        try {
+            T result = step.call();
+            failed = false;
+            return result;
+        } finally {
+            phases.merge(phasePrefix + phase, Duration.ofNanos(System.nanoTime() - start).toMillis(), Long::sum);
+            event.end();
+            if (event.shouldCommit()) {
+                event.goal = report.getGoal();
+                event.step = phasePrefix + phase;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Runs one phase of the execution and records its duration.
+     *
+     * @param phase phase name
+     * @param step phase body
+     * @throws Exception
+     */
+    protected void timed(String phase, Step step) throws Exception {
+        this.timed(phase, () -> {
+            step.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs blocking tasks concurrently, at most concurrency at a time, and waits for all of them,
+     * at most until the end of the current deadline phase. Unfinished tasks are then cancelled.
+     *
+     * @param concurrency maximum number of tasks running at the same time
+     * @param tasks
+     * @return task results, in task order
+     * @throws Exception the first task failure
+     */
+    protected <T> List<T> runConcurrently(int concurrency, List<Callable<T>> tasks) throws Exception {
+        if (tasks.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        final int permits = Math.max(1, Math.min(concurrency, tasks.size()));
+        final Semaphore semaphore = new Semaphore(permits);
+        final List<Callable<T>> bounded = tasks.stream().map(task -> (Callable<T>) () -> {
+            semaphore.acquire();
+            try {
+                return task.call();
+            } finally {
+                semaphore.release();
+            }
+        }).collect(Collectors.toList());
+
+        ExecutorService executor = AnypointExecutors.newTaskExecutor(virtualThreads, permits, report.getGoal());
+        try {
+            List<T> results = new ArrayList<>();
+            Exception failure = null;
+            Duration timeout = deadline.timeout("concurrent tasks", deadline.remaining());
+
+            for (Future<T> future : executor.invokeAll(bounded, timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                try {
+                    results.add(future.get());
+                } catch (CancellationException exception) {
+                    failure = failure != null ? failure : new AnypointTimeoutException(String.format("Concurrent tasks did not complete within %s ms", timeout.toMillis()));
+                } catch (ExecutionException exception) {
+                    failure = failure != null ? failure : exception.getCause() instanceof Exception ? (Exception) exception.getCause() : exception;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs blocking Anypoint calls concurrently like runConcurrently, under an adaptive limit: the
+     * limit grows while latency stays flat, and backs off when Anypoint throttles (429, 503) or
+     * latency rises. Throttled tasks are tried again under the lowered limit, after a backoff, and a 503
+     * only for idempotent calls. The limit and its
+     * changes are recorded in the execution report as concurrency.&lt;operation&gt;.
+     *
+     * @param operation bulk operation name
+     * @param concurrency starting limit
+     * @param tasks
+     * @return task results, in task order
+     * @throws Exception the first task failure
+     */
+    protected <T> List<T> runAdaptively(String operation, int concurrency, List<Callable<T>> tasks) throws Exception {
+        if (adaptiveConcurrency.isEnabled() == false || tasks.isEmpty()) {
+            return this.runConcurrently(concurrency, tasks);
+        }
+
+        final AnypointConcurrencyLimiter limiter = new AnypointConcurrencyLimiter(operation, concurrency, adaptiveConcurrency);
+        final List<Callable<T>> limited = tasks.stream().map(task -> (Callable<T>) () -> {
+            for (int attempt = 0; ; attempt++) {
+                final int retry = attempt;
+                long startedAt = limiter.acquire();
+                AnypointConcurrencyLimiter.Outcome outcome = AnypointConcurrencyLimiter.Outcome.FAILED;
+                AnypointRestAPIException throttled;
+                try {
+                    T result = AnypointRestAPIClient.retry(retry, task);
+                    outcome = AnypointConcurrencyLimiter.Outcome.COMPLETED;
+                    return result;
+                } catch (AnypointRestAPIException exception) {
+                    if (exception.getStatus() != 429 && exception.getStatus() != 503) {
+                        throw exception;
+                    }
+                    outcome = AnypointConcurrencyLimiter.Outcome.THROTTLED;
+                    //--- A 503 may come after the write was committed: only idempotent calls are sent again ---//
+                    if (attempt >= adaptiveConcurrency.getThrottledRetries() || (exception.getStatus() == 503 && exception.isIdempotent() == false)) {
+                        throw exception;
+                    }
+                    throttled = exception;
+                } finally {
+                    limiter.release(startedAt, outcome);
+                }
+                this.backOff(attempt, throttled);
+            }
+        }).collect(Collectors.toList());
+
+        try {
+            return this.runConcurrently(Math.max(concurrency, adaptiveConcurrency.getMaxLimit()), limited);
+        } finally {
+            report.metric(String.format("concurrency.%s.limit", phasePrefix + operation), limiter.getLimit());
+            report.metric(String.format("concurrency.%s.peakLimit", phasePrefix + operation), limiter.getPeakLimit());
+            report.metric(String.format("concurrency.%s.throttled", phasePrefix + operation), limiter.getThrottled());
+            report.metric(String.format("concurrency.%s.history", phasePrefix + operation), limiter.getHistory());
+            getLog().debug(String.format("Concurrency of %s: limit %s, peak %s, %s throttled", operation, limiter.getLimit(), limiter.getPeakLimit(), limiter.getThrottled()));
+        }
+    }
+
+    /**
+     * Waits before a throttled task is tried again: the Retry-After delay when Anypoint gives one,
+     * else an exponential backoff with equal jitter (between half the ceiling and the ceiling), so
+     * throttled tasks do not come back together.
+     *
+     * @param attempt attempts made so far, minus one
+     * @param throttled throttling answer
+     * @throws AnypointRestAPIException the throttling answer, when the wait would outlast the deadline
+     */
+    private void backOff(int attempt, AnypointRestAPIException throttled) throws InterruptedException {
+        long ceiling = Math.min(adaptiveConcurrency.getMaxRetryBackoffInMilliseconds(), adaptiveConcurrency.getRetryBackoffInMilliseconds() << Math.min(attempt, 20));
+        long delay = throttled.getRetryAfterInMilliseconds() != null
+                ? throttled.getRetryAfterInMilliseconds()
+                : ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+        if (delay >= deadline.remaining().toMillis()) {
+            throw throttled;
+        }
+        Thread.sleep(delay);
+    }
+
+    /**
+     *
+     * @return
+     */
+    protected AnypointToken getAnypointAccessToken() {
+        //-------------------------------------------------------------------------//
+        //--- GET AN ACCESS TOKEN BASED ON USERNAME/PASSWORD, ONCE PER SESSION ---//
+        //-------------------------------------------------------------------------//
+        return session.token();
+    }
+
+    /**
+     * Displays how long each phase took.
+     */
+    private void printTimeBreakdown() {
+        getLog().info("");
+        getLog().info("------------------------------------------------------------------------");
+        getLog().info("                     EXECUTION TIME BREAKDOWN                           ");
+        getLog().info("------------------------------------------------------------------------");
+
+        synchronized (phases) {
+            phases.forEach((phase, duration) -> {
+                getLog().info(String.format("%-32s: %8s ms", phase, duration));
+                report.metric(String.format("phase.%s.durationInMilliseconds", phase), duration);
+            });
+        }
+
+        long elapsed = deadline.elapsed().toMillis();
+        getLog().info("------------------------------------------------------------------------");
+        getLog().info(String.format("%-32s: %8s ms (budget: %s ms)", "total", elapsed, executionTimeoutInMilliseconds));
+        getLog().info("------------------------------------------------------------------------");
+        getLog().info("");
+        report.metric("totalDurationInMilliseconds", elapsed);
+    }
+
+    /**
+     * Creates the HTTP transport of the configured kind, recording or replaying calls when a
+     * cassette mode is set.
+     *
+     * @return transport
+     */
+    @SneakyThrows
+    protected AnypointHttpTransport newTransport() {
+        AnypointHttpTransport created = AnypointHttpTransport.create(transport);
+        if (AnypointCassette.RECORD.equalsIgnoreCase(cassetteMode)) {
+            return new AnypointRecordingTransport(created, this.cassette());
+        }
+        if (AnypointCassette.REPLAY.equalsIgnoreCase(cassetteMode)) {
+            AnypointReplayServer server = AnypointReplayServer.forCassette(this.cassette(), replayTimingScale);
+            getLog().info(String.format("Replaying Anypoint calls from %s on %s (timing x%s)", this.cassette(), server.getUrl(), replayTimingScale));
+            return new AnypointReplayTransport(created, server);
+        }
+        if (AnypointCassette.OFF.equalsIgnoreCase(cassetteMode) == false) {
+            throw new IllegalArgumentException(String.format("Unknown cassette mode: %s (expected %s, %s or %s)", cassetteMode, AnypointCassette.OFF, AnypointCassette.RECORD, AnypointCassette.REPLAY));
+        }
+        return created;
+    }
+
+    private File cassette() {
+        return cassetteFile != null ? cassetteFile : AnypointExecutionReport.outputFile(buildDirectory, String.format("%s-cassette.json", report.getGoal()));
+    }
+
+    /**
+     * Writes the calls recorded so far, in record mode.
+     */
+    private void writeCassette() {
+        if (AnypointCassette.RECORD.equalsIgnoreCase(cassetteMode) == false) {
+            return;
+        }
+        try {
+            AnypointRecordingTransport.flush().forEach(file -> getLog().info(String.format("Anypoint calls recorded to %s", file)));
+        } catch (Exception exception) {
+            getLog().warn("Could not write cassette", exception);
+        }
+    }
+
+    /**
+     * Writes collected metrics to the build directory.
+     */
+    private void writeReport() {
+        try {
+            report.write(AnypointExecutionReport.outputFile(buildDirectory, String.format("%s-report.json", report.getGoal())));
+        } catch (Exception exception) {
+            getLog().warn("Could not write execution report", exception);
+        }
+    }
+
+    /**
+     * Phase body without result.
+     */
+    protected interface Step {
+
+        void run() throws Exception;
+    }
+
+    /**
+     * Removal of a resource.
+     */
+    protected interface Teardown {
+
+        void run(AnypointRestAPIClient client, AnypointToken accessToken) throws Exception;
+    }
+}
@@ -0,0 +1,18 @@
+package com.mulesoft.meetups;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Builder
+@Getter
+@Setter
+public class AnypointAPIClientContract {
+
+    private Long id;
+    private Long apiId;
+    private String status;
+    private Long applicationId;
+    private String applicationName;
+    private Long tierId;
+}
@@ -1,5 +1,6 @@
 package com.mulesoft.meetups;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -11,6 +12,8 @@ import java.util.List;
 @Setter
 public class AnypointAPISlaTier {
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long id;
     private String status;
     private Boolean autoApprove;
     private List<AnypointAPISlaTierLimit> limits;
@@ -0,0 +1,50 @@
+package com.mulesoft.meetups;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event covering one Anypoint REST API call, transport included.
+ */
+@Name("com.mulesoft.meetups.AnypointCall")
+@Label("Anypoint Call")
+@Category({"Anypoint Maven Plugin", "Calls"})
+@Description("Call to the Anypoint Platform REST API")
+@StackTrace(false)
+public class AnypointCallEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Method")
+    String method;
+
+    @Label("URL Template")
+    String urlTemplate;
+
+    @Label("Status")
+    @Description("HTTP status, 0 when no response was received")
+    int status;
+
+    @Label("Request Bytes")
+    @DataAmount
+    long requestBytes;
+
+    @Label("Response Bytes")
+    @DataAmount
+    long responseBytes;
+
+    @Label("Retries")
+    @Description("Retry number of the task making the call, retried when throttled under adaptive concurrency")
+    int retries;
+
+    @Label("Error")
+    String error;
+
+    @Label("Transport")
+    String transport;
+}
@@ -0,0 +1,186 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Anypoint calls recorded by AnypointRecordingTransport and served back by AnypointReplayServer.
+ *
+ * Credentials never reach the file: request headers are not recorded, and JSON fields and query
+ * parameters holding passwords, tokens or secrets are replaced in request and response bodies.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnypointCassette {
+
+    public static final String OFF = "off";
+    public static final String RECORD = "record";
+    public static final String REPLAY = "replay";
+
+    static final String SCRUBBED = "scrubbed";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final Set<String> SECRETS = new HashSet<>(Arrays.asList(
+            "password", "access_token", "accesstoken", "refresh_token", "id_token", "token",
+            "client_secret", "clientsecret", "secret", "apikey", "api_key"));
+
+    private Date recordedAt;
+    @Builder.Default
+    private List<Interaction> interactions = new ArrayList<>();
+
+    /**
+     * @param file cassette file
+     * @return cassette
+     * @throws IOException
+     */
+    public static AnypointCassette read(File file) throws IOException {
+        return MAPPER.readValue(file, AnypointCassette.class);
+    }
+
+    /**
+     * Writes the cassette atomically.
+     * @param file cassette file, parent directories are created if needed
+     * @throws IOException
+     */
+    public void write(File file) throws IOException {
+        AnypointFiles.writeAtomically(file.toPath(), MAPPER.writer(), this);
+    }
+
+    /**
+     * @param url request URL
+     * @return path and query of the URL, secret query parameters scrubbed
+     */
+    public static String target(String url) {
+        URI uri = URI.create(url);
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        if (uri.getRawQuery() == null) {
+            return path;
+        }
+
+        List<String> parameters = new ArrayList<>();
+        for (String parameter : uri.getRawQuery().split("&")) {
+            int separator = parameter.indexOf('=');
+            String name = separator < 0 ? parameter : parameter.substring(0, separator);
+            parameters.add(separator >= 0 && SECRETS.contains(name.toLowerCase()) ? name + "=" + SCRUBBED : parameter);
+        }
+        return path + "?" + String.join("&", parameters);
+    }
+
+    /**
+     * @param body request or response body, possibly null
+     * @return body with secret JSON fields scrubbed, unchanged when not JSON
+     */
+    public static byte[] scrub(byte[] body) {
+        if (body == null || body.length == 0 || (body[0] != '{' && body[0] != '[')) {
+            return body;
+        }
+        try {
+            JsonNode tree = MAPPER.readTree(body);
+            return scrub(tree) ? MAPPER.writeValueAsBytes(tree) : body;
+        } catch (IOException exception) {
+            return body;
+        }
+    }
+
+    /**
+     * @param body scrubbed request body, possibly null
+     * @return SHA-256 of the body, in hex
+     */
+    public static String digest(byte[] body) {
+        return AnypointDigests.sha256Hex(body);
+    }
+
+    /**
+     * @return true when a field was scrubbed
+     */
+    private static boolean scrub(JsonNode node) {
+        boolean scrubbed = false;
+        if (node instanceof ObjectNode) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (SECRETS.contains(field.getKey().toLowerCase()) && field.getValue().isValueNode() && field.getValue().isNull() == false) {
+                    field.setValue(MAPPER.getNodeFactory().textNode(SCRUBBED));
+                    scrubbed = true;
+                } else {
+                    scrubbed |= scrub(field.getValue());
+                }
+            }
+        } else if (node instanceof ArrayNode) {
+            for (JsonNode element : node) {
+                scrubbed |= scrub(element);
+            }
+        }
+        return scrubbed;
+    }
+
+    /**
+     * One recorded call.
+     */
+    @Builder
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Interaction {
+
+        private String operation;
+        private String method;
+        /**
+         * Path and query, the host is the replay server.
+         */
+        private String target;
+        /**
+         * SHA-256 of the scrubbed request body.
+         */
+        private String requestDigest;
+        private int status;
+        /**
+         * Scrubbed response body: UTF-8 text, or Base64 when binary.
+         */
+        private String responseBody;
+        private boolean responseBase64;
+        /**
+         * Time from the first recorded call to the start of this one.
+         */
+        private long offsetInMilliseconds;
+        private long durationInMilliseconds;
+
+        /**
+         * @return response body as sent
+         */
+        public byte[] responseBytes() {
+            if (responseBody == null) {
+                return new byte[0];
+            }
+            return responseBase64 ? Base64.getDecoder().decode(responseBody) : responseBody.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
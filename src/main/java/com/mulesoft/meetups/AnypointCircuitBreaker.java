@@ -0,0 +1,134 @@
+package com.mulesoft.meetups;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Count-based circuit breaker guarding one Anypoint endpoint family (accounts, apimanager, exchange).
+ *
+ * Breakers are registered statically, so every execution in the same JVM (every module of a reactor
+ * build) shares their state: an outage is detected once and later executions fail fast until a
+ * half-open probe succeeds. The configuration of the first execution using a family applies.
+ */
+public class AnypointCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final Map<String, AnypointCircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    @Getter
+    private final String family;
+    private final AnypointCircuitBreakerConfig config;
+    private final boolean[] failures;
+    private final boolean[] slowCalls;
+    private int calls;
+    private int next;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+    private long openedAt;
+    @Getter
+    private State state = State.CLOSED;
+
+    private AnypointCircuitBreaker(String family, AnypointCircuitBreakerConfig config) {
+        this.family = family;
+        this.config = config;
+        this.failures = new boolean[config.getWindowSize()];
+        this.slowCalls = new boolean[config.getWindowSize()];
+    }
+
+    /**
+     * @param family endpoint family
+     * @param config thresholds used if the breaker does not exist yet
+     * @return JVM-wide breaker of the family
+     */
+    public static AnypointCircuitBreaker forFamily(String family, AnypointCircuitBreakerConfig config) {
+        return BREAKERS.computeIfAbsent(family, f -> new AnypointCircuitBreaker(f, config));
+    }
+
+    /**
+     * @return state of every breaker created so far, by family
+     */
+    public static Map<String, State> states() {
+        Map<String, State> states = new TreeMap<>();
+        BREAKERS.forEach((family, breaker) -> states.put(family, breaker.getState()));
+        return states;
+    }
+
+    /**
+     * Must be called before each call.
+     * @throws AnypointCircuitOpenException if the circuit is open, or half-open with all probes in flight
+     */
+    public synchronized void acquirePermission() {
+        if (state == State.OPEN) {
+            long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - openedAt);
+            if (waited < config.getWaitDurationInOpenStateInMilliseconds()) {
+                throw new AnypointCircuitOpenException(family, config.getWaitDurationInOpenStateInMilliseconds() - waited);
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = config.getPermittedCallsInHalfOpenState();
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                throw new AnypointCircuitOpenException(family, 0);
+            }
+            halfOpenPermits--;
+        }
+    }
+
+    /**
+     * Records the outcome of a call that was permitted.
+     * @param durationInMilliseconds call duration
+     * @param failure true for failures that indicate an unhealthy service (network errors, timeouts, 5xx, 429)
+     */
+    public synchronized void onResult(long durationInMilliseconds, boolean failure) {
+        final boolean slow = durationInMilliseconds >= config.getSlowCallDurationInMilliseconds();
+
+        if (state == State.HALF_OPEN) {
+            if (failure || slow) {
+                open();
+            } else if (++halfOpenSuccesses >= config.getPermittedCallsInHalfOpenState()) {
+                close();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+
+        failures[next] = failure;
+        slowCalls[next] = slow;
+        next = (next + 1) % failures.length;
+        calls = Math.min(calls + 1, failures.length);
+
+        if (calls >= Math.min(config.getMinimumCalls(), failures.length)
+                && (rate(failures) >= config.getFailureRateThreshold() || rate(slowCalls) >= config.getSlowCallRateThreshold())) {
+            open();
+        }
+    }
+
+    private int rate(boolean[] outcomes) {
+        int count = 0;
+        for (int index = 0; index < calls; index++) {
+            if (outcomes[index]) {
+                count++;
+            }
+        }
+        return count * 100 / calls;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        calls = 0;
+        next = 0;
+    }
+}
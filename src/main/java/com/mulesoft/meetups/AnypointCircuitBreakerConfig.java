@@ -0,0 +1,21 @@
+package com.mulesoft.meetups;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Thresholds of the Anypoint circuit breakers, configured through the circuitBreaker mojo parameter.
+ */
+@Getter
+@Setter
+public class AnypointCircuitBreakerConfig {
+
+    private boolean enabled = true;
+    private int windowSize = 10;
+    private int minimumCalls = 5;
+    private int failureRateThreshold = 50;
+    private long slowCallDurationInMilliseconds = 10000;
+    private int slowCallRateThreshold = 80;
+    private long waitDurationInOpenStateInMilliseconds = 30000;
+    private int permittedCallsInHalfOpenState = 2;
+}
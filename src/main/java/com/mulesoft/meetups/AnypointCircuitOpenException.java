@@ -0,0 +1,19 @@
+package com.mulesoft.meetups;
+
+import lombok.Getter;
+
+/**
+ * Thrown instead of calling an Anypoint endpoint family whose circuit breaker is open.
+ */
+@Getter
+public class AnypointCircuitOpenException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String family;
+
+    public AnypointCircuitOpenException(String family, long retryInMilliseconds) {
+        super(String.format("Anypoint %s endpoints are unavailable (circuit open, next probe in %s ms)", family, retryInMilliseconds));
+        this.family = family;
+    }
+}
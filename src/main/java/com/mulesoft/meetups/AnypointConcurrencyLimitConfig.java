@@ -0,0 +1,37 @@
+package com.mulesoft.meetups;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Bounds of the adaptive concurrency limiters of bulk Anypoint operations, configured through the
+ * adaptiveConcurrency mojo parameter.
+ */
+@Getter
+@Setter
+public class AnypointConcurrencyLimitConfig {
+
+    private boolean enabled = true;
+    private int minLimit = 1;
+    private int maxLimit = 16;
+    /**
+     * Task latency, relative to the fastest task seen, above which the limit is lowered.
+     */
+    private double latencyTolerance = 2.0;
+    /**
+     * Factor applied to the limit on throttling (429, 503) or rising latency.
+     */
+    private double backoffRatio = 0.5;
+    /**
+     * Times a throttled task is tried again, once the limit was lowered.
+     */
+    private int throttledRetries = 3;
+    /**
+     * Delay before the first retry of a throttled task, doubled at each retry, with jitter.
+     */
+    private long retryBackoffInMilliseconds = 250;
+    /**
+     * Longest delay between retries, unless Anypoint asks for more with Retry-After.
+     */
+    private long maxRetryBackoffInMilliseconds = 10000;
+}
@@ -0,0 +1,138 @@
+package com.mulesoft.meetups;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Additive-increase, multiplicative-decrease limit of the tasks of one bulk operation in flight.
+ *
+ * The limit grows by about one per round trip (1/limit for each task completing) while the limiter
+ * is at least half used and the latency stays within the tolerance of the fastest task seen. It is
+ * multiplied by the backoff ratio when Anypoint throttles a task (429, 503) or the latency rises
+ * above the tolerance, at most once per round trip: tasks started before the last decrease do not
+ * lower it again.
+ */
+public class AnypointConcurrencyLimiter {
+
+    private static final int MAX_HISTORY = 200;
+
+    @Getter
+    private final String operation;
+    private final AnypointConcurrencyLimitConfig config;
+    private final int maxLimit;
+    private final long createdAt = System.nanoTime();
+    private final List<Change> history = new ArrayList<>();
+    private double limit;
+    private int inFlight;
+    private long fastestInNanos = Long.MAX_VALUE;
+    private long lastDecreaseAt;
+    @Getter
+    private int peakLimit;
+    @Getter
+    private int throttled;
+
+    /**
+     * @param operation bulk operation name
+     * @param initialLimit starting limit
+     * @param config bounds, the limit grows to maxLimit, or to the starting limit if higher
+     */
+    public AnypointConcurrencyLimiter(String operation, int initialLimit, AnypointConcurrencyLimitConfig config) {
+        this.operation = operation;
+        this.config = config;
+        this.maxLimit = Math.max(initialLimit, config.getMaxLimit());
+        this.limit = Math.max(config.getMinLimit(), Math.min(initialLimit, maxLimit));
+        this.peakLimit = (int) limit;
+        this.lastDecreaseAt = createdAt;
+        this.record("initial");
+    }
+
+    /**
+     * Waits until the task may start.
+     * @return start time of the task, to be given back on release
+     * @throws InterruptedException
+     */
+    public synchronized long acquire() throws InterruptedException {
+        while (inFlight >= (int) limit) {
+            this.wait();
+        }
+        inFlight++;
+        return System.nanoTime();
+    }
+
+    /**
+     * Ends a task and adapts the limit.
+     * @param startedAt start time returned by acquire
+     * @param outcome COMPLETED, THROTTLED, or FAILED (no signal)
+     */
+    public synchronized void release(long startedAt, Outcome outcome) {
+        final long latency = System.nanoTime() - startedAt;
+        final boolean busy = inFlight * 2 >= (int) limit;
+        inFlight--;
+
+        if (outcome == Outcome.THROTTLED) {
+            throttled++;
+            this.decrease(startedAt, "throttled");
+        } else if (outcome == Outcome.COMPLETED) {
+            fastestInNanos = Math.min(fastestInNanos, latency);
+            if (latency > fastestInNanos * config.getLatencyTolerance()) {
+                this.decrease(startedAt, String.format("latency %s ms", TimeUnit.NANOSECONDS.toMillis(latency)));
+            } else if (busy && limit < maxLimit) {
+                int before = (int) limit;
+                limit = Math.min(maxLimit, limit + 1 / limit);
+                peakLimit = Math.max(peakLimit, (int) limit);
+                if ((int) limit != before) {
+                    this.record("flat latency");
+                }
+            }
+        }
+        this.notifyAll();
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return limit changes, the last ones when there were many
+     */
+    public synchronized List<Change> getHistory() {
+        return new ArrayList<>(history);
+    }
+
+    private void decrease(long startedAt, String reason) {
+        if (startedAt < lastDecreaseAt) {
+            return;
+        }
+        lastDecreaseAt = System.nanoTime();
+        int before = (int) limit;
+        limit = Math.max(config.getMinLimit(), limit * config.getBackoffRatio());
+        if ((int) limit != before) {
+            this.record(reason);
+        }
+    }
+
+    private void record(String reason) {
+        if (history.size() == MAX_HISTORY) {
+            history.remove(0);
+        }
+        history.add(new Change(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - createdAt), (int) limit, reason));
+    }
+
+    public enum Outcome { COMPLETED, THROTTLED, FAILED }
+
+    /**
+     * Limit from a point of the operation on.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Change {
+
+        private final long atInMilliseconds;
+        private final int limit;
+        private final String reason;
+    }
+}
@@ -0,0 +1,75 @@
+package com.mulesoft.meetups;
+
+import java.time.Duration;
+
+/**
+ * Overall time budget of a goal execution.
+ *
+ * The main work must complete before the deadline minus the clean-up reserve. Once clean-up starts,
+ * it may run until the deadline, and never gets less than the reserve, even when the main work
+ * overran.
+ */
+public class AnypointDeadline {
+
+    private final long start = System.nanoTime();
+    private final long deadline;
+    private final long cleanupReserve;
+    private volatile long cleanupDeadline = Long.MIN_VALUE;
+
+    /**
+     * @param total overall execution budget
+     * @param cleanupReserve part of the budget kept for clean-up
+     */
+    public AnypointDeadline(Duration total, Duration cleanupReserve) {
+        this.deadline = start + total.toNanos();
+        this.cleanupReserve = cleanupReserve.toNanos();
+    }
+
+    /**
+     * @return deadline that never expires
+     */
+    public static AnypointDeadline unbounded() {
+        return new AnypointDeadline(Duration.ofDays(365), Duration.ZERO);
+    }
+
+    /**
+     * Switches to the clean-up phase, releasing the reserved budget.
+     */
+    public void enterCleanup() {
+        cleanupDeadline = Math.max(deadline, System.nanoTime() + cleanupReserve);
+    }
+
+    public boolean isCleanup() {
+        return cleanupDeadline != Long.MIN_VALUE;
+    }
+
+    /**
+     * @return time left in the current phase, possibly negative
+     */
+    public Duration remaining() {
+        long end = isCleanup() ? cleanupDeadline : deadline - cleanupReserve;
+        return Duration.ofNanos(end - System.nanoTime());
+    }
+
+    /**
+     * @return time elapsed since the execution started
+     */
+    public Duration elapsed() {
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    /**
+     * Computes the timeout of one operation.
+     * @param operation operation name, used in the error message
+     * @param operationTimeout timeout of the operation on its own
+     * @return the smaller of the operation timeout and the time left in the current phase
+     * @throws AnypointTimeoutException if no time is left
+     */
+    public Duration timeout(String operation, Duration operationTimeout) {
+        Duration remaining = remaining();
+        if (remaining.isNegative() || remaining.isZero()) {
+            throw new AnypointTimeoutException(String.format("Execution deadline exceeded before %s (elapsed: %s ms)", operation, elapsed().toMillis()));
+        }
+        return remaining.compareTo(operationTimeout) < 0 ? remaining : operationTimeout;
+    }
+}
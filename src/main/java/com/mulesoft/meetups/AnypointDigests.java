@@ -0,0 +1,61 @@
+package com.mulesoft.meetups;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 digests of contents and keys, in hex where they name files or identify contents.
+ */
+public final class AnypointDigests {
+
+    private AnypointDigests() {
+    }
+
+    /**
+     * @return new SHA-256 digest
+     */
+    public static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * @param contents contents, possibly null (hashed as empty)
+     * @return SHA-256 of the contents
+     */
+    public static byte[] sha256(byte[] contents) {
+        return newSha256().digest(contents == null ? new byte[0] : contents);
+    }
+
+    /**
+     * @param contents contents, possibly null (hashed as empty)
+     * @return SHA-256 of the contents, in hex
+     */
+    public static String sha256Hex(byte[] contents) {
+        return hex(sha256(contents));
+    }
+
+    /**
+     * @param values key parts, joined with new lines
+     * @return SHA-256 of the key, in hex
+     */
+    public static String sha256Hex(String... values) {
+        return sha256Hex(String.join("\n", values).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param bytes digest
+     * @return lower-case hex form
+     */
+    public static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.mulesoft.meetups;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * Publication of one documentation page, as kept in the docs queue (AnypointDocsQueue).
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnypointDocsJob {
+
+    public static final String PENDING = "PENDING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    /**
+     * Digest of the page coordinates: a page has one job, enqueuing it again replaces it.
+     */
+    private String id;
+    /**
+     * Changes at every enqueue, so a worker publishing older contents does not complete the job.
+     */
+    private String revision;
+    /**
+     * Anypoint user the page is published as.
+     */
+    private String username;
+    private String organizationId;
+    private String apiName;
+    private String apiVersion;
+    private String pageName;
+    /**
+     * Page contents as read when the job was enqueued.
+     */
+    private String contents;
+    @Builder.Default
+    private String status = PENDING;
+    private int attempts;
+    private String lastError;
+    private Date enqueuedAt;
+    private Date completedAt;
+}
@@ -0,0 +1,104 @@
+package com.mulesoft.meetups;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Operations bringing the draft portal of an asset version to the documentation files: pages to
+ * create, pages whose contents changed, and pages no file describes any more.
+ */
+@Getter
+public class AnypointDocsPlan {
+
+    public static final String CREATE = "CREATE";
+    public static final String UPDATE = "UPDATE";
+    public static final String UNCHANGED = "UNCHANGED";
+    public static final String DELETE = "DELETE";
+    /**
+     * Page without file, kept unless pruning is enabled.
+     */
+    public static final String KEEP = "KEEP";
+
+    private final List<Action> actions = new ArrayList<>();
+
+    /**
+     * @param local page contents to publish, by page path
+     * @param remote contents of the draft pages, by page path
+     * @param prune deletes the draft pages without file
+     * @return plan, pages in path order
+     */
+    public static AnypointDocsPlan compute(Map<String, String> local, Map<String, String> remote, boolean prune) {
+        AnypointDocsPlan plan = new AnypointDocsPlan();
+        TreeSet<String> pages = new TreeSet<>(local.keySet());
+        pages.addAll(remote.keySet());
+
+        for (String page : pages) {
+            String contents = local.get(page);
+            String type;
+            if (contents == null) {
+                type = prune ? DELETE : KEEP;
+            } else if (remote.containsKey(page) == false) {
+                type = CREATE;
+            } else {
+                type = normalize(contents).equals(normalize(remote.get(page))) ? UNCHANGED : UPDATE;
+            }
+            plan.actions.add(Action.builder()
+                    .page(page)
+                    .type(type)
+                    .contents(contents)
+                    .build());
+        }
+        return plan;
+    }
+
+    /**
+     * @return actions changing the draft portal
+     */
+    public List<Action> changes() {
+        List<Action> changes = new ArrayList<>();
+        for (Action action : actions) {
+            if (CREATE.equals(action.getType()) || UPDATE.equals(action.getType()) || DELETE.equals(action.getType())) {
+                changes.add(action);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * @param type action type
+     * @return number of pages with that action
+     */
+    public long count(String type) {
+        return actions.stream().filter(action -> type.equals(action.getType())).count();
+    }
+
+    /**
+     * Line endings and trailing whitespace are not differences.
+     */
+    private static String normalize(String contents) {
+        return contents == null ? "" : contents.replace("\r\n", "\n").trim();
+    }
+
+    @Builder
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Action {
+
+        private String page;
+        private String type;
+        /**
+         * Contents to write, null for pages without file.
+         */
+        private String contents;
+    }
+}
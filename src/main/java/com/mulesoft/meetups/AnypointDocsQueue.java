@@ -0,0 +1,127 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Durable queue of documentation page publications, one file per page, written atomically so a
+ * build stopped at any point leaves every job either as it was or as it became. Jobs stay PENDING
+ * until published, so jobs of an interrupted build are picked up by the next one.
+ *
+ * Completed (DONE) and given up (FAILED) jobs are kept until acknowledged by the await-api-docs goal.
+ */
+public class AnypointDocsQueue {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Path directory;
+
+    public AnypointDocsQueue(File directory) {
+        this.directory = directory.toPath().resolve("docs");
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Adds a page publication, replacing the job of the same page if any.
+     * @param job page publication, id, revision, status and attempts are assigned
+     * @return enqueued job
+     * @throws IOException
+     */
+    public synchronized AnypointDocsJob enqueue(AnypointDocsJob job) throws IOException {
+        job.setId(AnypointDigests.sha256Hex(job.getUsername(), job.getOrganizationId(), job.getApiName(), job.getApiVersion(), job.getPageName()));
+        job.setRevision(UUID.randomUUID().toString());
+        job.setStatus(AnypointDocsJob.PENDING);
+        job.setAttempts(0);
+        job.setLastError(null);
+        job.setEnqueuedAt(new Date());
+        job.setCompletedAt(null);
+        this.write(job);
+        return job;
+    }
+
+    /**
+     * @param id job id
+     * @return job, null when not queued
+     * @throws IOException
+     */
+    public synchronized AnypointDocsJob read(String id) throws IOException {
+        Path file = directory.resolve(id + ".json");
+        return Files.exists(file) ? MAPPER.readValue(file.toFile(), AnypointDocsJob.class) : null;
+    }
+
+    /**
+     * @param username Anypoint user, null for all users
+     * @return jobs of the user, oldest first
+     * @throws IOException
+     */
+    public synchronized List<AnypointDocsJob> jobs(String username) throws IOException {
+        if (Files.isDirectory(directory) == false) {
+            return new ArrayList<>();
+        }
+
+        List<AnypointDocsJob> jobs = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(".json")).collect(Collectors.toList())) {
+                AnypointDocsJob job = MAPPER.readValue(file.toFile(), AnypointDocsJob.class);
+                if (username == null || username.equals(job.getUsername())) {
+                    jobs.add(job);
+                }
+            }
+        }
+        jobs.sort(Comparator.comparing(AnypointDocsJob::getEnqueuedAt, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return jobs;
+    }
+
+    /**
+     * Records the outcome of an attempt, unless the job was enqueued again in the meantime.
+     * @param job job as attempted
+     * @param error failure of the attempt, null when published
+     * @param maxAttempts attempts before the job is given up
+     * @return job as recorded, null when superseded by a newer revision
+     * @throws IOException
+     */
+    public synchronized AnypointDocsJob complete(AnypointDocsJob job, String error, int maxAttempts) throws IOException {
+        AnypointDocsJob current = this.read(job.getId());
+        if (current == null || job.getRevision().equals(current.getRevision()) == false) {
+            return null;
+        }
+
+        current.setAttempts(current.getAttempts() + 1);
+        current.setLastError(error);
+        if (error == null || current.getAttempts() >= maxAttempts) {
+            current.setStatus(error == null ? AnypointDocsJob.DONE : AnypointDocsJob.FAILED);
+            current.setCompletedAt(new Date());
+        }
+        this.write(current);
+        return current;
+    }
+
+    /**
+     * Forgets a job.
+     * @param id job id
+     * @throws IOException
+     */
+    public synchronized void remove(String id) throws IOException {
+        Files.deleteIfExists(directory.resolve(id + ".json"));
+    }
+
+    private void write(AnypointDocsJob job) throws IOException {
+        AnypointFiles.writeAtomically(directory.resolve(job.getId() + ".json"), MAPPER.writer(), job);
+    }
+}
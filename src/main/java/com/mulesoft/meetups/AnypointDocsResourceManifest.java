@@ -0,0 +1,113 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Resources uploaded to the portal of one asset version, by SHA-256 of their contents, so a
+ * resource referenced by several pages, or published again by a later build, is uploaded once.
+ *
+ * Kept as one file per asset version, named after the SHA-256 of the asset coordinates, and
+ * rewritten atomically when uploads were made.
+ */
+public class AnypointDocsResourceManifest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path file;
+    private final Map<String, String> uploaded = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<String>> uploads = new ConcurrentHashMap<>();
+
+    /**
+     * @param directory root directory of the manifests
+     * @param groupId asset group
+     * @param assetId asset
+     * @param assetVersion asset version
+     * @throws IOException
+     */
+    public AnypointDocsResourceManifest(File directory, String groupId, String assetId, String assetVersion) throws IOException {
+        this.file = directory.toPath().resolve("resources").resolve(AnypointDigests.sha256Hex(groupId, assetId, assetVersion) + ".json");
+        if (Files.exists(file)) {
+            uploaded.putAll(MAPPER.readValue(file.toFile(), new TypeReference<Map<String, String>>() {
+            }));
+        }
+    }
+
+    /**
+     * @param digest SHA-256 of the resource contents
+     * @return portal path of the resource, null when not uploaded yet
+     */
+    public String lookup(String digest) {
+        return uploaded.get(digest);
+    }
+
+    /**
+     * Gets the portal path of a resource, or uploads it, once per content even when several pages
+     * ask for it at the same time. Failed uploads are forgotten, so the next caller retries.
+     *
+     * @param digest SHA-256 of the resource contents
+     * @param upload uploads the resource and returns its portal path
+     * @return portal path of the resource
+     * @throws Exception
+     */
+    public String upload(String digest, Upload upload) throws Exception {
+        String path = uploaded.get(digest);
+        if (path != null) {
+            return path;
+        }
+
+        CompletableFuture<String> call = new CompletableFuture<>();
+        CompletableFuture<String> existing = uploads.putIfAbsent(digest, call);
+        if (existing == null) {
+            try {
+                path = upload.run();
+                uploaded.put(digest, path);
+                call.complete(path);
+            } catch (Exception exception) {
+                uploads.remove(digest, call);
+                call.completeExceptionally(exception);
+            }
+        }
+        try {
+            return (existing != null ? existing : call).get();
+        } catch (ExecutionException exception) {
+            throw exception.getCause() instanceof Exception ? (Exception) exception.getCause() : exception;
+        }
+    }
+
+    /**
+     * @return number of resources uploaded by this manifest instance
+     */
+    public int getUploads() {
+        return (int) uploads.values().stream().filter(call -> call.isDone() && call.isCompletedExceptionally() == false).count();
+    }
+
+    /**
+     * Writes the manifest, when resources were uploaded.
+     * @throws IOException
+     */
+    public void store() throws IOException {
+        if (this.getUploads() == 0) {
+            return;
+        }
+        AnypointFiles.writeAtomically(file, MAPPER.writerWithDefaultPrettyPrinter(), new TreeMap<>(uploaded));
+    }
+
+    /**
+     * Upload of a resource.
+     */
+    public interface Upload {
+
+        String run() throws Exception;
+    }
+}
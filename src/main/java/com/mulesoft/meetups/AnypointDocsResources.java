@@ -0,0 +1,129 @@
+package com.mulesoft.meetups;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local resources (images, attachments) referenced by a documentation page: markdown images and
+ * links, and HTML src/href attributes, outside fenced code blocks. URLs, anchors, absolute paths,
+ * other pages (.md) and missing files are left alone.
+ *
+ * Only files within the documentation directory are resources: references resolving outside it
+ * (../, links to other directories) are never uploaded to the portal.
+ */
+public final class AnypointDocsResources {
+
+    private static final Pattern MARKDOWN = Pattern.compile("(!?\\[[^\\]]*\\]\\(\\s*<?)([^)\\s>]+)(>?(?:\\s+\"[^\"]*\")?\\s*\\))");
+    private static final Pattern HTML = Pattern.compile("(<(?:img|a|source)\\b[^>]*?\\s(?:src|href)\\s*=\\s*[\"'])([^\"']+)([\"'])", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SCHEME = Pattern.compile("^[a-zA-Z][a-zA-Z0-9+.-]*:");
+
+    private AnypointDocsResources() {
+    }
+
+    /**
+     * @param directory documentation directory
+     * @param page documentation page
+     * @param contents page contents
+     * @param outside called with the references to files outside the documentation directory
+     * @return local files referenced by the page, by reference as written
+     * @throws IOException
+     */
+    public static Map<String, File> references(File directory, File page, String contents, Consumer<String> outside) throws IOException {
+        final Path root = directory.getCanonicalFile().toPath();
+        final Map<String, File> references = new LinkedHashMap<>();
+        final List<String> rejected = new ArrayList<>();
+        rewrite(contents, reference -> {
+            File file = resolve(page, reference);
+            if (file != null) {
+                references.put(reference, file);
+            }
+            return reference;
+        });
+        for (Map.Entry<String, File> reference : references.entrySet()) {
+            //--- Canonical paths: neither ../ nor symbolic links lead out of the directory ---//
+            if (reference.getValue().getCanonicalFile().toPath().startsWith(root) == false) {
+                rejected.add(reference.getKey());
+            }
+        }
+        rejected.forEach(reference -> {
+            references.remove(reference);
+            outside.accept(reference);
+        });
+        return references;
+    }
+
+    /**
+     * @param contents page contents
+     * @param replacements new reference per reference as written
+     * @return contents with the references replaced, everything else unchanged
+     */
+    public static String rewrite(String contents, Map<String, String> replacements) {
+        return rewrite(contents, reference -> replacements.getOrDefault(reference, reference));
+    }
+
+    private static String rewrite(String contents, Function<String, String> replacement) {
+        StringBuilder rewritten = new StringBuilder(contents.length());
+        String fence = null;
+        for (String line : contents.split("(?<=\n)", -1)) {
+            String trimmed = line.trim();
+
+            //--- Code blocks are shown as written ---//
+            if (fence == null && (trimmed.startsWith("```") || trimmed.startsWith("~~~"))) {
+                fence = trimmed.substring(0, 3);
+                rewritten.append(line);
+                continue;
+            }
+            if (fence != null) {
+                fence = trimmed.startsWith(fence) ? null : fence;
+                rewritten.append(line);
+                continue;
+            }
+            rewritten.append(replace(HTML, replace(MARKDOWN, line, replacement), replacement));
+        }
+        return rewritten.toString();
+    }
+
+    private static String replace(Pattern pattern, String line, Function<String, String> replacement) {
+        Matcher matcher = pattern.matcher(line);
+        StringBuffer replaced = new StringBuffer();
+        while (matcher.find()) {
+            matcher.appendReplacement(replaced, Matcher.quoteReplacement(matcher.group(1) + replacement.apply(matcher.group(2)) + matcher.group(3)));
+        }
+        matcher.appendTail(replaced);
+        return replaced.toString();
+    }
+
+    /**
+     * @return local resource file of a reference, null when the reference is not a local resource
+     */
+    private static File resolve(File page, String reference) {
+        if (reference.startsWith("#") || reference.startsWith("/") || reference.startsWith("\\") || SCHEME.matcher(reference).find()) {
+            return null;
+        }
+
+        String path = reference.replaceAll("[?#].*$", "");
+        try {
+            path = URLDecoder.decode(path.replace("+", "%2B"), StandardCharsets.UTF_8.name());
+        } catch (Exception exception) {
+            return null;
+        }
+        String lower = path.toLowerCase();
+        if (path.isEmpty() || lower.endsWith(".md") || lower.endsWith(".markdown")) {
+            return null;
+        }
+
+        File file = new File(page.getAbsoluteFile().getParentFile(), path);
+        return file.isFile() ? file : null;
+    }
+}
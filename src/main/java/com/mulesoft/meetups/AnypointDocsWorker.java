@@ -0,0 +1,275 @@
+package com.mulesoft.meetups;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Background publisher draining the docs queue (AnypointDocsQueue) of one Anypoint user while the
+ * build goes on, one worker per queue directory and user in the JVM.
+ *
+ * Jobs are published per asset version, like the synchronous goal: one listing of the draft pages,
+ * a plan (AnypointDocsPlan) of the queued pages, the changed pages only, then one publication of
+ * the draft. An asset version is handled by one task at a time, so its draft is never published
+ * concurrently.
+ *
+ * Threads are daemons: jobs still pending when the build ends without awaiting them stay queued and
+ * are published by the next build.
+ */
+public class AnypointDocsWorker {
+
+    private static final Map<String, AnypointDocsWorker> WORKERS = new ConcurrentHashMap<>();
+    private static final long RETRY_BACKOFF_IN_MILLISECONDS = 2000;
+    private static final long MAX_RETRY_BACKOFF_IN_MILLISECONDS = 60000;
+
+    private final AnypointDocsQueue queue;
+    private final String username;
+    private final AnypointSession session;
+    private final int maxAttempts;
+    private final ExecutorService executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private AnypointDocsWorker(AnypointDocsQueue queue, String username, AnypointSession session, int concurrency, int maxAttempts) {
+        this.queue = queue;
+        this.username = username;
+        this.session = session;
+        this.maxAttempts = maxAttempts;
+        this.executor = AnypointExecutors.newPlatformPool(Math.max(1, concurrency), "anypoint-docs");
+    }
+
+    /**
+     * Gets the worker of a queue and user, or starts it: it then resumes the pending jobs of the user.
+     *
+     * @param directory root directory of the queue
+     * @param username Anypoint user
+     * @param session opens the session of a new worker, kept for the lifetime of the worker
+     * @param concurrency asset versions published at the same time by a new worker
+     * @param maxAttempts attempts before a page is given up
+     * @return worker
+     * @throws IOException
+     */
+    public static AnypointDocsWorker start(File directory, String username, Supplier<AnypointSession> session, int concurrency, int maxAttempts) throws IOException {
+        final String key = String.format("%s\n%s", directory.getAbsolutePath(), username);
+        AnypointDocsWorker worker = WORKERS.get(key);
+        if (worker == null) {
+            synchronized (WORKERS) {
+                worker = WORKERS.get(key);
+                if (worker == null) {
+                    worker = new AnypointDocsWorker(new AnypointDocsQueue(directory), username, session.get(), concurrency, maxAttempts);
+                    worker.resume();
+                    WORKERS.put(key, worker);
+                }
+            }
+        }
+        return worker;
+    }
+
+    public AnypointDocsQueue getQueue() {
+        return queue;
+    }
+
+    /**
+     * Queues a page publication and starts publishing it in the background.
+     * @param job page publication
+     * @return queued job
+     * @throws IOException
+     */
+    public AnypointDocsJob publish(AnypointDocsJob job) throws IOException {
+        job.setUsername(username);
+        AnypointDocsJob queued = queue.enqueue(job);
+        this.submit(assetVersion(queued));
+        return queued;
+    }
+
+    /**
+     * @return pending jobs of the user, submitted again
+     * @throws IOException
+     */
+    public int resume() throws IOException {
+        int resumed = 0;
+        for (AnypointDocsJob job : queue.jobs(username)) {
+            if (AnypointDocsJob.PENDING.equals(job.getStatus())) {
+                this.submit(assetVersion(job));
+                resumed++;
+            }
+        }
+        return resumed;
+    }
+
+    /**
+     * Waits until no page is being published.
+     * @param timeoutInMilliseconds longest wait
+     * @return true when idle, false when pages are still being published
+     * @throws InterruptedException
+     */
+    public boolean await(long timeoutInMilliseconds) throws InterruptedException {
+        final long end = System.currentTimeMillis() + timeoutInMilliseconds;
+        synchronized (inFlight) {
+            while (inFlight.isEmpty() == false) {
+                long remaining = end - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                inFlight.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return jobs of the user, oldest first
+     * @throws IOException
+     */
+    public List<AnypointDocsJob> jobs() throws IOException {
+        return queue.jobs(username);
+    }
+
+    private void submit(String assetVersion) {
+        synchronized (inFlight) {
+            //--- Jobs enqueued while their asset version is being published are picked up by its task ---//
+            if (inFlight.add(assetVersion) == false) {
+                return;
+            }
+        }
+        executor.submit(() -> this.process(assetVersion));
+    }
+
+    private static String assetVersion(AnypointDocsJob job) {
+        return String.format("%s\n%s\n%s", job.getOrganizationId(), job.getApiName(), job.getApiVersion());
+    }
+
+    /**
+     * @return pending jobs of an asset version, oldest first
+     */
+    private List<AnypointDocsJob> pending(String assetVersion) throws IOException {
+        List<AnypointDocsJob> pending = queue.jobs(username);
+        pending.removeIf(job -> AnypointDocsJob.PENDING.equals(job.getStatus()) == false || assetVersion.equals(assetVersion(job)) == false);
+        return pending;
+    }
+
+    /**
+     * @param attempts attempts made
+     * @param retryAfter delay asked for by Anypoint, null when none
+     * @return delay before the next attempt: the one asked for, else an exponential backoff with jitter
+     */
+    private long backoff(int attempts, Long retryAfter) {
+        if (retryAfter != null) {
+            return Math.min(retryAfter, MAX_RETRY_BACKOFF_IN_MILLISECONDS);
+        }
+        long ceiling = Math.min(MAX_RETRY_BACKOFF_IN_MILLISECONDS, RETRY_BACKOFF_IN_MILLISECONDS << Math.min(attempts - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    /**
+     * Publishes the pending jobs of an asset version until none is left, waiting between rounds
+     * with failures so a short outage or throttling does not use up the attempts.
+     */
+    private void process(String assetVersion) {
+        boolean drained = false;
+        try {
+            List<AnypointDocsJob> jobs;
+            while ((jobs = this.pending(assetVersion)).isEmpty() == false) {
+                Map<String, String> errors = new HashMap<>();
+                Long retryAfter = this.publish(jobs, errors);
+
+                int attempts = 0;
+                for (AnypointDocsJob job : jobs) {
+                    AnypointDocsJob completed = queue.complete(job, errors.get(job.getPageName()), maxAttempts);
+                    if (completed != null && AnypointDocsJob.PENDING.equals(completed.getStatus())) {
+                        attempts = Math.max(attempts, completed.getAttempts());
+                    }
+                }
+                if (attempts > 0) {
+                    Thread.sleep(this.backoff(attempts, retryAfter));
+                }
+            }
+            drained = true;
+        } catch (IOException exception) {
+            //--- Jobs stay as last written, and are resumed by the next build ---//
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (inFlight) {
+                inFlight.remove(assetVersion);
+                inFlight.notifyAll();
+            }
+        }
+
+        //--- Enqueued again between the last read and the end of the task ---//
+        try {
+            if (drained && this.pending(assetVersion).isEmpty() == false) {
+                this.submit(assetVersion);
+            }
+        } catch (IOException exception) {
+            //--- Resumed by the next build ---//
+        }
+    }
+
+    /**
+     * Plans the pages of the jobs against the draft portal, applies the changes, and publishes the
+     * draft once. Pages without job are kept: the queue does not know every documentation file.
+     *
+     * @param jobs pending jobs of one asset version
+     * @param errors filled with the failure of each page not published, by page path
+     * @return delay asked for by Anypoint, null when none
+     */
+    private Long publish(List<AnypointDocsJob> jobs, Map<String, String> errors) {
+        final AnypointDocsJob asset = jobs.get(0);
+        Long retryAfter = null;
+        try {
+            final String accessToken = session.token().getAccessToken();
+            final AnypointRestAPIClient client = session.getClient();
+
+            Map<String, String> local = new LinkedHashMap<>();
+            jobs.forEach(job -> local.put(job.getPageName(), job.getContents()));
+            Map<String, String> remote = new HashMap<>();
+            for (String page : client.getAssetPortalPages(accessToken, asset.getOrganizationId(), asset.getApiName(), asset.getApiVersion())) {
+                remote.put(page, local.containsKey(page) ? client.getAssetPortalPage(accessToken, asset.getOrganizationId(), asset.getApiName(), asset.getApiVersion(), page) : "");
+            }
+
+            //--- A job attempted before may have changed the draft without publishing it ---//
+            boolean publish = jobs.stream().anyMatch(job -> job.getAttempts() > 0);
+            for (AnypointDocsPlan.Action action : AnypointDocsPlan.compute(local, remote, false).changes()) {
+                try {
+                    if (AnypointDocsPlan.CREATE.equals(action.getType())) {
+                        client.createAssetPortalPage(accessToken, asset.getOrganizationId(), asset.getApiName(), asset.getApiVersion(), action.getPage());
+                    }
+                    client.updateAssetPortalPage(accessToken, asset.getOrganizationId(), asset.getApiName(), asset.getApiVersion(), action.getPage(), action.getContents());
+                    publish = true;
+                } catch (Exception exception) {
+                    errors.put(action.getPage(), message(exception));
+                    retryAfter = retryAfter(exception, retryAfter);
+                }
+            }
+
+            if (publish) {
+                client.publishAssetPortal(accessToken, asset.getOrganizationId(), asset.getApiName(), asset.getApiVersion());
+            }
+        } catch (Exception exception) {
+            //--- Listing or publication failed: no page of the round is published ---//
+            jobs.forEach(job -> errors.putIfAbsent(job.getPageName(), message(exception)));
+            retryAfter = retryAfter(exception, retryAfter);
+        }
+        return retryAfter;
+    }
+
+    private static String message(Exception exception) {
+        return exception.getMessage() != null ? exception.getMessage() : exception.getClass().getSimpleName();
+    }
+
+    private static Long retryAfter(Exception exception, Long retryAfter) {
+        Long asked = exception instanceof AnypointRestAPIException ? ((AnypointRestAPIException) exception).getRetryAfterInMilliseconds() : null;
+        if (asked == null || retryAfter == null) {
+            return asked != null ? asked : retryAfter;
+        }
+        return Math.max(asked, retryAfter);
+    }
+}
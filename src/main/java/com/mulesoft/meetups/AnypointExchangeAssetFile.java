@@ -0,0 +1,31 @@
+package com.mulesoft.meetups;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * File of an Exchange asset version, e.g. the OAS or RAML specification of an API.
+ */
+@Builder
+@Getter
+@Setter
+public class AnypointExchangeAssetFile {
+
+    public static final String OAS_CLASSIFIER = "oas";
+    public static final String FAT_OAS_CLASSIFIER = "fat-oas";
+    public static final String ZIP_PACKAGING = "zip";
+
+    private String classifier;
+    private String packaging;
+    private String mainFile;
+    private String sha1;
+    /**
+     * Pre-signed download link, sent without credentials.
+     */
+    private String externalLink;
+    /**
+     * Exchange download URL, sent with the access token.
+     */
+    private String downloadURL;
+}
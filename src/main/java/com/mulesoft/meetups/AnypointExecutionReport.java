@@ -0,0 +1,57 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Metrics collected during a goal execution, written as JSON so they can be tracked across builds.
+ */
+@Getter
+public class AnypointExecutionReport {
+
+    private final String goal;
+    private final Date startedAt = new Date();
+    private final Map<String, Object> metrics = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public AnypointExecutionReport(String goal) {
+        this.goal = goal;
+    }
+
+    /**
+     * Records (or replaces) a named metric.
+     * @param name metric name
+     * @param value metric value
+     */
+    public void metric(String name, Object value) {
+        metrics.put(name, value);
+    }
+
+    /**
+     * @param buildDirectory project build directory, left unresolved when the goal runs without a project
+     * @param path path under the plugin output directory
+     * @return file under target/anypoint of the project, or of the working directory without a project
+     */
+    public static File outputFile(File buildDirectory, String path) {
+        File target = buildDirectory == null || buildDirectory.getPath().contains("${") ? new File("target") : buildDirectory;
+        return new File(new File(target, "anypoint"), path);
+    }
+
+    /**
+     * Writes the report as JSON.
+     * @param file target file, parent directories are created if needed
+     * @throws IOException
+     */
+    public void write(File file) throws IOException {
+        file.getParentFile().mkdirs();
+        synchronized (metrics) {
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file, this);
+        }
+    }
+}
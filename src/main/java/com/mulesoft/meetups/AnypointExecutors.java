@@ -0,0 +1,83 @@
+package com.mulesoft.meetups;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors for blocking Anypoint calls.
+ *
+ * On JDK 21+ a virtual thread is started per task, so blocking calls cost no platform thread while
+ * they wait. The plugin targets Java 8, so the virtual-thread factory is looked up reflectively, and
+ * older runtimes get a bounded pool of platform threads instead.
+ */
+public final class AnypointExecutors {
+
+    private static final Method VIRTUAL_THREAD_PER_TASK_EXECUTOR = lookupVirtualThreadPerTaskExecutor();
+
+    private AnypointExecutors() {
+    }
+
+    /**
+     * @return true when the runtime supports virtual threads
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * @param preferVirtualThreads use virtual threads when the runtime supports them
+     * @param platformThreads size of the platform pool used otherwise
+     * @param name prefix of the platform thread names
+     * @return new executor, to be shut down by the caller
+     */
+    public static ExecutorService newTaskExecutor(boolean preferVirtualThreads, int platformThreads, String name) {
+        if (preferVirtualThreads && isVirtualThreadSupported()) {
+            return newVirtualThreadPerTaskExecutor();
+        }
+        return newPlatformPool(platformThreads, name);
+    }
+
+    /**
+     * @return executor starting a virtual thread per task
+     * @throws UnsupportedOperationException on runtimes without virtual threads
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (isVirtualThreadSupported() == false) {
+            throw new UnsupportedOperationException(String.format("Virtual threads require Java 21+ (running on %s)", System.getProperty("java.version")));
+        }
+        try {
+            return (ExecutorService) VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * @param threads pool size
+     * @param name prefix of the thread names
+     * @return fixed pool of daemon platform threads
+     */
+    public static ExecutorService newPlatformPool(int threads, String name) {
+        final AtomicInteger count = new AtomicInteger();
+        final ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, String.format("%s-%s", name, count.incrementAndGet()));
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(Math.max(1, threads), factory);
+    }
+
+    private static Method lookupVirtualThreadPerTaskExecutor() {
+        try {
+            //--- JDK 19/20 declare the method but reject it unless preview features are enabled ---//
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ((ExecutorService) method.invoke(null)).shutdown();
+            return method;
+        } catch (ReflectiveOperationException | RuntimeException exception) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Atomic writes of files shared between builds: contents go to a temporary file of the same
+ * directory, moved over the target once complete, so readers never see a partial file.
+ */
+public final class AnypointFiles {
+
+    private AnypointFiles() {
+    }
+
+    /**
+     * @param target file written, parent directories are created if needed
+     * @param writer JSON writer
+     * @param value value written
+     * @throws IOException
+     */
+    public static void writeAtomically(Path target, ObjectWriter writer, Object value) throws IOException {
+        writeAtomically(target, temporary -> writer.writeValue(temporary.toFile(), value));
+    }
+
+    /**
+     * @param target file written, parent directories are created if needed
+     * @param contents writes the contents to the temporary file
+     * @throws IOException
+     */
+    public static void writeAtomically(Path target, Contents contents) throws IOException {
+        Path file = target.toAbsolutePath();
+        Files.createDirectories(file.getParent());
+        Path temporary = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            contents.write(temporary);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Contents of a file.
+     */
+    public interface Contents {
+
+        void write(Path temporary) throws IOException;
+    }
+}
@@ -0,0 +1,48 @@
+package com.mulesoft.meetups;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Starts JVMs running a plugin class, on the class path of the plugin realm.
+ */
+public final class AnypointForkedJvm {
+
+    private AnypointForkedJvm() {
+    }
+
+    /**
+     * @param javaExecutable java command
+     * @param main class with a main method
+     * @param arguments program arguments
+     * @return process builder, error stream merged into the output
+     * @throws URISyntaxException
+     */
+    public static ProcessBuilder java(String javaExecutable, Class<?> main, String... arguments) throws URISyntaxException {
+        List<String> command = new ArrayList<>(Arrays.asList(javaExecutable, "-cp", classPath(main.getClassLoader()), main.getName()));
+        command.addAll(Arrays.asList(arguments));
+        return new ProcessBuilder(command).redirectErrorStream(true);
+    }
+
+    /**
+     * @param loader plugin class loader (a Maven class realm)
+     * @return its class path, or the JVM class path when it is not a URL class loader
+     * @throws URISyntaxException
+     */
+    public static String classPath(ClassLoader loader) throws URISyntaxException {
+        if (loader instanceof URLClassLoader == false) {
+            return System.getProperty("java.class.path");
+        }
+        List<String> entries = new ArrayList<>();
+        for (URL url : ((URLClassLoader) loader).getURLs()) {
+            entries.add(Paths.get(url.toURI()).toString());
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+}
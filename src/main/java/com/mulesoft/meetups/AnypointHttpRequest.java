@@ -0,0 +1,51 @@
+package com.mulesoft.meetups;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Transport-neutral description of one Anypoint call.
+ */
+@Builder
+@Getter
+public class AnypointHttpRequest {
+
+    /**
+     * Operation name, used in error messages and metrics.
+     */
+    private String operation;
+    private String method;
+    /**
+     * URL template the URL was built from, identifying the endpoint.
+     */
+    private String urlTemplate;
+    private String url;
+    private Map<String, String> headers;
+    private byte[] body;
+
+    /**
+     * Headers are added one at a time, in order.
+     */
+    public static class AnypointHttpRequestBuilder {
+
+        private final Map<String, String> headers = new LinkedHashMap<>();
+
+        public AnypointHttpRequestBuilder header(String name, String value) {
+            headers.put(name, value);
+            return this;
+        }
+
+        public AnypointHttpRequestBuilder headers(Map<String, String> headers) {
+            this.headers.putAll(headers);
+            return this;
+        }
+
+        public AnypointHttpRequest build() {
+            return new AnypointHttpRequest(operation, method, urlTemplate, url, Collections.unmodifiableMap(new LinkedHashMap<>(headers)), body);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.mulesoft.meetups;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Status, body and Retry-After header of an Anypoint call.
+ */
+@Builder
+@Getter
+public class AnypointHttpResponse {
+
+    private int status;
+    private byte[] body;
+    /**
+     * Retry-After header, null when absent.
+     */
+    private String retryAfter;
+}
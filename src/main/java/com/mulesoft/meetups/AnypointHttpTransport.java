@@ -0,0 +1,41 @@
+package com.mulesoft.meetups;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * HTTP layer used by the Anypoint REST API client.
+ *
+ * Implementations are only loaded when selected, so choosing the JDK transport keeps
+ * spring-webflux and reactor-netty out of the execution.
+ */
+public interface AnypointHttpTransport {
+
+    String WEBCLIENT = "webclient";
+    String JDK = "jdk";
+
+    /**
+     * Sends a request and reads the whole response, whatever its status.
+     * @param request request to send
+     * @param timeout time allowed for the whole exchange
+     * @return response
+     * @throws AnypointTimeoutException if the exchange does not complete in time (the request is aborted)
+     * @throws IOException on network errors
+     */
+    AnypointHttpResponse send(AnypointHttpRequest request, Duration timeout) throws IOException;
+
+    /**
+     * @param name webclient or jdk
+     * @return new transport
+     * @throws IllegalArgumentException on unknown names
+     */
+    static AnypointHttpTransport create(String name) {
+        if (WEBCLIENT.equalsIgnoreCase(name)) {
+            return new AnypointWebClientTransport();
+        }
+        if (JDK.equalsIgnoreCase(name)) {
+            return new AnypointJdkHttpTransport();
+        }
+        throw new IllegalArgumentException(String.format("Unknown transport: %s (expected %s or %s)", name, WEBCLIENT, JDK));
+    }
+}
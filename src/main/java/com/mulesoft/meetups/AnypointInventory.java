@@ -0,0 +1,212 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Local snapshot of an organization: index.json plus one JSON-lines file per environment and one
+ * for client applications, under &lt;directory&gt;/&lt;organization id&gt;. Files are replaced
+ * atomically, so readers never see a partial snapshot of an environment.
+ */
+public class AnypointInventory {
+
+    public static final String INDEX_FILE = "index.json";
+    public static final String APPLICATIONS_FILE = "applications.jsonl";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final ObjectMapper FINGERPRINT_MAPPER = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final Path directory;
+    private final AnypointInventoryIndex index;
+
+    private AnypointInventory(Path directory, AnypointInventoryIndex index) {
+        this.directory = directory;
+        this.index = index;
+    }
+
+    /**
+     * @param directory inventory root directory
+     * @param organizationId organization
+     * @return inventory of the organization, empty if none was written yet or its version is not supported
+     * @throws IOException
+     */
+    public static Optional<AnypointInventory> load(File directory, String organizationId) throws IOException {
+        Path root = directory.toPath().resolve(organizationId);
+        Path file = root.resolve(INDEX_FILE);
+        if (Files.exists(file) == false) {
+            return Optional.empty();
+        }
+        AnypointInventoryIndex index = MAPPER.readValue(file.toFile(), AnypointInventoryIndex.class);
+        if (index.getVersion() != AnypointInventoryIndex.CURRENT_VERSION) {
+            return Optional.empty();
+        }
+        return Optional.of(new AnypointInventory(root, index));
+    }
+
+    /**
+     * @param directory inventory root directory
+     * @param organizationId organization
+     * @return empty inventory, to be filled by the inventory goal
+     */
+    public static AnypointInventory create(File directory, String organizationId) {
+        return new AnypointInventory(directory.toPath().resolve(organizationId), AnypointInventoryIndex.builder()
+                .organizationId(organizationId)
+                .build());
+    }
+
+    public AnypointInventoryIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * @param name environment name, case-insensitive
+     * @return environment
+     */
+    public Optional<AnypointEnvironment> findEnvironment(String name) {
+        return index.getEnvironments().stream()
+                .filter(e -> e.getName().equalsIgnoreCase(name))
+                .findFirst()
+                .map(e -> AnypointEnvironment.builder()
+                        .id(e.getId())
+                        .name(e.getName())
+                        .type(e.getType())
+                        .organizationId(index.getOrganizationId())
+                        .build());
+    }
+
+    /**
+     * @param environmentId environment
+     * @param assetId API asset ID, case-insensitive
+     * @return API instance
+     * @throws IOException
+     */
+    public Optional<AnypointAPI> findAPI(String environmentId, String assetId) throws IOException {
+        String id = index.getNames().get(key("api", environmentId, assetId));
+        if (id == null) {
+            return Optional.empty();
+        }
+        return this.records(environmentId).stream()
+                .filter(r -> AnypointInventoryRecord.API.equals(r.getKind()) && id.equals(String.valueOf(r.getId())))
+                .findFirst()
+                .map(r -> AnypointAPI.builder()
+                        .id(r.getId())
+                        .assetId(r.getAssetId())
+                        .assetVersion(r.getAssetVersion())
+                        .environmentId(environmentId)
+                        .asset(AnypointAPIAsset.builder().assetId(r.getAssetId()).name(r.getName()).build())
+                        .build());
+    }
+
+    /**
+     * @param environmentId environment
+     * @return records of the environment, empty if it was never crawled
+     * @throws IOException
+     */
+    public List<AnypointInventoryRecord> records(String environmentId) throws IOException {
+        return this.read(directory.resolve(environmentFile(environmentId)));
+    }
+
+    /**
+     * @return client application records
+     * @throws IOException
+     */
+    public List<AnypointInventoryRecord> applications() throws IOException {
+        return this.read(directory.resolve(APPLICATIONS_FILE));
+    }
+
+    /**
+     * Replaces the records of an environment.
+     * @param environmentId environment
+     * @param records records
+     * @throws IOException
+     */
+    public void writeRecords(String environmentId, List<AnypointInventoryRecord> records) throws IOException {
+        this.write(environmentFile(environmentId), records);
+    }
+
+    /**
+     * Replaces the client application records.
+     * @param records records
+     * @throws IOException
+     */
+    public void writeApplications(List<AnypointInventoryRecord> records) throws IOException {
+        this.write(APPLICATIONS_FILE, records);
+    }
+
+    /**
+     * Writes the index, last, so it only references complete environment files.
+     * @throws IOException
+     */
+    public void writeIndex() throws IOException {
+        AnypointFiles.writeAtomically(directory.resolve(INDEX_FILE), MAPPER.writerWithDefaultPrettyPrinter(), index);
+    }
+
+    /**
+     * @param environmentId environment
+     * @return file name of the environment records
+     */
+    public static String environmentFile(String environmentId) {
+        return String.format("environment-%s.jsonl", environmentId);
+    }
+
+    /**
+     * @param parts key parts
+     * @return lower-cased name index key
+     */
+    public static String key(String... parts) {
+        return String.join("/", parts).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param value any JSON-serializable value (maps are hashed with sorted keys)
+     * @return SHA-256 of its JSON form
+     */
+    public static String fingerprint(Object value) {
+        try {
+            return AnypointDigests.sha256Hex(FINGERPRINT_MAPPER.writeValueAsBytes(value));
+        } catch (IOException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private List<AnypointInventoryRecord> read(Path file) throws IOException {
+        List<AnypointInventoryRecord> records = new ArrayList<>();
+        if (Files.exists(file) == false) {
+            return records;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isEmpty() == false) {
+                    records.add(MAPPER.readValue(line, AnypointInventoryRecord.class));
+                }
+            }
+        }
+        return records;
+    }
+
+    private void write(String name, List<AnypointInventoryRecord> records) throws IOException {
+        AnypointFiles.writeAtomically(directory.resolve(name), temporary -> {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                for (AnypointInventoryRecord record : records) {
+                    writer.write(MAPPER.writeValueAsString(record));
+                    writer.newLine();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,55 @@
+package com.mulesoft.meetups;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of an organization inventory: environments with the fingerprint of their API listing,
+ * and name to ID lookups.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnypointInventoryIndex {
+
+    public static final int CURRENT_VERSION = 1;
+
+    @Builder.Default
+    private int version = CURRENT_VERSION;
+    private String organizationId;
+    private Date refreshedAt;
+    @Builder.Default
+    private List<Environment> environments = new ArrayList<>();
+    /**
+     * Lower-cased names to IDs: environment/&lt;name&gt;, api/&lt;environment id&gt;/&lt;asset id&gt;, application/&lt;name&gt;.
+     */
+    @Builder.Default
+    private Map<String, String> names = new LinkedHashMap<>();
+
+    @Builder
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Environment {
+
+        private String id;
+        private String name;
+        private String type;
+        private String fingerprint;
+        private String file;
+        private int apiCount;
+        private Date refreshedAt;
+    }
+}
@@ -0,0 +1,36 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One line of an inventory file: an API, SLA tier, contract or client application.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AnypointInventoryRecord {
+
+    public static final String API = "api";
+    public static final String TIER = "tier";
+    public static final String CONTRACT = "contract";
+    public static final String APPLICATION = "application";
+
+    private String kind;
+    private Long id;
+    private String name;
+    private String environmentId;
+    private Long apiId;
+    private String assetId;
+    private String assetVersion;
+    private Long tierId;
+    private Long applicationId;
+    private String status;
+}
@@ -0,0 +1,74 @@
+package com.mulesoft.meetups;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Transport based on java.net.http.HttpClient: no dependency beyond the JDK, so executions using
+ * it do not load spring-webflux, reactor or netty.
+ */
+public class AnypointJdkHttpTransport implements AnypointHttpTransport {
+
+    /**
+     * Shared client, so connections are pooled across calls.
+     */
+    private final HttpClient httpClient;
+
+    public AnypointJdkHttpTransport() {
+        this(newHttpClient());
+    }
+
+    /**
+     * @param httpClient client to use, possibly with connections already open
+     */
+    public AnypointJdkHttpTransport(HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    public static HttpClient newHttpClient() {
+        return HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    @Override
+    public AnypointHttpResponse send(AnypointHttpRequest request, Duration timeout) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.getUrl()))
+                .method(request.getMethod(), request.getBody() == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(request.getBody()));
+        request.getHeaders().forEach(builder::header);
+
+        CompletableFuture<HttpResponse<byte[]>> call = httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        try {
+            HttpResponse<byte[]> response = call.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return AnypointHttpResponse.builder()
+                    .status(response.statusCode())
+                    .body(response.body())
+                    .retryAfter(response.headers().firstValue("Retry-After").orElse(null))
+                    .build();
+        } catch (TimeoutException exception) {
+            call.cancel(true);
+            throw new AnypointTimeoutException(
+                    String.format("%s did not complete within %s ms", request.getOperation(), timeout.toMillis()), exception);
+        } catch (InterruptedException exception) {
+            call.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("%s was interrupted", request.getOperation()));
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof IOException) {
+                throw (IOException) exception.getCause();
+            }
+            throw new IOException(String.format("%s failed", request.getOperation()), exception.getCause());
+        }
+    }
+}
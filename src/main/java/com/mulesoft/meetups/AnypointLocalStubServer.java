@@ -0,0 +1,76 @@
+package com.mulesoft.meetups;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loopback HTTP server answering every request with a small JSON document, so benchmarks measure
+ * the client side only.
+ */
+public class AnypointLocalStubServer implements Closeable {
+
+    private static final byte[] RESPONSE = "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Starts the server on an ephemeral port.
+     * @throws IOException
+     */
+    public AnypointLocalStubServer() throws IOException {
+        this(0);
+    }
+
+    /**
+     * Starts the server on an ephemeral port, with simulated service latency.
+     * @param latencyInMilliseconds time spent before answering each request
+     * @throws IOException
+     */
+    public AnypointLocalStubServer(long latencyInMilliseconds) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "anypoint-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            if (latencyInMilliseconds > 0) {
+                try {
+                    Thread.sleep(latencyInMilliseconds);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(RESPONSE);
+            }
+        });
+        server.start();
+    }
+
+    /**
+     * @return base URL of the server
+     */
+    public String getUrl() {
+        return String.format("http://127.0.0.1:%s/", server.getAddress().getPort());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
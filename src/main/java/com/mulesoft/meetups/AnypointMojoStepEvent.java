@@ -0,0 +1,27 @@
+package com.mulesoft.meetups;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event covering one phase of a goal execution (login, provisioning, publish-pages...).
+ */
+@Name("com.mulesoft.meetups.AnypointMojoStep")
+@Label("Anypoint Mojo Step")
+@Category({"Anypoint Maven Plugin", "Mojo Steps"})
+@Description("Phase of an anypoint-maven-plugin goal execution")
+@StackTrace(false)
+public class AnypointMojoStepEvent extends jdk.jfr.Event {
+
+    @Label("Goal")
+    String goal;
+
+    @Label("Step")
+    String step;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,76 @@
+package com.mulesoft.meetups;
+
+import org.apache.maven.AbstractMavenLifecycleParticipant;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Build extension opening Anypoint sessions at the start of the build, while compilation and tests
+ * run, so the first call of the Anypoint goals finds a token and warm connections.
+ *
+ * Enabled by declaring the plugin with &lt;extensions&gt;true&lt;/extensions&gt;; credentials are
+ * read from the plugin configuration of each project. -Danypoint.prewarm=false disables it.
+ */
+public class AnypointPrewarmLifecycleParticipant extends AbstractMavenLifecycleParticipant {
+
+    static final String GROUP_ID = "com.mulesoft.meetups";
+    static final String ARTIFACT_ID = "anypoint-maven-plugin";
+
+    @Override
+    public void afterProjectsRead(MavenSession session) {
+        if ("false".equalsIgnoreCase(session.getUserProperties().getProperty("anypoint.prewarm"))) {
+            return;
+        }
+
+        //--- Logins of this build only: a long-lived JVM starts every build with fresh tokens ---//
+        Map<String, CompletableFuture<Map<String, Object>>> logins = new HashMap<>();
+        PluginDescriptor descriptor = new PluginDescriptor();
+        descriptor.setGroupId(GROUP_ID);
+        descriptor.setArtifactId(ARTIFACT_ID);
+
+        for (MavenProject project : session.getProjects()) {
+            for (Object object : project.getBuildPlugins()) {
+                Plugin plugin = (Plugin) object;
+                if (GROUP_ID.equals(plugin.getGroupId()) && ARTIFACT_ID.equals(plugin.getArtifactId())) {
+                    List<Object> configurations = new ArrayList<>();
+                    configurations.add(plugin.getConfiguration());
+                    for (Object execution : plugin.getExecutions()) {
+                        configurations.add(((PluginExecution) execution).getConfiguration());
+                    }
+                    Map<String, Object> pluginContext = session.getPluginContext(descriptor, project);
+                    configurations.forEach(configuration -> prewarm(logins, pluginContext, (Xpp3Dom) configuration, (Xpp3Dom) plugin.getConfiguration()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts a session for a configuration with credentials, execution values taking precedence.
+     */
+    private static void prewarm(Map<String, CompletableFuture<Map<String, Object>>> logins, Map<String, Object> pluginContext, Xpp3Dom configuration, Xpp3Dom defaults) {
+        String username = value(configuration, defaults, "username");
+        String password = value(configuration, defaults, "password");
+
+        //--- Values left as unresolved expressions are only known when the goal runs ---//
+        if (username == null || password == null || username.contains("${") || password.contains("${")) {
+            return;
+        }
+        AnypointSessionPrewarmer.start(logins, pluginContext, username, password);
+    }
+
+    private static String value(Xpp3Dom configuration, Xpp3Dom defaults, String name) {
+        Xpp3Dom child = configuration != null ? configuration.getChild(name) : null;
+        child = child != null ? child : defaults != null ? defaults.getChild(name) : null;
+        return child != null && child.getValue() != null ? child.getValue().trim() : null;
+    }
+}
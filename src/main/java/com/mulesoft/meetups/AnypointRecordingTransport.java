@@ -0,0 +1,123 @@
+package com.mulesoft.meetups;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transport decorator recording every Anypoint call, scrubbed, into a cassette (AnypointCassette).
+ *
+ * Transports recording to the same file share one cassette, so the background work of a goal is
+ * recorded with it. Cassettes are written when an execution finishes (flush).
+ */
+public class AnypointRecordingTransport implements AnypointHttpTransport {
+
+    private static final Map<File, Recording> RECORDINGS = new ConcurrentHashMap<>();
+
+    private final AnypointHttpTransport delegate;
+    private final Recording recording;
+
+    /**
+     * @param delegate transport sending the calls
+     * @param file cassette file
+     */
+    public AnypointRecordingTransport(AnypointHttpTransport delegate, File file) {
+        this.delegate = delegate;
+        this.recording = RECORDINGS.computeIfAbsent(file.getAbsoluteFile(), Recording::new);
+    }
+
+    @Override
+    public AnypointHttpResponse send(AnypointHttpRequest request, Duration timeout) throws IOException {
+        final long start = System.nanoTime();
+        AnypointHttpResponse response = delegate.send(request, timeout);
+        final long end = System.nanoTime();
+
+        byte[] body = AnypointCassette.scrub(response.getBody());
+        String text = text(body);
+        recording.add(AnypointCassette.Interaction.builder()
+                .operation(request.getOperation())
+                .method(request.getMethod())
+                .target(AnypointCassette.target(request.getUrl()))
+                .requestDigest(AnypointCassette.digest(AnypointCassette.scrub(request.getBody())))
+                .status(response.getStatus())
+                .responseBody(text != null ? text : Base64.getEncoder().encodeToString(body))
+                .responseBase64(text == null)
+                .offsetInMilliseconds(TimeUnit.NANOSECONDS.toMillis(start - recording.startedAt))
+                .durationInMilliseconds(TimeUnit.NANOSECONDS.toMillis(end - start))
+                .build());
+        return response;
+    }
+
+    /**
+     * Writes every cassette recorded in the JVM.
+     * @return cassette files written
+     * @throws IOException
+     */
+    public static List<File> flush() throws IOException {
+        List<File> written = new ArrayList<>();
+        for (Recording recording : RECORDINGS.values()) {
+            recording.write();
+            written.add(recording.file);
+        }
+        return written;
+    }
+
+    /**
+     * @return body as UTF-8 text, null when binary
+     */
+    private static String text(byte[] body) {
+        if (body == null) {
+            return "";
+        }
+        try {
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(body))
+                    .toString();
+        } catch (CharacterCodingException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Calls recorded to one cassette file.
+     */
+    private static class Recording {
+
+        private final File file;
+        private final long startedAt = System.nanoTime();
+        private final Date recordedAt = new Date();
+        private final List<AnypointCassette.Interaction> interactions = new ArrayList<>();
+
+        Recording(File file) {
+            this.file = file;
+        }
+
+        synchronized void add(AnypointCassette.Interaction interaction) {
+            interactions.add(interaction);
+        }
+
+        synchronized void write() throws IOException {
+            List<AnypointCassette.Interaction> ordered = new ArrayList<>(interactions);
+            ordered.sort(Comparator.comparingLong(AnypointCassette.Interaction::getOffsetInMilliseconds));
+            AnypointCassette.builder()
+                    .recordedAt(recordedAt)
+                    .interactions(ordered)
+                    .build()
+                    .write(file);
+        }
+    }
+}
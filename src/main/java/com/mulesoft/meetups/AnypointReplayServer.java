@@ -0,0 +1,159 @@
+package com.mulesoft.meetups;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Loopback HTTP server answering Anypoint calls from a cassette (AnypointCassette), with the
+ * recorded latency multiplied by a timing scale (0 answers at once).
+ *
+ * A call gets the recorded interactions with the same method, path, query and request body, in
+ * recorded order, then the last one again; calls whose body changed between runs (generated names)
+ * fall back on method, path and query. Calls never recorded get a 404.
+ */
+public class AnypointReplayServer implements Closeable {
+
+    private static final Map<String, AnypointReplayServer> SERVERS = new ConcurrentHashMap<>();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final double timingScale;
+    private final Map<String, Replay> exact = new ConcurrentHashMap<>();
+    private final Map<String, Replay> loose = new ConcurrentHashMap<>();
+
+    /**
+     * Starts the server of a cassette on an ephemeral port.
+     * @param cassette recorded calls
+     * @param timingScale factor applied to the recorded latencies
+     * @throws IOException
+     */
+    public AnypointReplayServer(AnypointCassette cassette, double timingScale) throws IOException {
+        this.timingScale = timingScale;
+        for (AnypointCassette.Interaction interaction : cassette.getInteractions()) {
+            exact.computeIfAbsent(String.format("%s %s %s", interaction.getMethod(), interaction.getTarget(), interaction.getRequestDigest()), key -> new Replay()).interactions.add(interaction);
+            loose.computeIfAbsent(String.format("%s %s", interaction.getMethod(), interaction.getTarget()), key -> new Replay()).interactions.add(interaction);
+        }
+
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "anypoint-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        //--- Servers live as long as the JVM: the dispatcher thread inherits the daemon flag of the creating thread ---//
+        FutureTask<HttpServer> started = new FutureTask<>(() -> {
+            HttpServer created = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+            created.setExecutor(executor);
+            created.createContext("/", this::answer);
+            created.start();
+            return created;
+        });
+        Thread starter = new Thread(started, "anypoint-replay-start");
+        starter.setDaemon(true);
+        starter.start();
+        try {
+            server = started.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while starting the replay server", exception);
+        } catch (ExecutionException exception) {
+            throw new IOException("Could not start the replay server", exception.getCause());
+        }
+    }
+
+    /**
+     * @param file cassette file
+     * @param timingScale factor applied to the recorded latencies
+     * @return server of the cassette, started once per file and scale in the JVM
+     * @throws IOException
+     */
+    public static AnypointReplayServer forCassette(File file, double timingScale) throws IOException {
+        final String key = String.format("%s\n%s", file.getAbsolutePath(), timingScale);
+        AnypointReplayServer server = SERVERS.get(key);
+        if (server == null) {
+            synchronized (SERVERS) {
+                server = SERVERS.get(key);
+                if (server == null) {
+                    server = new AnypointReplayServer(AnypointCassette.read(file), timingScale);
+                    SERVERS.put(key, server);
+                }
+            }
+        }
+        return server;
+    }
+
+    /**
+     * @return base URL of the server
+     */
+    public String getUrl() {
+        return String.format("http://127.0.0.1:%s", server.getAddress().getPort());
+    }
+
+    private void answer(HttpExchange exchange) throws IOException {
+        final byte[] request = exchange.getRequestBody().readAllBytes();
+        final String method = exchange.getRequestMethod();
+        final String target = AnypointCassette.target(exchange.getRequestURI().toString());
+
+        Replay replay = exact.get(String.format("%s %s %s", method, target, AnypointCassette.digest(AnypointCassette.scrub(request))));
+        replay = replay != null ? replay : loose.get(String.format("%s %s", method, target));
+        AnypointCassette.Interaction interaction = replay != null ? replay.next() : null;
+
+        int status = 404;
+        byte[] body = String.format("No recorded interaction for %s %s", method, target).getBytes(StandardCharsets.UTF_8);
+        if (interaction != null) {
+            status = interaction.getStatus();
+            body = interaction.responseBytes();
+            long delay = Math.round(interaction.getDurationInMilliseconds() * timingScale);
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", body.length > 0 && (body[0] == '{' || body[0] == '[') ? "application/json" : "application/octet-stream");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Recorded interactions of one call, served in order.
+     */
+    private static class Replay {
+
+        private final List<AnypointCassette.Interaction> interactions = new ArrayList<>();
+        private int next;
+
+        synchronized AnypointCassette.Interaction next() {
+            AnypointCassette.Interaction interaction = interactions.get(Math.min(next, interactions.size() - 1));
+            next++;
+            return interaction;
+        }
+    }
+}
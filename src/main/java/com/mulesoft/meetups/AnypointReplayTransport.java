@@ -0,0 +1,40 @@
+package com.mulesoft.meetups;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Transport decorator sending Anypoint calls to a replay server (AnypointReplayServer) instead of
+ * Anypoint, through the configured transport, so replays exercise the same HTTP stack.
+ */
+public class AnypointReplayTransport implements AnypointHttpTransport {
+
+    private final AnypointHttpTransport delegate;
+    private final String baseUrl;
+
+    /**
+     * @param delegate transport sending the calls
+     * @param server replay server
+     */
+    public AnypointReplayTransport(AnypointHttpTransport delegate, AnypointReplayServer server) {
+        this.delegate = delegate;
+        this.baseUrl = server.getUrl();
+    }
+
+    @Override
+    public AnypointHttpResponse send(AnypointHttpRequest request, Duration timeout) throws IOException {
+        URI uri = URI.create(request.getUrl());
+        String target = (uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath())
+                + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+
+        return delegate.send(AnypointHttpRequest.builder()
+                .operation(request.getOperation())
+                .method(request.getMethod())
+                .urlTemplate(request.getUrlTemplate())
+                .url(baseUrl + target)
+                .headers(request.getHeaders())
+                .body(request.getBody())
+                .build(), timeout);
+    }
+}
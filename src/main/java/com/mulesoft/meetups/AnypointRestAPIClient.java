@@ -1,12 +1,24 @@
 package com.mulesoft.meetups;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import io.netty.handler.codec.http.HttpContent;
-import org.springframework.web.reactive.function.BodyInserters;
-import org.springframework.web.reactive.function.client.WebClient;
-
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Setter;
+import lombok.SneakyThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class AnypointRestAPIClient {
@@ -18,6 +30,7 @@ public class AnypointRestAPIClient {
 	private static final String ANYPOINT_API_SLA_TIERS_URL = "https://anypoint.mulesoft.com/apimanager/api/v1/organizations/%s/environments/%s/apis/%s/tiers";
 	private static final String ANYPOINT_API_SLA_TIER_URL = "https://anypoint.mulesoft.com/apimanager/api/v1/organizations/%s/environments/%s/apis/%s/tiers/%s";
 	private static final String ANYPOINT_API_CLIENT_CONTRACTS_URL = "https://anypoint.mulesoft.com/exchange/api/v2/organizations/%s/applications/%s/contracts";
+	private static final String ANYPOINT_API_CLIENT_CONTRACTS_BY_API_URL = "https://anypoint.mulesoft.com/apimanager/api/v1/organizations/%s/environments/%s/apis/%s/contracts";
 	private static final String ANYPOINT_API_CLIENT_CONTRACT_URL = "https://anypoint.mulesoft.com/apimanager/api/v1/organizations/%s/environments/%s/apis/%s/contracts/%s";
 	private static final String ANYPOINT_API_CLIENT_CONTRACT_REVOKE_URL = "https://anypoint.mulesoft.com/apimanager/xapi/v1/organizations/%s/environments/%s/apis/%s/contracts/%s/revoke";
 	private static final String ANYPOINT_API_CLIENT_APPLICATIONS_URL = "https://anypoint.mulesoft.com/exchange/api/v2/organizations/%s/applications";
@@ -26,12 +39,16 @@ public class AnypointRestAPIClient {
 	private static final String ANYPOINT_CLIENT_APPLICATION_URL = "https://anypoint.mulesoft.com/exchange/api/v1/organizations/%s/applications/%s";
 	private static final String ANYPOINT_API_ASSET_PORTAL_PAGES = "https://anypoint.mulesoft.com/exchange/api/v2/assets/%s/%s/%s/portal/draft/pages";
 	private static final String ANYPOINT_API_ASSET_PORTAL_PAGE = "https://anypoint.mulesoft.com/exchange/api/v2/assets/%s/%s/%s/portal/draft/pages/%s";
+	private static final String ANYPOINT_API_ASSET_PORTAL_RESOURCES = "https://anypoint.mulesoft.com/exchange/api/v2/assets/%s/%s/%s/portal/draft/resources";
 	private static final String ANYPOINT_API_ASSET_PORTAL_PAGE_PUBLISH = "https://anypoint.mulesoft.com/exchange/api/v1/assets/%s/%s/%s";
+	private static final String ANYPOINT_EXCHANGE_ASSET_URL = "https://anypoint.mulesoft.com/exchange/api/v2/assets/%s/%s/%s";
 	private static final String ANYPOINT_ACCESS_TOKEN_PROPERTY = "access_token";
 	private static final String ANYPOINT_TOKEN_TYPE_PROPERTY = "token_type";
 	private static final String ANYPOINT_REDIRECT_URL_PROPERTY = "redirectUrl";
 	private static final String ANYPOINT_AUTHORIZATION_HEADER = "Authorization";
 	private static final String ANYPOINT_AUTHORIZATION_BEARER = "Bearer %s";
+	private static final String ANYPOINT_CONTENT_TYPE_HEADER = "Content-Type";
+	private static final String ANYPOINT_JSON_CONTENT_TYPE = "application/json";
 	private static final String ANYPOINT_MASTER_ORGANIZATION_ID_PROPERTY = "masterOrganizationId";
 	private static final String ANYPOINT_URL_PROPERTY = "url";
 	private static final String ANYPOINT_DESCRIPTION_PROPERTY = "description";
@@ -59,6 +76,52 @@ public class AnypointRestAPIClient {
 	private static final String ANYPOINT_PHONE_NUMBER_PROPERTY = "phoneNumber";
 	private static final String ANYPOINT_USERNAME_PROPERTY = "username";
 	private static final String ANYPOINT_CLIENT_SECRET_PROPERTY = "clientSecret";
+	private static final String ANYPOINT_TIERS_PROPERTY = "tiers";
+	private static final String ANYPOINT_AUTO_APPROVE_PROPERTY = "autoApprove";
+	private static final String ANYPOINT_CONTRACTS_PROPERTY = "contracts";
+	private static final String ANYPOINT_APPLICATION_PROPERTY = "application";
+	private static final String ANYPOINT_APPLICATION_ID_PROPERTY = "applicationId";
+	private static final String ANYPOINT_TIER_ID_PROPERTY = "tierId";
+	private static final String ANYPOINT_FILES_PROPERTY = "files";
+	private static final String ANYPOINT_CLASSIFIER_PROPERTY = "classifier";
+	private static final String ANYPOINT_PACKAGING_PROPERTY = "packaging";
+	private static final String ANYPOINT_MAIN_FILE_PROPERTY = "mainFile";
+	private static final String ANYPOINT_SHA1_PROPERTY = "sha1";
+	private static final String ANYPOINT_EXTERNAL_LINK_PROPERTY = "externalLink";
+	private static final String ANYPOINT_DOWNLOAD_URL_PROPERTY = "downloadURL";
+	private static final String ANYPOINT_PATH_PROPERTY = "path";
+	private static final String ANYPOINT_PAGE_PATH_PROPERTY = "pagePath";
+	private static final String ANYPOINT_MULTIPART_BOUNDARY = "anypoint-maven-plugin-resource";
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	/**
+	 * Retry number of the task running on the thread, recorded on flight recorder events.
+	 */
+	private static final ThreadLocal<Integer> RETRY = ThreadLocal.withInitial(() -> 0);
+
+	/**
+	 * HTTP layer, WebClient unless another transport is set.
+	 */
+	@Setter
+	private AnypointHttpTransport transport;
+
+	/**
+	 * Execution deadline bounding every call.
+	 */
+	@Setter
+	private AnypointDeadline deadline = AnypointDeadline.unbounded();
+
+	/**
+	 * Timeout of a single call.
+	 */
+	@Setter
+	private Duration operationTimeout = Duration.ofSeconds(60);
+
+	/**
+	 * Thresholds of the circuit breakers guarding each endpoint family.
+	 */
+	@Setter
+	private AnypointCircuitBreakerConfig circuitBreakerConfig = new AnypointCircuitBreakerConfig();
 
 	/**
 	 * Get an authentication token in Anypoint Platform.
@@ -67,8 +130,14 @@ public class AnypointRestAPIClient {
 	 */
 	public AnypointToken getToken(AnypointLogin login) {
 
-		Map<String, String> response = WebClient.builder().build().post().uri(ANYPOINT_LOGIN_URL)
-				.body(BodyInserters.fromValue(login)).retrieve().bodyToMono(Map.class).block();
+		Map<String, String> response = send(AnypointHttpRequest.builder()
+				.operation("getToken")
+				.method("POST")
+				.urlTemplate(ANYPOINT_LOGIN_URL)
+				.url(ANYPOINT_LOGIN_URL)
+				.header(ANYPOINT_CONTENT_TYPE_HEADER, ANYPOINT_JSON_CONTENT_TYPE)
+				.body(json(login))
+				.build(), Map.class);
 
 		return AnypointToken.builder()
 				.accessToken(response.get(ANYPOINT_ACCESS_TOKEN_PROPERTY))
@@ -84,11 +153,41 @@ public class AnypointRestAPIClient {
 	 * @param applicationId
 	 */
 	public void deleteClientApplicationInExchange(String accessToken, String groupId, Long applicationId) {
-		WebClient.builder().build()
-			.delete()
-			.uri(String.format(ANYPOINT_CLIENT_APPLICATION_URL, groupId, applicationId))
-			.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
-			.retrieve().bodyToMono(Map.class).block();
+		send(AnypointHttpRequest.builder()
+				.operation("deleteClientApplicationInExchange")
+				.method("DELETE")
+				.urlTemplate(ANYPOINT_CLIENT_APPLICATION_URL)
+				.url(String.format(ANYPOINT_CLIENT_APPLICATION_URL, groupId, applicationId))
+				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
+				.build(), null);
+	}
+
+	/**
+	 * Gets a client application in Anypoint Exchange, with its credentials (the listing has none).
+	 * @param accessToken Anypoint access token
+	 * @param groupId Anypoint group id
+	 * @param applicationId client application id
+	 * @return Anypoint Exchange client application
+	 */
+	public AnypointExchangeClientApplication getClientApplicationInExchange(String accessToken, String groupId, Long applicationId) {
+
+		Map response = send(AnypointHttpRequest.builder()
+				.operation("getClientApplicationInExchange")
+				.method("GET")
+				.urlTemplate(ANYPOINT_CLIENT_APPLICATION_URL)
+				.url(String.format(ANYPOINT_CLIENT_APPLICATION_URL, groupId, applicationId))
+				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
+				.build(), Map.class);
+
+		return AnypointExchangeClientApplication.builder()
+				.masterOrganizationId(("" + response.getOrDefault(ANYPOINT_MASTER_ORGANIZATION_ID_PROPERTY, "")))
+				.name(("" + response.getOrDefault(ANYPOINT_NAME_PROPERTY, "")))
+				.url(("" + response.getOrDefault(ANYPOINT_URL_PROPERTY, "")))
+				.description(("" + response.getOrDefault(ANYPOINT_DESCRIPTION_PROPERTY, "")))
+				.clientId(response.get(ANYPOINT_CLIENT_ID_PROPERTY).toString())
+				.clientSecret(response.get(ANYPOINT_CLIENT_SECRET_PROPERTY).toString())
+				.id(Long.parseLong(("" + response.getOrDefault(ANYPOINT_ID_PROPERTY, applicationId))))
+				.build();
 	}
 
 	/**
@@ -99,10 +198,13 @@ public class AnypointRestAPIClient {
 	 */
 	public List<AnypointExchangeClientApplication> getClientApplicationsInExchange(String accessToken, String groupId) {
 
-		List<Map> response = WebClient.builder().build().get()
-				.uri(String.format(ANYPOINT_CLIENT_APPLICATIONS_URL, groupId))
+		List<Map> response = send(AnypointHttpRequest.builder()
+				.operation("getClientApplicationsInExchange")
+				.method("GET")
+				.urlTemplate(ANYPOINT_CLIENT_APPLICATIONS_URL)
+				.url(String.format(ANYPOINT_CLIENT_APPLICATIONS_URL, groupId))
 				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
-				.retrieve().bodyToMono(List.class).block();
+				.build(), List.class);
 
 		return response.stream()
 				.map(
@@ -125,10 +227,13 @@ public class AnypointRestAPIClient {
 	 * @param slaTierId
 	 */
 	public void deleteAPISlaTier(String accessToken, String groupId, String environmentId, Long apiId, Long slaTierId) {
-		Map response = WebClient.builder().build().delete()
-				.uri(String.format(ANYPOINT_API_SLA_TIER_URL, groupId, environmentId, apiId, slaTierId))
+		send(AnypointHttpRequest.builder()
+				.operation("deleteAPISlaTier")
+				.method("DELETE")
+				.urlTemplate(ANYPOINT_API_SLA_TIER_URL)
+				.url(String.format(ANYPOINT_API_SLA_TIER_URL, groupId, environmentId, apiId, slaTierId))
 				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
-				.retrieve().bodyToMono(Map.class).block();
+				.build(), null);
 	}
 
 	/**
@@ -140,10 +245,15 @@ public class AnypointRestAPIClient {
 	 * @param slaTier
 	 */
 	public Long createAPISlaTier(String accessToken, String groupId, String environmentId, Long apiId, AnypointAPISlaTier slaTier) {
-		Map response = WebClient.builder().build().post()
-				.uri(String.format(ANYPOINT_API_SLA_TIERS_URL, groupId, environmentId, apiId))
+		Map response = send(AnypointHttpRequest.builder()
+				.operation("createAPISlaTier")
+				.method("POST")
+				.urlTemplate(ANYPOINT_API_SLA_TIERS_URL)
+				.url(String.format(ANYPOINT_API_SLA_TIERS_URL, groupId, environmentId, apiId))
 				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
-				.body(BodyInserters.fromValue(slaTier)).retrieve().bodyToMono(Map.class).block();
+				.header(ANYPOINT_CONTENT_TYPE_HEADER, ANYPOINT_JSON_CONTENT_TYPE)
+				.body(json(slaTier))
+				.build(), Map.class);
 
 		return Long.parseLong(response.getOrDefault(ANYPOINT_ID_PROPERTY, Long.MIN_VALUE).toString());
 	}
@@ -158,17 +268,21 @@ public class AnypointRestAPIClient {
 	 */
 	public void deleteAPIClientContract(String accessToken, String groupId, String environmentId, Long apiId, Long contractId) throws JsonProcessingException {
 
-		WebClient.builder().build()
-				.post()
-				.uri(String.format(ANYPOINT_API_CLIENT_CONTRACT_REVOKE_URL, groupId, environmentId, apiId, contractId))
+		send(AnypointHttpRequest.builder()
+				.operation("revokeAPIClientContract")
+				.method("POST")
+				.urlTemplate(ANYPOINT_API_CLIENT_CONTRACT_REVOKE_URL)
+				.url(String.format(ANYPOINT_API_CLIENT_CONTRACT_REVOKE_URL, groupId, environmentId, apiId, contractId))
 				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
-				.retrieve().bodyToMono(Map.class).block();
+				.build(), null);
 
-		WebClient.builder().build()
-				.delete()
-				.uri(String.format(ANYPOINT_API_CLIENT_CONTRACT_URL, groupId, environmentId, apiId, contractId))
+		send(AnypointHttpRequest.builder()
+				.operation("deleteAPIClientContract")
+				.method("DELETE")
+				.urlTemplate(ANYPOINT_API_CLIENT_CONTRACT_URL)
+				.url(String.format(ANYPOINT_API_CLIENT_CONTRACT_URL, groupId, environmentId, apiId, contractId))
 				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
-				.retrieve().bodyToMono(Map.class).block();
+				.build(), null);
 	}
 
 	/**
@@ -180,12 +294,15 @@ public class AnypointRestAPIClient {
 	 */
 	public Long createAPIClientContract(String accessToken, String groupId, Long applicationId, AnypointAPIContract contract) throws JsonProcessingException {
 
-		Map response = WebClient.builder().build()
-				.post()
-				.uri(String.format(ANYPOINT_API_CLIENT_CONTRACTS_URL, groupId, applicationId))
+		Map response = send(AnypointHttpRequest.builder()
+				.operation("createAPIClientContract")
+				.method("POST")
+				.urlTemplate(ANYPOINT_API_CLIENT_CONTRACTS_URL)
+				.url(String.format(ANYPOINT_API_CLIENT_CONTRACTS_URL, groupId, applicationId))
 				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
-				.body(BodyInserters.fromValue(contract))
-				.retrieve().bodyToMono(Map.class).block();
+				.header(ANYPOINT_CONTENT_TYPE_HEADER, ANYPOINT_JSON_CONTENT_TYPE)
+				.body(json(contract))
+				.build(), Map.class);
 
 		return Long.parseLong(response.getOrDefault(ANYPOINT_ID_PROPERTY, Long.MIN_VALUE).toString());
 	}
@@ -199,12 +316,15 @@ public class AnypointRestAPIClient {
 	 */
 	public Long createAPIClientApplication(String accessToken, String groupId, AnypointExchangeClientApplication clientApplication) {
 
-		Map response = WebClient.builder().build()
-				.post()
-				.uri(String.format(ANYPOINT_API_CLIENT_APPLICATIONS_URL, groupId))
+		Map response = send(AnypointHttpRequest.builder()
+				.operation("createAPIClientApplication")
+				.method("POST")
+				.urlTemplate(ANYPOINT_API_CLIENT_APPLICATIONS_URL)
+				.url(String.format(ANYPOINT_API_CLIENT_APPLICATIONS_URL, groupId))
 				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
-				.body(BodyInserters.fromValue(clientApplication))
-				.retrieve().bodyToMono(Map.class).block();
+				.header(ANYPOINT_CONTENT_TYPE_HEADER, ANYPOINT_JSON_CONTENT_TYPE)
+				.body(json(clientApplication))
+				.build(), Map.class);
 
 		clientApplication.setClientId(response.get(ANYPOINT_CLIENT_ID_PROPERTY).toString());
 		clientApplication.setClientSecret(response.get(ANYPOINT_CLIENT_SECRET_PROPERTY).toString());
@@ -221,11 +341,13 @@ public class AnypointRestAPIClient {
 	 */
 	public AnypointUser getUser(String accessToken) {
 
-		Map response = WebClient.builder().build()
-				.get()
-				.uri(ANYPOINT_CURRENT_USER_URL)
+		Map response = send(AnypointHttpRequest.builder()
+				.operation("getUser")
+				.method("GET")
+				.urlTemplate(ANYPOINT_CURRENT_USER_URL)
+				.url(ANYPOINT_CURRENT_USER_URL)
 				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
-				.retrieve().bodyToMono(Map.class).block();
+				.build(), Map.class);
 
 		Map anypointUser = (Map) response.get(ANYPOINT_USER_PROPERTY);
 
@@ -248,15 +370,39 @@ public class AnypointRestAPIClient {
 	 * @return List of APIs
 	 */
 	public List<AnypointAPI> getAPIsByEnvironmentId(String accessToken, String groupId, String environmentId) {
+		return this.toAPIs(this.getAPIListing(accessToken, groupId, environmentId));
+	}
 
-		Map response = WebClient.builder().build().get().uri(
-				String.format(ANYPOINT_API_LIST_BY_ENVIRONMENT_ID_URL, groupId, environmentId))
-				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken)).retrieve().bodyToMono(Map.class).block();
+	/**
+	 * Gets the raw API listing of an environment, as returned by Anypoint.
+	 * @param accessToken Anypoint access token
+	 * @param groupId Anypoint group ID
+	 * @param environmentId Anypoint environment ID
+	 * @return API listing
+	 */
+	public Map getAPIListing(String accessToken, String groupId, String environmentId) {
+
+		return send(AnypointHttpRequest.builder()
+				.operation("getAPIsByEnvironmentId")
+				.method("GET")
+				.urlTemplate(ANYPOINT_API_LIST_BY_ENVIRONMENT_ID_URL)
+				.url(String.format(ANYPOINT_API_LIST_BY_ENVIRONMENT_ID_URL, groupId, environmentId))
+				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
+				.build(), Map.class);
+	}
+
+	/**
+	 * Maps a raw API listing.
+	 * @param response API listing
+	 * @return List of APIs
+	 */
+	public List<AnypointAPI> toAPIs(Map response) {
 
 		return ((List<Map>) response.get(ANYPOINT_INSTANCES_PROPERTY)).stream().map(a ->
 				AnypointAPI.builder()
 						.assetId(a.get(ANYPOINT_ASSET_ID_PROPERTY).toString())
 						.assetVersion(a.get(ANYPOINT_ASSET_VERSION_PROPERTY).toString())
+						.groupId(a.get(ANYPOINT_GROUP_ID_PROPERTY) != null ? a.get(ANYPOINT_GROUP_ID_PROPERTY).toString() : null)
 						.environmentId(a.get(ANYPOINT_ENVIRONMENT_ID_PROPERTY).toString())
 						.id(Long.parseLong(a.get(ANYPOINT_ID_PROPERTY).toString()))
 						.assetId(((Map)a.get(ANYPOINT_ASSET_PROPERTY)).get(ANYPOINT_ASSET_ID_PROPERTY).toString())
@@ -269,6 +415,66 @@ public class AnypointRestAPIClient {
 				.collect(Collectors.toList());
 	}
 
+	/**
+	 * Gets the SLA tiers of an API.
+	 * @param accessToken Anypoint access token
+	 * @param groupId Anypoint group ID
+	 * @param environmentId Anypoint environment ID
+	 * @param apiId API instance ID
+	 * @return List of SLA tiers
+	 */
+	public List<AnypointAPISlaTier> getAPISlaTiers(String accessToken, String groupId, String environmentId, Long apiId) {
+
+		Map<String, List<Map<String, Object>>> response = send(AnypointHttpRequest.builder()
+				.operation("getAPISlaTiers")
+				.method("GET")
+				.urlTemplate(ANYPOINT_API_SLA_TIERS_URL)
+				.url(String.format(ANYPOINT_API_SLA_TIERS_URL, groupId, environmentId, apiId))
+				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
+				.build(), Map.class);
+
+		return response.getOrDefault(ANYPOINT_TIERS_PROPERTY, new ArrayList<>()).stream().map(t ->
+				AnypointAPISlaTier.builder()
+						.id(Long.parseLong(t.get(ANYPOINT_ID_PROPERTY).toString()))
+						.name(("" + t.getOrDefault(ANYPOINT_NAME_PROPERTY, "")))
+						.status(("" + t.getOrDefault(ANYPOINT_STATUS_PROPERTY, "")))
+						.autoApprove(Boolean.valueOf(("" + t.getOrDefault(ANYPOINT_AUTO_APPROVE_PROPERTY, false))))
+						.apiVersionId(apiId)
+						.build()
+		).collect(Collectors.toList());
+	}
+
+	/**
+	 * Gets the client contracts of an API.
+	 * @param accessToken Anypoint access token
+	 * @param groupId Anypoint group ID
+	 * @param environmentId Anypoint environment ID
+	 * @param apiId API instance ID
+	 * @return List of contracts
+	 */
+	public List<AnypointAPIClientContract> getAPIClientContracts(String accessToken, String groupId, String environmentId, Long apiId) {
+
+		Map<String, List<Map<String, Object>>> response = send(AnypointHttpRequest.builder()
+				.operation("getAPIClientContracts")
+				.method("GET")
+				.urlTemplate(ANYPOINT_API_CLIENT_CONTRACTS_BY_API_URL)
+				.url(String.format(ANYPOINT_API_CLIENT_CONTRACTS_BY_API_URL, groupId, environmentId, apiId))
+				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
+				.build(), Map.class);
+
+		return response.getOrDefault(ANYPOINT_CONTRACTS_PROPERTY, new ArrayList<>()).stream().map(c -> {
+			Map application = (Map) c.getOrDefault(ANYPOINT_APPLICATION_PROPERTY, new HashMap<>());
+			return AnypointAPIClientContract.builder()
+					.id(Long.parseLong(c.get(ANYPOINT_ID_PROPERTY).toString()))
+					.apiId(apiId)
+					.status(("" + c.getOrDefault(ANYPOINT_STATUS_PROPERTY, "")))
+					.applicationId(c.get(ANYPOINT_APPLICATION_ID_PROPERTY) == null ? null : Long.parseLong(c.get(ANYPOINT_APPLICATION_ID_PROPERTY).toString()))
+					.applicationName(application.get(ANYPOINT_NAME_PROPERTY) == null ? null : application.get(ANYPOINT_NAME_PROPERTY).toString())
+					.tierId(c.get(ANYPOINT_TIER_ID_PROPERTY) == null ? null : Long.parseLong(c.get(ANYPOINT_TIER_ID_PROPERTY).toString()))
+					.build();
+		}).collect(Collectors.toList());
+	}
+
 	/**
 	 * Gets a list of environments in Anypoint Platform.
 	 * @param accessToken Anypoint access token
@@ -277,11 +483,13 @@ public class AnypointRestAPIClient {
 	 */
 	public List<AnypointEnvironment> getEnvironments(String accessToken, String groupId) {
 
-		Map<String, List<Map<String, String>>> response = WebClient.builder().build()
-				.get()
-				.uri(String.format(ANYPOINT_ENVIRONMENTS_URL, groupId))
+		Map<String, List<Map<String, String>>> response = send(AnypointHttpRequest.builder()
+				.operation("getEnvironments")
+				.method("GET")
+				.urlTemplate(ANYPOINT_ENVIRONMENTS_URL)
+				.url(String.format(ANYPOINT_ENVIRONMENTS_URL, groupId))
 				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
-				.retrieve().bodyToMono(Map.class).block();
+				.build(), Map.class);
 
 		return response.get(ANYPOINT_ENVIRONMENTS_PROPERTY).stream().map(d ->
 				AnypointEnvironment.builder()
@@ -303,11 +511,13 @@ public class AnypointRestAPIClient {
 	 */
 	public List<AnypointExchangeAsset> getAPIVersionsFromAnypointExchange(String accessToken, String groupId, String assetId) {
 
-		Map<String, List<Map<String, String>>> response = WebClient.builder().build()
-				.get()
-				.uri(String.format(ANYPOINT_API_VERSIONS_URL, groupId, assetId, groupId))
+		Map<String, List<Map<String, String>>> response = send(AnypointHttpRequest.builder()
+				.operation("getAPIVersionsFromAnypointExchange")
+				.method("GET")
+				.urlTemplate(ANYPOINT_API_VERSIONS_URL)
+				.url(String.format(ANYPOINT_API_VERSIONS_URL, groupId, assetId, groupId))
 				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
-				.retrieve().bodyToMono(Map.class).block();
+				.build(), Map.class);
 
 		return response.get(ANYPOINT_API_DEFINITIONS_PROPERTY).stream().map(d -> AnypointExchangeAsset.builder()
 				.assetId(d.get(ANYPOINT_ASSET_ID_PROPERTY))
@@ -322,7 +532,61 @@ public class AnypointRestAPIClient {
 	}
 
 	/**
-	 *
+	 * Get the files (specifications, documentation) of an asset version in Anypoint Exchange.
+	 * @param accessToken Anypoint access token
+	 * @param groupId Anypoint group id
+	 * @param assetId Anypoint asset id
+	 * @param version asset version
+	 * @return files of the asset version
+	 */
+	public List<AnypointExchangeAssetFile> getExchangeAssetFiles(String accessToken, String groupId, String assetId, String version) {
+
+		Map<String, Object> response = send(AnypointHttpRequest.builder()
+				.operation("getExchangeAssetFiles")
+				.method("GET")
+				.urlTemplate(ANYPOINT_EXCHANGE_ASSET_URL)
+				.url(String.format(ANYPOINT_EXCHANGE_ASSET_URL, groupId, assetId, version))
+				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
+				.build(), Map.class);
+
+		List<Map<String, Object>> files = (List<Map<String, Object>>) response.getOrDefault(ANYPOINT_FILES_PROPERTY, new ArrayList<>());
+		return files.stream().map(f -> AnypointExchangeAssetFile.builder()
+				.classifier((String) f.get(ANYPOINT_CLASSIFIER_PROPERTY))
+				.packaging((String) f.get(ANYPOINT_PACKAGING_PROPERTY))
+				.mainFile((String) f.get(ANYPOINT_MAIN_FILE_PROPERTY))
+				.sha1((String) f.get(ANYPOINT_SHA1_PROPERTY))
+				.externalLink((String) f.get(ANYPOINT_EXTERNAL_LINK_PROPERTY))
+				.downloadURL((String) f.get(ANYPOINT_DOWNLOAD_URL_PROPERTY))
+				.build()
+		).collect(Collectors.toList());
+	}
+
+	/**
+	 * Download a file of an asset version from Anypoint Exchange.
+	 * @param accessToken Anypoint access token, only sent to Exchange itself
+	 * @param file asset file
+	 * @return file contents
+	 */
+	public byte[] downloadExchangeAssetFile(String accessToken, AnypointExchangeAssetFile file) {
+
+		//--- Pre-signed links reject any other credentials ---//
+		AnypointHttpRequest.AnypointHttpRequestBuilder request = AnypointHttpRequest.builder()
+				.operation("downloadExchangeAssetFile")
+				.method("GET")
+				.urlTemplate(ANYPOINT_EXCHANGE_ASSET_URL);
+		if (file.getExternalLink() != null) {
+			request.url(file.getExternalLink());
+		} else {
+			request.url(file.getDownloadURL())
+					.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken));
+		}
+
+		return send(request.build(), byte[].class);
+	}
+
+	/**
+	 * Publish one page of an asset: creates it in the draft portal unless it exists, writes its
+	 * contents and publishes the draft.
 	 * @param accessToken
 	 * @param groupId
 	 * @param apiName
@@ -332,21 +596,116 @@ public class AnypointRestAPIClient {
 	 */
 	public void createAssetPage(String accessToken, String groupId, String apiName, String pageName, String apiVersion, String contents) {
 
-		final String uri = String.format(ANYPOINT_API_ASSET_PORTAL_PAGE, groupId, apiName, apiVersion, pageName);
-
-		try {
+		if (this.getAssetPortalPages(accessToken, groupId, apiName, apiVersion).contains(pageName) == false) {
 			this.createApiDocPage(accessToken, groupId, apiName, pageName, apiVersion);
+		}
+		this.updateAssetPortalPage(accessToken, groupId, apiName, apiVersion, pageName, contents);
+		this.publishAssetPortal(accessToken, groupId, apiName, apiVersion);
+	}
 
-		} catch (Exception exception) {
+	/**
+	 * List the pages of the draft portal of an asset version.
+	 * @param accessToken Anypoint access token
+	 * @param groupId asset group (organization)
+	 * @param apiName asset
+	 * @param apiVersion asset version
+	 * @return page paths
+	 */
+	public List<String> getAssetPortalPages(String accessToken, String groupId, String apiName, String apiVersion) {
 
-			//--- Means page already exists. Page must be deleted and published again. ---//
-			this.deleteApiDocPage(accessToken, uri);
-			this.publishDraftApiDocPage(accessToken, groupId, apiName, apiVersion, contents);
-			this.createApiDocPage(accessToken, groupId, apiName, pageName, apiVersion);
-		}
+		List<Map<String, Object>> response = send(AnypointHttpRequest.builder()
+				.operation("getAssetPortalPages")
+				.method("GET")
+				.urlTemplate(ANYPOINT_API_ASSET_PORTAL_PAGES)
+				.url(String.format(ANYPOINT_API_ASSET_PORTAL_PAGES, groupId, apiName, apiVersion))
+				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
+				.build(), List.class);
+
+		return response == null ? new ArrayList<>() : response.stream().map(page -> (String) page.get(ANYPOINT_PAGE_PATH_PROPERTY)).collect(Collectors.toList());
+	}
+
+	/**
+	 * Get the contents of a page of the draft portal.
+	 * @param accessToken Anypoint access token
+	 * @param groupId asset group (organization)
+	 * @param apiName asset
+	 * @param apiVersion asset version
+	 * @param pageName page path
+	 * @return page contents (markdown)
+	 */
+	public String getAssetPortalPage(String accessToken, String groupId, String apiName, String apiVersion, String pageName) {
+
+		byte[] response = send(AnypointHttpRequest.builder()
+				.operation("getAssetPortalPage")
+				.method("GET")
+				.urlTemplate(ANYPOINT_API_ASSET_PORTAL_PAGE)
+				.url(String.format(ANYPOINT_API_ASSET_PORTAL_PAGE, groupId, apiName, apiVersion, pageName))
+				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
+				.build(), byte[].class);
+
+		return response == null ? "" : new String(response, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Add an empty page to the draft portal.
+	 */
+	public void createAssetPortalPage(String accessToken, String groupId, String apiName, String apiVersion, String pageName) {
+		this.createApiDocPage(accessToken, groupId, apiName, pageName, apiVersion);
+	}
+
+	/**
+	 * Write the contents of a page of the draft portal.
+	 */
+	public void updateAssetPortalPage(String accessToken, String groupId, String apiName, String apiVersion, String pageName, String contents) {
+		this.createDraftApiDocPage(accessToken, contents, String.format(ANYPOINT_API_ASSET_PORTAL_PAGE, groupId, apiName, apiVersion, pageName));
+	}
+
+	/**
+	 * Remove a page from the draft portal.
+	 */
+	public void deleteAssetPortalPage(String accessToken, String groupId, String apiName, String apiVersion, String pageName) {
+		this.deleteApiDocPage(accessToken, String.format(ANYPOINT_API_ASSET_PORTAL_PAGE, groupId, apiName, apiVersion, pageName));
+	}
+
+	/**
+	 * Publish the draft portal of an asset version, with all its pages.
+	 */
+	public void publishAssetPortal(String accessToken, String groupId, String apiName, String apiVersion) {
+		this.publishDraftApiDocPage(accessToken, groupId, apiName, apiVersion, "");
+	}
+
+	/**
+	 * Upload an image or attachment to the portal draft of an asset version.
+	 * @param accessToken Anypoint access token
+	 * @param groupId asset group (organization)
+	 * @param apiName asset
+	 * @param apiVersion asset version
+	 * @param fileName name of the resource
+	 * @param contents resource contents
+	 * @return path of the resource in the portal, as referenced by pages (resources/...)
+	 */
+	public String uploadAssetPortalResource(String accessToken, String groupId, String apiName, String apiVersion, String fileName, byte[] contents) {
+
+		//--- Multipart form with the resource as its only part ---//
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		byte[] head = String.format("--%s\r\nContent-Disposition: form-data; name=\"data\"; filename=\"%s\"\r\nContent-Type: application/octet-stream\r\n\r\n",
+				ANYPOINT_MULTIPART_BOUNDARY, fileName.replace("\"", "")).getBytes(StandardCharsets.UTF_8);
+		byte[] tail = String.format("\r\n--%s--\r\n", ANYPOINT_MULTIPART_BOUNDARY).getBytes(StandardCharsets.UTF_8);
+		body.write(head, 0, head.length);
+		body.write(contents, 0, contents.length);
+		body.write(tail, 0, tail.length);
+
+		Map<String, Object> response = send(AnypointHttpRequest.builder()
+				.operation("uploadAssetPortalResource")
+				.method("POST")
+				.urlTemplate(ANYPOINT_API_ASSET_PORTAL_RESOURCES)
+				.url(String.format(ANYPOINT_API_ASSET_PORTAL_RESOURCES, groupId, apiName, apiVersion))
+				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
+				.header(ANYPOINT_CONTENT_TYPE_HEADER, String.format("multipart/form-data; boundary=%s", ANYPOINT_MULTIPART_BOUNDARY))
+				.body(body.toByteArray())
+				.build(), Map.class);
 
-		this.createDraftApiDocPage(accessToken, contents, uri);
-		this.publishDraftApiDocPage(accessToken, groupId, apiName, apiVersion, contents);
+		return (String) response.get(ANYPOINT_PATH_PROPERTY);
 	}
 
 	/**
@@ -356,15 +715,15 @@ public class AnypointRestAPIClient {
 	 * @param uri
 	 */
 	private void createDraftApiDocPage(String accessToken, String contents, String uri) {
-		WebClient.builder().build()
-				.put()
-				.uri(uri)
+		send(AnypointHttpRequest.builder()
+				.operation("createDraftApiDocPage")
+				.method("PUT")
+				.urlTemplate(ANYPOINT_API_ASSET_PORTAL_PAGE)
+				.url(uri)
 				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
-				.header("content-type", "text/markdown")
-				.body(BodyInserters.fromValue(contents))
-				.retrieve()
-				.toBodilessEntity()
-				.block();
+				.header(ANYPOINT_CONTENT_TYPE_HEADER, "text/markdown")
+				.body(contents.getBytes(StandardCharsets.UTF_8))
+				.build(), null);
 	}
 
 	/**
@@ -376,14 +735,15 @@ public class AnypointRestAPIClient {
 	 * @param contents
 	 */
 	private void publishDraftApiDocPage(String accessToken, String groupId, String apiName, String apiVersion, String contents) {
-		WebClient.builder().build()
-				.patch()
-				.uri(String.format(ANYPOINT_API_ASSET_PORTAL_PAGE_PUBLISH, groupId, apiName, apiVersion))
+		send(AnypointHttpRequest.builder()
+				.operation("publishDraftApiDocPage")
+				.method("PATCH")
+				.urlTemplate(ANYPOINT_API_ASSET_PORTAL_PAGE_PUBLISH)
+				.url(String.format(ANYPOINT_API_ASSET_PORTAL_PAGE_PUBLISH, groupId, apiName, apiVersion))
 				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
-				.body(BodyInserters.fromValue(contents))
-				.retrieve()
-				.toBodilessEntity()
-				.block();
+				.header(ANYPOINT_CONTENT_TYPE_HEADER, "text/plain;charset=UTF-8")
+				.body(contents.getBytes(StandardCharsets.UTF_8))
+				.build(), null);
 	}
 
 	/**
@@ -392,13 +752,13 @@ public class AnypointRestAPIClient {
 	 * @param uri
 	 */
 	private void deleteApiDocPage(String accessToken, String uri) {
-		WebClient.builder().build()
-				.delete()
-				.uri(uri)
+		send(AnypointHttpRequest.builder()
+				.operation("deleteApiDocPage")
+				.method("DELETE")
+				.urlTemplate(ANYPOINT_API_ASSET_PORTAL_PAGE)
+				.url(uri)
 				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
-				.retrieve()
-				.toBodilessEntity()
-				.block();
+				.build(), null);
 	}
 
 	/**
@@ -410,14 +770,164 @@ public class AnypointRestAPIClient {
 	 * @param apiVersion
 	 */
 	private void createApiDocPage(String accessToken, String groupId, String apiName, String pageName, String apiVersion) {
-		WebClient.builder().build()
-				.post()
-				.uri(String.format(ANYPOINT_API_ASSET_PORTAL_PAGES, groupId, apiName, apiVersion))
+		send(AnypointHttpRequest.builder()
+				.operation("createApiDocPage")
+				.method("POST")
+				.urlTemplate(ANYPOINT_API_ASSET_PORTAL_PAGES)
+				.url(String.format(ANYPOINT_API_ASSET_PORTAL_PAGES, groupId, apiName, apiVersion))
 				.header(ANYPOINT_AUTHORIZATION_HEADER, String.format(ANYPOINT_AUTHORIZATION_BEARER, accessToken))
-				.header("content-type", "application/json")
-				.body(BodyInserters.fromValue(String.format("{\"pagePath\":\"%s\"}", pageName)))
-				.retrieve()
-				.toBodilessEntity()
-				.block();
+				.header(ANYPOINT_CONTENT_TYPE_HEADER, ANYPOINT_JSON_CONTENT_TYPE)
+				.body(String.format("{\"pagePath\":\"%s\"}", pageName).getBytes(StandardCharsets.UTF_8))
+				.build(), null);
+	}
+
+	/**
+	 * Sends a call through the transport and decodes its JSON response, bounded by the operation
+	 * timeout and the execution deadline. The call goes through the circuit breaker of its endpoint family.
+	 * @param request call to send
+	 * @param type type of the decoded response, byte[] for the raw body, null to ignore the response body
+	 * @return decoded response, null when no type is given or the body is empty
+	 * @throws AnypointRestAPIException if Anypoint answers with an error status
+	 * @throws AnypointTimeoutException if the call does not complete in time
+	 * @throws AnypointCircuitOpenException if the endpoint family is unavailable
+	 */
+	@SneakyThrows
+	private <T> T send(AnypointHttpRequest request, Class<T> type) {
+		final Duration timeout = deadline.timeout(request.getOperation(), operationTimeout);
+
+		if (circuitBreakerConfig.isEnabled() == false) {
+			return decode(request, exchange(request, timeout), type);
+		}
+
+		final AnypointCircuitBreaker breaker = AnypointCircuitBreaker.forFamily(family(request.getUrlTemplate()), circuitBreakerConfig);
+		breaker.acquirePermission();
+
+		final long start = System.nanoTime();
+		try {
+			T result = decode(request, exchange(request, timeout), type);
+			breaker.onResult(elapsedSince(start), false);
+			return result;
+		} catch (Exception exception) {
+			breaker.onResult(elapsedSince(start), isOutage(exception));
+			throw exception;
+		}
+	}
+
+	/**
+	 * Sends a call through the transport, recorded as a flight recorder event. Event fields are only
+	 * filled in when the event is recorded, so the cost is negligible when recording is off.
+	 */
+	private AnypointHttpResponse exchange(AnypointHttpRequest request, Duration timeout) throws IOException {
+		AnypointCallEvent event = new AnypointCallEvent();
+		event.begin();
+
+		AnypointHttpResponse response = null;
+		Throwable error = null;
+		try {
+			return response = transport().send(request, timeout);
+		} catch (IOException | RuntimeException exception) {
+			error = exception;
+			throw exception;
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.operation = request.getOperation();
+				event.method = request.getMethod();
+				event.urlTemplate = request.getUrlTemplate();
+				event.requestBytes = request.getBody() == null ? 0 : request.getBody().length;
+				event.status = response == null ? 0 : response.getStatus();
+				event.responseBytes = response == null ? 0 : response.getBody().length;
+				event.error = error == null ? null : error.getClass().getSimpleName();
+				event.transport = transport().getClass().getSimpleName();
+				event.retries = RETRY.get();
+				event.commit();
+			}
+		}
+	}
+
+	/**
+	 * Runs a task again, its calls being recorded with the retry number on flight recorder events.
+	 * @param retry retry number, 1 for the first retry
+	 * @param task task retried
+	 * @return task result
+	 * @throws Exception
+	 */
+	public static <T> T retry(int retry, Callable<T> task) throws Exception {
+		final int previous = RETRY.get();
+		RETRY.set(retry);
+		try {
+			return task.call();
+		} finally {
+			RETRY.set(previous);
+		}
+	}
+
+	/**
+	 * @param retryAfter Retry-After header, delay in seconds or HTTP date
+	 * @return delay in milliseconds, null when absent or not understood
+	 */
+	private static Long retryAfter(String retryAfter) {
+		if (retryAfter == null || retryAfter.trim().isEmpty()) {
+			return null;
+		}
+		try {
+			return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+		} catch (NumberFormatException exception) {
+			try {
+				return Math.max(0, ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli() - System.currentTimeMillis());
+			} catch (DateTimeParseException invalid) {
+				return null;
+			}
+		}
+	}
+
+	private <T> T decode(AnypointHttpRequest request, AnypointHttpResponse response, Class<T> type) throws IOException {
+		if (response.getStatus() >= 400) {
+			throw new AnypointRestAPIException(request.getOperation(), request.getMethod(), response.getStatus(), new String(response.getBody(), StandardCharsets.UTF_8), retryAfter(response.getRetryAfter()));
+		}
+		if (type == null || response.getBody().length == 0) {
+			return null;
+		}
+		if (type == byte[].class) {
+			return type.cast(response.getBody());
+		}
+		return MAPPER.readValue(response.getBody(), type);
+	}
+
+	@SneakyThrows
+	private static byte[] json(Object body) {
+		return MAPPER.writeValueAsBytes(body);
+	}
+
+	private AnypointHttpTransport transport() {
+		if (transport == null) {
+			transport = AnypointHttpTransport.create(AnypointHttpTransport.WEBCLIENT);
+		}
+		return transport;
+	}
+
+	/**
+	 * @param urlTemplate endpoint URL template
+	 * @return first path segment (accounts, apimanager, exchange)
+	 */
+	private static String family(String urlTemplate) {
+		String path = URI.create(urlTemplate.replace("%s", "x")).getPath();
+		String[] segments = path.split("/");
+		return segments.length > 1 ? segments[1] : "default";
+	}
+
+	/**
+	 * Client errors (4xx other than 429) are answered by a healthy service, so they do not count.
+	 */
+	private static boolean isOutage(Throwable exception) {
+		if (exception instanceof AnypointRestAPIException) {
+			int status = ((AnypointRestAPIException) exception).getStatus();
+			return status >= 500 || status == 429;
+		}
+		return true;
+	}
+
+	private static long elapsedSince(long start) {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
 	}
 }
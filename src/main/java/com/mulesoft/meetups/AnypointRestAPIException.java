@@ -0,0 +1,37 @@
+package com.mulesoft.meetups;
+
+import lombok.Getter;
+
+/**
+ * Thrown when Anypoint answers a call with an error status.
+ */
+@Getter
+public class AnypointRestAPIException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String operation;
+    private final String method;
+    private final int status;
+    private final String body;
+    /**
+     * Delay asked for by the Retry-After header, null when absent.
+     */
+    private final Long retryAfterInMilliseconds;
+
+    public AnypointRestAPIException(String operation, String method, int status, String body, Long retryAfterInMilliseconds) {
+        super(String.format("%s failed with status %s: %s", operation, status, body));
+        this.operation = operation;
+        this.method = method;
+        this.status = status;
+        this.body = body;
+        this.retryAfterInMilliseconds = retryAfterInMilliseconds;
+    }
+
+    /**
+     * @return true when the call may be sent again without repeating its effect (GET, HEAD, PUT, DELETE)
+     */
+    public boolean isIdempotent() {
+        return "GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method) || "PUT".equalsIgnoreCase(method) || "DELETE".equalsIgnoreCase(method);
+    }
+}
@@ -0,0 +1,134 @@
+package com.mulesoft.meetups;
+
+import lombok.SneakyThrows;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Authenticated Anypoint session, shared by the workflows of one execution.
+ *
+ * Lookups that do not depend on the workflow (token, user, environments, client applications) are
+ * made once: concurrent callers wait for the call in flight instead of sending their own, and
+ * later callers get its result. Failed calls are forgotten, so the next caller retries.
+ */
+public class AnypointSession {
+
+    private final AnypointRestAPIClient client;
+    private final AnypointLogin login;
+    private final Map<String, CompletableFuture<Object>> calls = new ConcurrentHashMap<>();
+    private final AtomicInteger deduplicatedCalls = new AtomicInteger();
+
+    /**
+     * @param client Anypoint client
+     * @param login Anypoint credentials
+     */
+    public AnypointSession(AnypointRestAPIClient client, AnypointLogin login) {
+        this.client = client;
+        this.login = login;
+    }
+
+    public AnypointRestAPIClient getClient() {
+        return client;
+    }
+
+    /**
+     * Uses a token obtained before the session was opened, instead of logging in.
+     * @param token access token
+     */
+    public void useToken(AnypointToken token) {
+        calls.putIfAbsent("token", CompletableFuture.completedFuture(token));
+    }
+
+    public AnypointToken token() {
+        return this.once("token", () -> client.getToken(login));
+    }
+
+    public AnypointUser user() {
+        return this.once("user", () -> client.getUser(this.token().getAccessToken()));
+    }
+
+    public List<AnypointEnvironment> environments() {
+        return this.once("environments", () -> client.getEnvironments(this.token().getAccessToken(), this.user().getOrganizationId()));
+    }
+
+    /**
+     * @return client applications of the organization in Exchange, as listed at the first call
+     */
+    public List<AnypointExchangeClientApplication> clientApplications() {
+        return this.once("clientApplications", () -> client.getClientApplicationsInExchange(this.token().getAccessToken(), this.user().getOrganizationId()));
+    }
+
+    /**
+     * Gets the client application with that description, or creates it, once per name even when
+     * several workflows ask for it at the same time.
+     *
+     * @param name name (and description) of the application
+     * @return client application
+     */
+    public AnypointExchangeClientApplication getOrCreateClientApplication(String name) {
+        return this.once(String.format("clientApplication:%s", name.toLowerCase()), () -> {
+            //--------------------------------------------------//
+            //--- CHECK FOR EXISTING APPLICATION IN EXCHANGE ---//
+            //--------------------------------------------------//
+            Optional<AnypointExchangeClientApplication> existing = this.clientApplications().stream()
+                    .filter(f -> f.getDescription().equalsIgnoreCase(name))
+                    .findFirst();
+            if (existing.isPresent()) {
+                //--- The listing has no credentials: reads them from the application ---//
+                return client.getClientApplicationInExchange(this.token().getAccessToken(), this.user().getOrganizationId(), existing.get().getId());
+            }
+
+            //---------------------------------------------------//
+            //--- CREATE A NEW CLIENT APPLICATION IN EXCHANGE ---//
+            //---------------------------------------------------//
+            AnypointExchangeClientApplication clientApplication = AnypointExchangeClientApplication.builder()
+                    .name(name)
+                    .description(name)
+                    .url("http://localhost")
+                    .build();
+
+            clientApplication.getGrantTypes().add("client_credentials");
+            client.createAPIClientApplication(this.token().getAccessToken(), this.user().getOrganizationId(), clientApplication);
+            return clientApplication;
+        });
+    }
+
+    /**
+     * @return calls answered from a call already made or in flight
+     */
+    public int getDeduplicatedCalls() {
+        return deduplicatedCalls.get();
+    }
+
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    private <T> T once(String key, Callable<T> call) {
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = calls.putIfAbsent(key, created);
+        if (existing != null) {
+            deduplicatedCalls.incrementAndGet();
+            try {
+                return (T) existing.get();
+            } catch (ExecutionException exception) {
+                throw exception.getCause();
+            }
+        }
+
+        try {
+            T result = call.call();
+            created.complete(result);
+            return result;
+        } catch (Throwable throwable) {
+            calls.remove(key, created);
+            created.completeExceptionally(throwable);
+            throw throwable;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.mulesoft.meetups;
+
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs in to Anypoint in the background at the start of the build (AnypointPrewarmLifecycleParticipant)
+ * and hands the result over to the goal executions of each project through the plugin context.
+ *
+ * The build extension and the goals run in different class realms, so only JDK types cross over:
+ * the access token, and the java.net.http client whose connection to Anypoint the login opened.
+ * Goals using the jdk transport continue on that connection; all goals skip the login. Accounts,
+ * apimanager and exchange are paths of one host, so a single warm connection serves them all.
+ *
+ * Logins are kept for one build only (the map given by the participant), so a long-lived JVM never
+ * hands over the token of an earlier build; the password itself is not kept, only its SHA-256.
+ */
+public final class AnypointSessionPrewarmer {
+
+    private static final String CONTEXT_KEY = "anypoint.prewarm";
+    /**
+     * Age after which a prepared token is not handed over, well within the Anypoint session lifetime.
+     */
+    private static final Duration MAX_TOKEN_AGE = Duration.ofMinutes(30);
+
+    private AnypointSessionPrewarmer() {
+    }
+
+    /**
+     * Starts a background login, once per username in the build, and publishes it to a project.
+     * @param logins logins of the build
+     * @param pluginContext plugin context of the project
+     * @param username Anypoint username
+     * @param password Anypoint password
+     */
+    @SuppressWarnings("unchecked")
+    public static void start(Map<String, CompletableFuture<Map<String, Object>>> logins, Map<String, Object> pluginContext, String username, String password) {
+        CompletableFuture<Map<String, Object>> login = logins.computeIfAbsent(username, key -> CompletableFuture.supplyAsync(() -> {
+            HttpClient httpClient = AnypointJdkHttpTransport.newHttpClient();
+            AnypointRestAPIClient client = new AnypointRestAPIClient();
+            client.setTransport(new AnypointJdkHttpTransport(httpClient));
+            AnypointToken token = client.getToken(AnypointLogin.builder()
+                    .username(username)
+                    .password(password)
+                    .build());
+
+            Map<String, Object> prepared = new HashMap<>();
+            prepared.put("passwordDigest", digest(password));
+            prepared.put("obtainedAt", System.nanoTime());
+            prepared.put("accessToken", token.getAccessToken());
+            prepared.put("tokenType", token.getTokenType());
+            prepared.put("redirectUrl", token.getRedirectUrl());
+            prepared.put("httpClient", httpClient);
+            return prepared;
+        }));
+        ((Map<String, Object>) pluginContext.computeIfAbsent(CONTEXT_KEY, key -> new ConcurrentHashMap<>())).put(username, login);
+    }
+
+    /**
+     * Opens a session continuing the background login, waiting for it if it is still in flight.
+     * @param pluginContext plugin context of the project
+     * @param username Anypoint username
+     * @param password Anypoint password
+     * @param transport transport of the goal
+     * @param timeout longest wait for the background login
+     * @return session, or null when no login was prepared or it failed (the goal then logs in itself)
+     */
+    @SuppressWarnings("unchecked")
+    public static AnypointSession take(Map<?, ?> pluginContext, String username, String password, String transport, Duration timeout) {
+        Map<String, Object> logins = pluginContext == null ? null : (Map<String, Object>) pluginContext.get(CONTEXT_KEY);
+        Future<Map<String, Object>> login = logins == null || username == null ? null : (Future<Map<String, Object>>) logins.get(username);
+        if (login == null) {
+            return null;
+        }
+
+        Map<String, Object> prepared;
+        try {
+            prepared = login.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException exception) {
+            //--- A failed login is not handed over again ---//
+            logins.remove(username, login);
+            return null;
+        } catch (Exception exception) {
+            return null;
+        }
+        if (password == null || MessageDigest.isEqual(digest(password), (byte[]) prepared.get("passwordDigest")) == false) {
+            return null;
+        }
+        if (Duration.ofNanos(System.nanoTime() - (Long) prepared.get("obtainedAt")).compareTo(MAX_TOKEN_AGE) > 0) {
+            logins.remove(username, login);
+            return null;
+        }
+
+        AnypointRestAPIClient client = new AnypointRestAPIClient();
+        client.setTransport(AnypointHttpTransport.JDK.equalsIgnoreCase(transport)
+                ? new AnypointJdkHttpTransport((HttpClient) prepared.get("httpClient"))
+                : AnypointHttpTransport.create(transport));
+
+        AnypointSession session = new AnypointSession(client, AnypointLogin.builder()
+                .username(username)
+                .password(password)
+                .build());
+        session.useToken(AnypointToken.builder()
+                .accessToken((String) prepared.get("accessToken"))
+                .tokenType((String) prepared.get("tokenType"))
+                .redirectUrl((String) prepared.get("redirectUrl"))
+                .build());
+        return session;
+    }
+
+    private static byte[] digest(String password) {
+        return AnypointDigests.sha256(password.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,139 @@
+package com.mulesoft.meetups;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Removal of Anypoint resources deferred to the end of the build (AnypointTeardownLifecycleParticipant).
+ *
+ * Goal executions register each resource they created under a key naming it (kind:id), and return
+ * immediately; a resource registered by several modules is removed once. At the end of the build
+ * removals run stage by stage (contracts before the applications and SLA tiers they bind),
+ * concurrently within a stage.
+ *
+ * The build extension and the goals run in different class realms, so the registry only holds JDK
+ * types: keys are "&lt;stage&gt; &lt;kind&gt;:&lt;id&gt;", values are the removal tasks.
+ */
+public final class AnypointTeardown {
+
+    public static final int CONTRACTS = 0;
+    public static final int RESOURCES = 1;
+
+    private static final String CONTEXT_KEY = "anypoint.teardown";
+
+    private AnypointTeardown() {
+    }
+
+    /**
+     * Publishes the registry of the build to a project.
+     * @param pluginContext plugin context of the project
+     * @param registry registry shared by all projects of the build
+     */
+    public static void publish(Map<String, Object> pluginContext, Map<String, Callable<String>> registry) {
+        pluginContext.put(CONTEXT_KEY, registry);
+    }
+
+    /**
+     * @param pluginContext plugin context of the project, possibly null
+     * @return registry of the build, null when the build extension is not loaded
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Callable<String>> registry(Map<?, ?> pluginContext) {
+        return pluginContext == null ? null : (Map<String, Callable<String>>) pluginContext.get(CONTEXT_KEY);
+    }
+
+    /**
+     * @param registry registry of the build
+     * @param stage CONTRACTS or RESOURCES
+     * @param resource kind:id of the resource
+     * @param teardown removal of the resource, returning what was removed
+     * @return false when the resource was already registered
+     */
+    public static boolean register(Map<String, Callable<String>> registry, int stage, String resource, Callable<String> teardown) {
+        return registry.putIfAbsent(String.format("%s %s", stage, resource), teardown) == null;
+    }
+
+    /**
+     * Runs and forgets every registered removal, stage by stage.
+     * @param registry registry of the build
+     * @param concurrency removals running at the same time
+     * @param timeoutInMilliseconds budget of each stage
+     * @return removed and failed resources per kind, what was removed, failures with their cause
+     * @throws InterruptedException
+     */
+    public static Summary run(Map<String, Callable<String>> registry, int concurrency, long timeoutInMilliseconds) throws InterruptedException {
+        final Summary summary = new Summary();
+        final TreeSet<String> keys = new TreeSet<>(registry.keySet());
+        if (keys.isEmpty()) {
+            return summary;
+        }
+
+        ExecutorService executor = AnypointExecutors.newPlatformPool(Math.max(1, Math.min(concurrency, keys.size())), "anypoint-teardown");
+        try {
+            for (String stage : keys.stream().map(key -> key.substring(0, key.indexOf(' '))).distinct().collect(Collectors.toList())) {
+                List<String> resources = keys.stream().filter(key -> key.startsWith(stage + " ")).collect(Collectors.toList());
+                List<Callable<String>> tasks = resources.stream().map(registry::remove).collect(Collectors.toList());
+                List<Future<String>> results = executor.invokeAll(tasks, timeoutInMilliseconds, TimeUnit.MILLISECONDS);
+
+                for (int index = 0; index < resources.size(); index++) {
+                    String resource = resources.get(index).substring(stage.length() + 1);
+                    try {
+                        summary.resources.add(results.get(index).get());
+                        summary.removed.merge(kind(resource), 1, Integer::sum);
+                    } catch (ExecutionException exception) {
+                        summary.failed.merge(kind(resource), 1, Integer::sum);
+                        summary.failures.add(String.format("%s: %s", resource, exception.getCause().getMessage()));
+                    } catch (CancellationException exception) {
+                        summary.failed.merge(kind(resource), 1, Integer::sum);
+                        summary.failures.add(String.format("%s: not removed within %s ms", resource, timeoutInMilliseconds));
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return summary;
+    }
+
+    private static String kind(String resource) {
+        int separator = resource.lastIndexOf(':');
+        return separator < 0 ? resource : resource.substring(0, separator);
+    }
+
+    /**
+     * Outcome of the teardown of the build.
+     */
+    public static class Summary {
+
+        private final Map<String, Integer> removed = new TreeMap<>();
+        private final Map<String, Integer> failed = new TreeMap<>();
+        private final List<String> resources = new ArrayList<>();
+        private final List<String> failures = new ArrayList<>();
+
+        public Map<String, Integer> getRemoved() {
+            return removed;
+        }
+
+        public Map<String, Integer> getFailed() {
+            return failed;
+        }
+
+        public List<String> getResources() {
+            return resources;
+        }
+
+        public List<String> getFailures() {
+            return failures;
+        }
+    }
+}
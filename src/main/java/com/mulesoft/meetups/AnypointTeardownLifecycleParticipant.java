@@ -0,0 +1,120 @@
+package com.mulesoft.meetups;
+
+import org.apache.maven.AbstractMavenLifecycleParticipant;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.logging.LogEnabled;
+import org.codehaus.plexus.logging.Logger;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Build extension removing, once at the end of the build, the Anypoint resources goals registered
+ * for deferred teardown (AnypointTeardown), and reporting what was removed.
+ *
+ * Enabled by declaring the plugin with &lt;extensions&gt;true&lt;/extensions&gt;. The end of the
+ * build is only signalled from Maven 3.2.1; with older versions no registry is published and the
+ * goals remove their resources themselves. -Danypoint.teardownConcurrency sets the removals running
+ * at the same time (8), -Danypoint.teardownTimeoutInMilliseconds the budget of each stage.
+ */
+public class AnypointTeardownLifecycleParticipant extends AbstractMavenLifecycleParticipant implements LogEnabled {
+
+    private final Map<String, Callable<String>> registry = new ConcurrentHashMap<>();
+    private Logger logger;
+
+    @Override
+    public void enableLogging(Logger logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    public void afterProjectsRead(MavenSession session) {
+        if (isSessionEndSupported() == false) {
+            return;
+        }
+
+        PluginDescriptor descriptor = new PluginDescriptor();
+        descriptor.setGroupId(AnypointPrewarmLifecycleParticipant.GROUP_ID);
+        descriptor.setArtifactId(AnypointPrewarmLifecycleParticipant.ARTIFACT_ID);
+
+        for (MavenProject project : session.getProjects()) {
+            for (Object object : project.getBuildPlugins()) {
+                Plugin plugin = (Plugin) object;
+                if (AnypointPrewarmLifecycleParticipant.GROUP_ID.equals(plugin.getGroupId()) && AnypointPrewarmLifecycleParticipant.ARTIFACT_ID.equals(plugin.getArtifactId())) {
+                    AnypointTeardown.publish(session.getPluginContext(descriptor, project), registry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Called by Maven 3.2.1+ at the end of the build, failed or not; not an override, so the
+     * extension still loads with older versions.
+     */
+    public void afterSessionEnd(MavenSession session) {
+        if (registry.isEmpty()) {
+            return;
+        }
+
+        final int registered = registry.size();
+        final long start = System.nanoTime();
+        AnypointTeardown.Summary summary;
+        try {
+            summary = AnypointTeardown.run(registry,
+                    Integer.parseInt(property(session, "anypoint.teardownConcurrency", "8")),
+                    Long.parseLong(property(session, "anypoint.teardownTimeoutInMilliseconds", "120000")));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            logger.warn(String.format("Teardown interrupted, %s Anypoint resources may be left behind", registered));
+            return;
+        }
+        final long elapsed = (System.nanoTime() - start) / 1000000;
+
+        //--- Displays what was removed, and what was left behind ---//
+        logger.info("");
+        logger.info("------------------------------------------------------------------------");
+        logger.info("                     ANYPOINT TEARDOWN                                  ");
+        logger.info("------------------------------------------------------------------------");
+        summary.getRemoved().forEach((kind, count) -> logger.info(String.format("%-32s: %8s removed", kind, count)));
+        summary.getFailed().forEach((kind, count) -> logger.warn(String.format("%-32s: %8s NOT removed", kind, count)));
+        summary.getResources().forEach(resource -> logger.debug(String.format("Removed %s", resource)));
+        summary.getFailures().forEach(failure -> logger.warn(String.format("Teardown FAILED: %s", failure)));
+        logger.info("------------------------------------------------------------------------");
+        logger.info(String.format("%-32s: %8s ms (%s resources)", "total", elapsed, registered));
+        logger.info("------------------------------------------------------------------------");
+
+        AnypointExecutionReport report = new AnypointExecutionReport("teardown");
+        report.metric("registered", registered);
+        summary.getRemoved().forEach((kind, count) -> report.metric(String.format("removed.%s", kind), count));
+        summary.getFailed().forEach((kind, count) -> report.metric(String.format("failed.%s", kind), count));
+        report.metric("failures", summary.getFailures());
+        report.metric("totalDurationInMilliseconds", elapsed);
+        try {
+            MavenProject project = session.getTopLevelProject();
+            report.write(AnypointExecutionReport.outputFile(project != null ? new File(project.getBuild().getDirectory()) : null, "teardown-report.json"));
+        } catch (Exception exception) {
+            logger.warn("Could not write teardown report", exception);
+        }
+    }
+
+    /**
+     * @return whether the running Maven signals the end of the build
+     */
+    static boolean isSessionEndSupported() {
+        try {
+            AbstractMavenLifecycleParticipant.class.getMethod("afterSessionEnd", MavenSession.class);
+            return true;
+        } catch (NoSuchMethodException exception) {
+            return false;
+        }
+    }
+
+    private static String property(MavenSession session, String name, String defaultValue) {
+        return session.getUserProperties().getProperty(name, defaultValue);
+    }
+}
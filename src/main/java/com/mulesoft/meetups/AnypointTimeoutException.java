@@ -0,0 +1,17 @@
+package com.mulesoft.meetups;
+
+/**
+ * Thrown when an operation exceeds its own timeout or the execution deadline.
+ */
+public class AnypointTimeoutException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public AnypointTimeoutException(String message) {
+        super(message);
+    }
+
+    public AnypointTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,47 @@
+package com.mulesoft.meetups;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point of the JVMs forked by the transport-benchmark goal: creates one transport, sends
+ * two requests and prints its timings as a single RESULT line.
+ *
+ * Arguments: transport name, URL.
+ */
+public final class AnypointTransportBenchmark {
+
+    static final String RESULT_PREFIX = "RESULT ";
+
+    private AnypointTransportBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final long jvmStartToMain = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        final AnypointHttpRequest request = AnypointHttpRequest.builder()
+                .operation("benchmark")
+                .method("GET")
+                .urlTemplate(args[1])
+                .url(args[1])
+                .headers(Collections.emptyMap())
+                .build();
+
+        long start = System.nanoTime();
+        AnypointHttpTransport transport = AnypointHttpTransport.create(args[0]);
+        long init = System.nanoTime();
+        transport.send(request, Duration.ofSeconds(30));
+        long first = System.nanoTime();
+        transport.send(request, Duration.ofSeconds(30));
+        long second = System.nanoTime();
+
+        System.out.println(RESULT_PREFIX + String.format("%s %s %s %s %s",
+                jvmStartToMain,
+                TimeUnit.NANOSECONDS.toMicros(init - start),
+                TimeUnit.NANOSECONDS.toMicros(first - init),
+                TimeUnit.NANOSECONDS.toMicros(second - first),
+                ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount()));
+        System.exit(0);
+    }
+}
@@ -0,0 +1,52 @@
+package com.mulesoft.meetups;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Transport based on the reactor-netty WebClient. When the timeout fires, the subscription is
+ * cancelled, which aborts the in-flight request.
+ */
+public class AnypointWebClientTransport implements AnypointHttpTransport {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    /**
+     * Shared client, so connections are pooled across calls.
+     */
+    private final WebClient webClient = WebClient.builder().build();
+
+    @Override
+    public AnypointHttpResponse send(AnypointHttpRequest request, Duration timeout) throws IOException {
+        WebClient.RequestBodySpec spec = webClient
+                .method(HttpMethod.valueOf(request.getMethod()))
+                .uri(URI.create(request.getUrl()))
+                .headers(headers -> request.getHeaders().forEach(headers::set));
+
+        WebClient.RequestHeadersSpec<?> exchange = request.getBody() == null ? spec : spec.bodyValue(request.getBody());
+
+        try {
+            return exchange
+                    .exchangeToMono(response -> response.bodyToMono(byte[].class)
+                            .defaultIfEmpty(EMPTY)
+                            .map(body -> AnypointHttpResponse.builder()
+                                    .status(response.rawStatusCode())
+                                    .body(body)
+                                    .retryAfter(response.headers().asHttpHeaders().getFirst("Retry-After"))
+                                    .build()))
+                    .timeout(timeout)
+                    .onErrorMap(TimeoutException.class, exception -> new AnypointTimeoutException(
+                            String.format("%s did not complete within %s ms", request.getOperation(), timeout.toMillis()), exception))
+                    .block();
+        } catch (WebClientRequestException exception) {
+            //--- Network errors surface as IOException, whatever the transport ---//
+            throw new IOException(String.format("%s failed: %s", request.getOperation(), exception.getMessage()), exception);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.mulesoft.meetups;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Log-linear histogram of non-negative values (latencies), with a relative error below 1.6%.
+ *
+ * Values below 128 have their own bucket; above, every power of two is split in 64 buckets. The
+ * histogram has a fixed size whatever the number of values, and histograms merge by adding counts,
+ * so runs, workers and consumers can be combined without keeping raw samples.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_BUCKETS = SUB_BUCKETS * 2;
+    private static final int BUCKETS = LINEAR_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * @param value value to record, negative values are recorded as 0
+     */
+    public synchronized void record(long value) {
+        this.record(value, 1);
+    }
+
+    /**
+     * @param value value to record, negative values are recorded as 0
+     * @param occurrences times the value was observed
+     */
+    public synchronized void record(long value, long occurrences) {
+        long recorded = Math.max(0, value);
+        counts[index(recorded)] += occurrences;
+        count += occurrences;
+        sum += recorded * occurrences;
+        min = Math.min(min, recorded);
+        max = Math.max(max, recorded);
+    }
+
+    /**
+     * Adds the values of another histogram.
+     * @param other histogram to merge
+     */
+    public synchronized void merge(LatencyHistogram other) {
+        synchronized (other) {
+            for (int index = 0; index < BUCKETS; index++) {
+                counts[index] += other.counts[index];
+            }
+            count += other.count;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    public synchronized long getSum() {
+        return sum;
+    }
+
+    public synchronized double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * @param percentile percentile, between 0 and 100
+     * @return smallest value such that percentile % of the values are lower or equal (bucket upper bound, capped to the max)
+     */
+    public synchronized long percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int index = 0; index < BUCKETS; index++) {
+            seen += counts[index];
+            if (seen >= rank) {
+                return Math.min(max, Math.max(min, highestValue(index)));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return sparse bucket counts (bucket index to count), for storage
+     */
+    public synchronized Map<Integer, Long> toBuckets() {
+        Map<Integer, Long> buckets = new TreeMap<>();
+        for (int index = 0; index < BUCKETS; index++) {
+            if (counts[index] != 0) {
+                buckets.put(index, counts[index]);
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * Rebuilds a histogram from stored buckets.
+     * @param buckets sparse bucket counts
+     * @param min smallest value recorded
+     * @param max largest value recorded
+     * @param sum sum of the values
+     * @return histogram
+     */
+    public static LatencyHistogram fromBuckets(Map<Integer, Long> buckets, long min, long max, long sum) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        buckets.forEach((index, occurrences) -> {
+            histogram.counts[index] += occurrences;
+            histogram.count += occurrences;
+        });
+        histogram.min = histogram.count == 0 ? Long.MAX_VALUE : min;
+        histogram.max = max;
+        histogram.sum = sum;
+        return histogram;
+    }
+
+    static int index(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    static long highestValue(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int shift = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        long lowest = ((long) ((index - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS)) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
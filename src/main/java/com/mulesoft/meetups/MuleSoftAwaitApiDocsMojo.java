@@ -0,0 +1,142 @@
+package com.mulesoft.meetups;
+
+import lombok.SneakyThrows;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Waits for the pages queued by publish-api-docs with asyncPublishing, and reports them.
+ *
+ * Bind it at the end of the build, or run it on its own: it then publishes the pages a previous
+ * build left in the queue. Reported pages (published or given up) are removed from the queue;
+ * pages still pending at the deadline stay queued.
+ *
+ * It is a goal rather than a session-end hook so it runs with the configuration of the module
+ * (credentials, queue, deadline) and can fail the build before later phases such as deploy.
+ */
+@Mojo(name = "await-api-docs", defaultPhase = LifecyclePhase.VERIFY)
+public class MuleSoftAwaitApiDocsMojo extends AbstractAnypointMojo
+{
+    @Parameter(name = "docsQueueDirectory", defaultValue = "${user.home}/.anypoint-maven-plugin/queue")
+    private File docsQueueDirectory = new File(System.getProperty("user.home"), ".anypoint-maven-plugin/queue");
+
+    /**
+     * Asset versions published at the same time, when no worker was started by publish-api-docs.
+     */
+    @Parameter(name = "publishConcurrency", defaultValue = "1")
+    private int publishConcurrency = 1;
+
+    @Parameter(name = "publishMaxAttempts", defaultValue = "3")
+    private int publishMaxAttempts = 3;
+
+    /**
+     * Fails the build when a page could not be published, or is still pending at the deadline.
+     */
+    @Parameter(name = "failOnPublishFailure", defaultValue = "true")
+    private boolean failOnPublishFailure = true;
+
+    public MuleSoftAwaitApiDocsMojo() {
+        super("await-api-docs");
+    }
+
+    /**
+     * Await queued pages.
+     *
+     * @throws MojoExecutionException
+     */
+    @SneakyThrows
+    public void execute() throws MojoExecutionException {
+
+        //--- Starts the execution deadline ---//
+        this.startExecution();
+
+        List<AnypointDocsJob> jobs = null;
+        try {
+            jobs = this.await();
+        } catch (AnypointCircuitOpenException exception) {
+            //--- Anypoint is known to be down: fails fast, or skips when configured ---//
+            this.skipOrFail(exception);
+        } finally {
+            //--- Displays time breakdown and writes execution metrics ---//
+            this.finishExecution();
+        }
+
+        //--- Fails on pages not published ---//
+        if (jobs != null && failOnPublishFailure) {
+            long unpublished = jobs.stream().filter(job -> AnypointDocsJob.DONE.equals(job.getStatus()) == false).count();
+            if (unpublished > 0) {
+                throw new Exception(String.format("%s documentation pages were not published", unpublished));
+            }
+        }
+    }
+
+    /**
+     * Waits for the queued pages of the user, displays and acknowledges them.
+     *
+     * @return jobs of the user, as they were at the end of the wait
+     * @throws Exception
+     */
+    List<AnypointDocsJob> await() throws Exception {
+        //--- Gets the worker of the build, or starts one for pages left over by previous builds ---//
+        AnypointDocsWorker worker = this.timed("worker", () -> AnypointDocsWorker.start(docsQueueDirectory, username, () -> {
+            this.getAnypointAccessToken();
+            return this.newBackgroundSession();
+        }, publishConcurrency, publishMaxAttempts));
+
+        //--- Waits until no page is pending, at most until the deadline ---//
+        List<AnypointDocsJob> jobs = this.timed("await", () -> {
+            List<AnypointDocsJob> current = worker.jobs();
+            while (current.stream().anyMatch(job -> AnypointDocsJob.PENDING.equals(job.getStatus())) && deadline.remaining().toMillis() > 0) {
+                worker.await(Math.min(deadline.remaining().toMillis(), 1000));
+                current = worker.jobs();
+            }
+            return current;
+        });
+
+        this.printResults(jobs);
+
+        //--- Reported pages leave the queue, pending ones are resumed by the next build ---//
+        for (AnypointDocsJob job : jobs) {
+            if (AnypointDocsJob.PENDING.equals(job.getStatus()) == false) {
+                worker.getQueue().remove(job.getId());
+            }
+        }
+        return jobs;
+    }
+
+    /**
+     * Displays the outcome of every queued page.
+     *
+     * @param jobs
+     */
+    private void printResults(List<AnypointDocsJob> jobs) {
+        getLog().info("");
+        getLog().info("------------------------------------------------------------------------");
+        getLog().info("                   PUBLISH API DOCUMENTATION - RESULTS                  ");
+        getLog().info("------------------------------------------------------------------------");
+
+        jobs.forEach(job -> {
+            String page = String.format("%s %s / %s", job.getApiName(), job.getApiVersion(), job.getPageName());
+            if (AnypointDocsJob.DONE.equals(job.getStatus())) {
+                getLog().info(String.format("%-48s: PUBLISHED (%s attempts)", page, job.getAttempts()));
+            } else if (AnypointDocsJob.FAILED.equals(job.getStatus())) {
+                getLog().error(String.format("%-48s: FAILED (%s attempts): %s", page, job.getAttempts(), job.getLastError()));
+            } else {
+                getLog().warn(String.format("%-48s: PENDING (%s attempts)%s", page, job.getAttempts(), job.getLastError() != null ? ": " + job.getLastError() : ""));
+            }
+        });
+
+        getLog().info("------------------------------------------------------------------------");
+        getLog().info("");
+
+        report.metric("pages", jobs.size());
+        jobs.stream().collect(Collectors.groupingBy(AnypointDocsJob::getStatus, Collectors.counting()))
+                .forEach((status, count) -> report.metric(String.format("pages.%s", status.toLowerCase()), count));
+    }
+}
@@ -0,0 +1,163 @@
+package com.mulesoft.meetups;
+
+import lombok.SneakyThrows;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the throughput of the three ways the plugin can run many Anypoint calls at once:
+ * blocking calls on virtual threads, blocking calls on a platform pool (both with the JDK
+ * transport) and non-blocking WebClient calls, against a local stub with simulated latency.
+ */
+@Mojo(name = "concurrency-benchmark", requiresProject = false)
+public class MuleSoftConcurrencyBenchmarkMojo extends AbstractMojo
+{
+    private static final String VIRTUAL = "virtual";
+    private static final String PLATFORM = "platform";
+    private static final String REACTIVE = "reactive";
+
+    /**
+     * Execution modes to compare.
+     */
+    @Parameter(name = "modes", defaultValue = "virtual,reactive,platform")
+    private List<String> modes = Arrays.asList(VIRTUAL, REACTIVE, PLATFORM);
+
+    /**
+     * Requests sent per mode (after an equal warm-up).
+     */
+    @Parameter(name = "requests", defaultValue = "2000")
+    private int requests = 2000;
+
+    /**
+     * Requests in flight at the same time.
+     */
+    @Parameter(name = "concurrency", defaultValue = "64")
+    private int concurrency = 64;
+
+    /**
+     * Simulated Anypoint latency.
+     */
+    @Parameter(name = "stubLatencyInMilliseconds", defaultValue = "20")
+    private long stubLatencyInMilliseconds = 20;
+
+    @Parameter(defaultValue = "${project.build.directory}", readonly = true)
+    private File buildDirectory = null;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @throws MojoExecutionException
+     */
+    @SneakyThrows
+    public void execute() throws MojoExecutionException {
+        AnypointExecutionReport report = new AnypointExecutionReport("concurrency-benchmark");
+
+        getLog().info("");
+        getLog().info("------------------------------------------------------------------------");
+        getLog().info(String.format("   CONCURRENCY BENCHMARK - %s REQUESTS, %s IN FLIGHT, %s MS LATENCY", requests, concurrency, stubLatencyInMilliseconds));
+        getLog().info("------------------------------------------------------------------------");
+        getLog().info(String.format("%-10s %12s %12s", "mode", "requests/s", "mean (ms)"));
+
+        try (AnypointLocalStubServer server = new AnypointLocalStubServer(stubLatencyInMilliseconds)) {
+            for (String mode : modes) {
+                if (VIRTUAL.equals(mode) && AnypointExecutors.isVirtualThreadSupported() == false) {
+                    getLog().info(String.format("%-10s %12s", mode, "unsupported (Java 21+ required)"));
+                    continue;
+                }
+
+                //--- Warm-up (class loading, JIT, connection pool), then measure ---//
+                this.run(mode, server.getUrl());
+                long[] result = this.run(mode, server.getUrl());
+
+                double throughput = requests * 1000000000d / result[0];
+                double mean = TimeUnit.NANOSECONDS.toMicros(result[1] / requests) / 1000d;
+                getLog().info(String.format("%-10s %12.0f %12.2f", mode, throughput, mean));
+                report.metric(String.format("%s.requestsPerSecond", mode), Math.round(throughput));
+                report.metric(String.format("%s.meanLatencyInMilliseconds", mode), mean);
+            }
+        }
+        getLog().info("------------------------------------------------------------------------");
+        getLog().info("");
+
+        try {
+            report.write(AnypointExecutionReport.outputFile(buildDirectory, "concurrency-benchmark-report.json"));
+        } catch (Exception exception) {
+            getLog().warn("Could not write benchmark report", exception);
+        }
+    }
+
+    /**
+     * @return elapsed time and sum of request latencies, in nanoseconds
+     */
+    private long[] run(String mode, String url) throws Exception {
+        final AtomicLong latencies = new AtomicLong();
+        final long start = System.nanoTime();
+
+        if (REACTIVE.equals(mode)) {
+            WebClient webClient = WebClient.builder().build();
+            Flux.range(0, requests)
+                    .flatMap(i -> Mono.defer(() -> {
+                        final long sent = System.nanoTime();
+                        return webClient.get().uri(url).retrieve().bodyToMono(byte[].class)
+                                .doOnNext(body -> latencies.addAndGet(System.nanoTime() - sent));
+                    }), concurrency)
+                    .blockLast(Duration.ofMinutes(10));
+            return new long[]{System.nanoTime() - start, latencies.get()};
+        }
+
+        final AnypointHttpTransport transport = AnypointHttpTransport.create(AnypointHttpTransport.JDK);
+        final AnypointHttpRequest request = AnypointHttpRequest.builder()
+                .operation("benchmark")
+                .method("GET")
+                .urlTemplate(url)
+                .url(url)
+                .headers(Collections.emptyMap())
+                .build();
+        final Semaphore inFlight = new Semaphore(concurrency);
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int index = 0; index < requests; index++) {
+            tasks.add(() -> {
+                inFlight.acquire();
+                try {
+                    final long sent = System.nanoTime();
+                    transport.send(request, Duration.ofMinutes(1));
+                    latencies.addAndGet(System.nanoTime() - sent);
+                } finally {
+                    inFlight.release();
+                }
+                return null;
+            });
+        }
+
+        ExecutorService executor = VIRTUAL.equals(mode)
+                ? AnypointExecutors.newVirtualThreadPerTaskExecutor()
+                : AnypointExecutors.newPlatformPool(concurrency, "benchmark");
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new long[]{System.nanoTime() - start, latencies.get()};
+    }
+}
@@ -0,0 +1,191 @@
+package com.mulesoft.meetups;
+
+import lombok.SneakyThrows;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Crawls environments, APIs, SLA tiers, contracts and client applications of the organization
+ * into the local inventory, so other goals and ad-hoc queries can resolve names offline.
+ *
+ * Refreshes are incremental: an environment whose API listing has the same fingerprint as in the
+ * previous snapshot keeps its records, and only changed environments have their tiers and
+ * contracts crawled again. The listing only reflects contracts through the active contract count
+ * of each API, so tier changes, and contracts approved or revoked and replaced, are only picked up
+ * once the records of the environment are older than maxRecordAgeInMinutes, or with fullRefresh.
+ */
+@Mojo(name = "inventory", requiresProject = false)
+public class MuleSoftInventoryMojo extends AbstractAnypointMojo
+{
+    /**
+     * Anypoint calls in flight at the same time during the crawl.
+     */
+    @Parameter(name = "inventoryConcurrency", defaultValue = "8")
+    private int inventoryConcurrency = 8;
+
+    /**
+     * Re-crawls every environment, even those whose API listing did not change.
+     */
+    @Parameter(name = "fullRefresh", defaultValue = "false")
+    private boolean fullRefresh = false;
+
+    /**
+     * Age after which the tiers and contracts of an environment are crawled again, even when its API
+     * listing did not change.
+     */
+    @Parameter(name = "maxRecordAgeInMinutes", defaultValue = "1440")
+    private long maxRecordAgeInMinutes = 1440;
+
+    public MuleSoftInventoryMojo() {
+        super("inventory");
+    }
+
+    /**
+     * Refresh the inventory.
+     *
+     * @throws MojoExecutionException
+     */
+    @SneakyThrows
+    public void execute() throws MojoExecutionException {
+
+        //--- Starts the execution deadline ---//
+        this.startExecution();
+
+        try {
+            //--- Gets an Anypoint access token ---//
+            AnypointToken accessToken = this.timed("login", this::getAnypointAccessToken);
+
+            //--- Gets details of current user based on access token ---//
+            AnypointUser user = this.timed("user", session::user);
+
+            Optional<AnypointInventory> previous = AnypointInventory.load(inventoryDirectory, user.getOrganizationId());
+            Map<String, AnypointInventoryIndex.Environment> known = previous
+                    .map(p -> p.getIndex().getEnvironments().stream().collect(Collectors.toMap(AnypointInventoryIndex.Environment::getId, Function.identity())))
+                    .orElse(new LinkedHashMap<>());
+
+            //--- Lists environments and client applications ---//
+            List<AnypointEnvironment> environments = this.timed("environments", () -> client.getEnvironments(accessToken.getAccessToken(), user.getOrganizationId()));
+            List<AnypointExchangeClientApplication> applications = this.timed("applications", () -> client.getClientApplicationsInExchange(accessToken.getAccessToken(), user.getOrganizationId()));
+
+            //--- Lists APIs of every environment concurrently ---//
+            List<Map> listings = this.timed("api-listings", () -> this.runAdaptively("api-listings", inventoryConcurrency, environments.stream()
+                    .map(environment -> (Callable<Map>) () -> client.getAPIListing(accessToken.getAccessToken(), user.getOrganizationId(), environment.getId()))
+                    .collect(Collectors.toList())));
+
+            AnypointInventory inventory = AnypointInventory.create(inventoryDirectory, user.getOrganizationId());
+            List<Callable<List<AnypointInventoryRecord>>> crawls = new ArrayList<>();
+            List<AnypointEnvironment> changed = new ArrayList<>();
+
+            for (int index = 0; index < environments.size(); index++) {
+                AnypointEnvironment environment = environments.get(index);
+                List<AnypointAPI> apis = client.toAPIs(listings.get(index));
+                String fingerprint = AnypointInventory.fingerprint(listings.get(index));
+                AnypointInventoryIndex.Environment entry = known.get(environment.getId());
+                boolean unchanged = fullRefresh == false && entry != null && fingerprint.equals(entry.getFingerprint())
+                        && entry.getRefreshedAt() != null && System.currentTimeMillis() - entry.getRefreshedAt().getTime() < TimeUnit.MINUTES.toMillis(maxRecordAgeInMinutes);
+
+                inventory.getIndex().getNames().put(AnypointInventory.key("environment", environment.getName()), environment.getId());
+                apis.forEach(api -> inventory.getIndex().getNames().put(AnypointInventory.key("api", environment.getId(), api.getAssetId()), String.valueOf(api.getId())));
+                inventory.getIndex().getEnvironments().add(AnypointInventoryIndex.Environment.builder()
+                        .id(environment.getId())
+                        .name(environment.getName())
+                        .type(environment.getType())
+                        .fingerprint(fingerprint)
+                        .file(AnypointInventory.environmentFile(environment.getId()))
+                        .apiCount(apis.size())
+                        .refreshedAt(unchanged ? entry.getRefreshedAt() : new Date())
+                        .build());
+
+                if (unchanged == false) {
+                    changed.add(environment);
+                    crawls.add(() -> this.crawl(accessToken, user, environment, apis));
+                }
+            }
+
+            //--- Crawls tiers and contracts of changed environments only ---//
+            List<List<AnypointInventoryRecord>> records = this.timed("crawl", () -> this.runConcurrently(Math.max(1, inventoryConcurrency / 2), crawls));
+
+            this.timed("write", () -> {
+                for (int index = 0; index < changed.size(); index++) {
+                    inventory.writeRecords(changed.get(index).getId(), records.get(index));
+                }
+                inventory.writeApplications(applications.stream().map(application -> {
+                    inventory.getIndex().getNames().put(AnypointInventory.key("application", application.getDescription()), String.valueOf(application.getId()));
+                    return AnypointInventoryRecord.builder()
+                            .kind(AnypointInventoryRecord.APPLICATION)
+                            .id(application.getId())
+                            .name(application.getDescription())
+                            .build();
+                }).collect(Collectors.toList()));
+                inventory.getIndex().setRefreshedAt(new Date());
+                inventory.writeIndex();
+            });
+
+            getLog().info(String.format("Inventory of organization %s: %s environments (%s refreshed, %s unchanged), %s client applications",
+                    user.getOrganizationId(), environments.size(), changed.size(), environments.size() - changed.size(), applications.size()));
+            report.metric("inventory.environments", environments.size());
+            report.metric("inventory.environmentsRefreshed", changed.size());
+            report.metric("inventory.records", records.stream().mapToInt(List::size).sum());
+        } catch (AnypointCircuitOpenException exception) {
+            //--- Anypoint is known to be down: fails fast, or skips when configured ---//
+            this.skipOrFail(exception);
+        } finally {
+            //--- Displays time breakdown and writes execution metrics ---//
+            this.finishExecution();
+        }
+    }
+
+    /**
+     * Gets SLA tiers and contracts of every API of an environment. APIs of one environment are
+     * crawled sequentially; environments run concurrently.
+     */
+    private List<AnypointInventoryRecord> crawl(AnypointToken accessToken, AnypointUser user, AnypointEnvironment environment, List<AnypointAPI> apis) {
+        List<AnypointInventoryRecord> records = new ArrayList<>();
+
+        for (AnypointAPI api : apis) {
+            records.add(AnypointInventoryRecord.builder()
+                    .kind(AnypointInventoryRecord.API)
+                    .id(api.getId())
+                    .name(api.getAsset() == null ? null : api.getAsset().getName())
+                    .environmentId(environment.getId())
+                    .assetId(api.getAssetId())
+                    .assetVersion(api.getAssetVersion())
+                    .build());
+
+            client.getAPISlaTiers(accessToken.getAccessToken(), user.getOrganizationId(), environment.getId(), api.getId()).forEach(tier ->
+                    records.add(AnypointInventoryRecord.builder()
+                            .kind(AnypointInventoryRecord.TIER)
+                            .id(tier.getId())
+                            .name(tier.getName())
+                            .environmentId(environment.getId())
+                            .apiId(api.getId())
+                            .status(tier.getStatus())
+                            .build()));
+
+            client.getAPIClientContracts(accessToken.getAccessToken(), user.getOrganizationId(), environment.getId(), api.getId()).forEach(contract ->
+                    records.add(AnypointInventoryRecord.builder()
+                            .kind(AnypointInventoryRecord.CONTRACT)
+                            .id(contract.getId())
+                            .name(contract.getApplicationName())
+                            .environmentId(environment.getId())
+                            .apiId(api.getId())
+                            .tierId(contract.getTierId())
+                            .applicationId(contract.getApplicationId())
+                            .status(contract.getStatus())
+                            .build()));
+        }
+        return records;
+    }
+}
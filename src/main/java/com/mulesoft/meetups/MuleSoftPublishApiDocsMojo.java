@@ -1,7 +1,6 @@
 package com.mulesoft.meetups;
 
 import lombok.SneakyThrows;
-import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
@@ -12,22 +11,20 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 /**
  * MuleSoftPublishApiDocsMojo
  */
 @Mojo(name = "publish-api-docs", defaultPhase = LifecyclePhase.VERIFY)
-public class MuleSoftPublishApiDocsMojo extends AbstractMojo
+public class MuleSoftPublishApiDocsMojo extends AbstractAnypointMojo
 {
-    @Parameter(name = "username", required = true)
-    private String username = null;
-
-    @Parameter(name = "password", required = true)
-    private String password = null;
-
     @Parameter(name = "apiName", required = true)
     private String apiName = null;
 
@@ -38,9 +35,71 @@ public class MuleSoftPublishApiDocsMojo extends AbstractMojo
     private String documentationFilesLocation = null;
 
     /**
-     * Anypoint REST API client.
+     * Pages changed at the same time; the draft is then published once. With asyncPublishing,
+     * asset versions published at the same time by the background worker.
+     */
+    @Parameter(name = "publishConcurrency", defaultValue = "1")
+    private int publishConcurrency = 1;
+
+    /**
+     * Queues the pages and returns, pages being published in the background while the build goes
+     * on, planned and published per asset version like synchronous publications (pages are never
+     * pruned); the await-api-docs goal waits for them and reports failures. Pages left unpublished
+     * when the build ends are published by the next build.
+     */
+    @Parameter(name = "asyncPublishing", defaultValue = "false")
+    private boolean asyncPublishing = false;
+
+    /**
+     * Root directory of the durable queue of asynchronous publications.
+     */
+    @Parameter(name = "docsQueueDirectory", defaultValue = "${user.home}/.anypoint-maven-plugin/queue")
+    private File docsQueueDirectory = new File(System.getProperty("user.home"), ".anypoint-maven-plugin/queue");
+
+    /**
+     * Attempts of an asynchronous publication before the page is reported as failed.
+     */
+    @Parameter(name = "publishMaxAttempts", defaultValue = "3")
+    private int publishMaxAttempts = 3;
+
+    /**
+     * Displays the plan of page changes, and the resources that would be uploaded, without
+     * changing anything in Exchange.
+     */
+    @Parameter(name = "dryRun", defaultValue = "false")
+    private boolean dryRun = false;
+
+    /**
+     * Deletes draft pages no documentation file describes any more.
+     */
+    @Parameter(name = "pruneOrphanPages", defaultValue = "false")
+    private boolean pruneOrphanPages = false;
+
+    /**
+     * Draft pages read at the same time while planning.
+     */
+    @Parameter(name = "planConcurrency", defaultValue = "4")
+    private int planConcurrency = 4;
+
+    /**
+     * Uploads the local images and attachments referenced by the pages to the portal, and points
+     * the references to the uploaded resources.
+     */
+    @Parameter(name = "resourceUploadEnabled", defaultValue = "true")
+    private boolean resourceUploadEnabled = true;
+
+    @Parameter(name = "resourceUploadConcurrency", defaultValue = "4")
+    private int resourceUploadConcurrency = 4;
+
+    /**
+     * Root directory of the manifests of uploaded resources, kept per asset version.
      */
-    private final AnypointRestAPIClient client = new AnypointRestAPIClient();
+    @Parameter(name = "resourceCacheDirectory", defaultValue = "${user.home}/.anypoint-maven-plugin/cache")
+    private File resourceCacheDirectory = new File(System.getProperty("user.home"), ".anypoint-maven-plugin/cache");
+
+    public MuleSoftPublishApiDocsMojo() {
+        super("publish-api-docs");
+    }
 
     /**
      * Execute smoke test.
@@ -50,106 +109,262 @@ public class MuleSoftPublishApiDocsMojo extends AbstractMojo
     @SneakyThrows
     public void execute() throws MojoExecutionException {
 
-        //--- Get list of documentation files ---//
-        List<File> files = Files.list(Paths.get(documentationFilesLocation)).map(Path::toFile).collect(Collectors.toList());
+        //--- Starts the execution deadline ---//
+        this.startExecution();
 
         //--- Prints a banner ---//
         this.printBanner();
 
+        try {
+            if (asyncPublishing && dryRun == false) {
+                this.enqueue();
+            } else {
+                this.publish();
+            }
+        } catch (AnypointCircuitOpenException exception) {
+            //--- Anypoint is known to be down: fails fast, or skips when configured ---//
+            this.skipOrFail(exception);
+        } finally {
+            //--- Displays time breakdown and writes execution metrics ---//
+            this.finishExecution();
+        }
+    }
+
+    /**
+     * Publishes every documentation file as a page of the asset.
+     *
+     * @throws Exception
+     */
+    void publish() throws Exception {
+        //--- Get list of documentation files ---//
+        List<File> files = Files.list(Paths.get(documentationFilesLocation)).map(Path::toFile).collect(Collectors.toList());
+
         //--- Displays configuration ---//
         this.printConfigInfo(files);
 
         //--- Gets an Anypoint access token ---//
-        AnypointToken accessToken = getAnypointAccessToken();
+        AnypointToken accessToken = this.timed("login", this::getAnypointAccessToken);
 
         //--- Gets details of current user based on access token ---//
-        AnypointUser user = client.getUser(accessToken.getAccessToken());
+        AnypointUser user = this.timed("user", session::user);
 
-        //--- Publish each page with contents from source files ---//
-        files.stream().forEach(file -> {
+        //--- Uploads referenced resources and points the pages to them ---//
+        Map<File, String> pages = this.timed("resources", () -> this.uploadResources(accessToken, user, files));
+
+        //--- Compares the pages with the draft portal, with one listing of its pages ---//
+        Map<String, String> local = new LinkedHashMap<>();
+        files.forEach(file -> local.put(file.getName().substring(0, file.getName().indexOf(".")), pages.get(file)));
+        AnypointDocsPlan plan = this.timed("plan", () -> this.planPages(accessToken, user, local));
+        this.printPlan(plan);
+        if (dryRun) {
+            getLog().info("Dry run: the draft portal was not changed");
+            return;
+        }
+
+        //--- Applies the changes only, then publishes the draft once ---//
+        List<AnypointDocsPlan.Action> applied = this.timed("publish-pages", () -> this.runConcurrently(publishConcurrency, plan.changes().stream().map(action -> (Callable<AnypointDocsPlan.Action>) () -> {
             try {
-                client.createAssetPage(
-                        accessToken.getAccessToken(),
-                        user.getOrganizationId(),
-                        apiName,
-                        file.getName().substring(0, file.getName().indexOf(".")),
-                        apiVersion,
-                        Files.readString(file.toPath()));
+                if (AnypointDocsPlan.CREATE.equals(action.getType())) {
+                    client.createAssetPortalPage(accessToken.getAccessToken(), user.getOrganizationId(), apiName, apiVersion, action.getPage());
+                }
+                if (AnypointDocsPlan.DELETE.equals(action.getType())) {
+                    client.deleteAssetPortalPage(accessToken.getAccessToken(), user.getOrganizationId(), apiName, apiVersion, action.getPage());
+                } else {
+                    client.updateAssetPortalPage(accessToken.getAccessToken(), user.getOrganizationId(), apiName, apiVersion, action.getPage(), action.getContents());
+                }
+                return action;
+            } catch (AnypointTimeoutException | AnypointCircuitOpenException exception) {
+                //--- Out of time or Anypoint down: remaining pages would fail the same way ---//
+                throw exception;
             } catch (Exception exception) {
-                getLog().error(exception);
+                getLog().error(String.format("Page %s NOT %sD", action.getPage(), action.getType()), exception);
+                return null;
             }
-        });
+        }).collect(Collectors.toList())));
+
+        if (applied.stream().anyMatch(action -> action != null)) {
+            this.timed("publish", () -> client.publishAssetPortal(accessToken.getAccessToken(), user.getOrganizationId(), apiName, apiVersion));
+        }
+        report.metric("pages.applied", applied.stream().filter(action -> action != null).count());
     }
 
     /**
+     * Lists the draft pages once, reads the pages that also have a file (concurrently), and plans
+     * the operations bringing the draft to the files.
      *
-     * @return
-     */
-    private AnypointToken getAnypointAccessToken() {
-        //---------------------------------------------------------//
-        //--- GET A NEW ACCESS TOKEN BASED ON USERNAME/PASSWORD ---//
-        //---------------------------------------------------------//
-        return client.getToken(
-                AnypointLogin.builder()
-                        .username(username)
-                        .password(password)
-                        .build());
+     * @param accessToken
+     * @param user
+     * @param local contents to publish, by page path
+     * @return plan
+     * @throws Exception
+     */
+    private AnypointDocsPlan planPages(AnypointToken accessToken, AnypointUser user, Map<String, String> local) throws Exception {
+        List<String> existing = client.getAssetPortalPages(accessToken.getAccessToken(), user.getOrganizationId(), apiName, apiVersion);
+
+        Map<String, String> remote = new ConcurrentHashMap<>();
+        existing.stream().filter(page -> local.containsKey(page) == false).forEach(page -> remote.put(page, ""));
+        this.runAdaptively("plan", planConcurrency, existing.stream().filter(local::containsKey).map(page -> (Callable<String>) () ->
+                remote.put(page, client.getAssetPortalPage(accessToken.getAccessToken(), user.getOrganizationId(), apiName, apiVersion, page))
+        ).collect(Collectors.toList()));
+
+        return AnypointDocsPlan.compute(local, remote, pruneOrphanPages);
     }
 
     /**
+     * Displays the plan, one line per page.
      *
-     * @param files
-     * @throws IOException
+     * @param plan
      */
-    private void printConfigInfo(List<File> files) throws IOException {
+    private void printPlan(AnypointDocsPlan plan) {
         getLog().info("");
         getLog().info("------------------------------------------------------------------------");
-        getLog().info("                   PUBLISH API DOCUMENTATION - DETAILS                  ");
+        getLog().info(String.format("                   PUBLISH API DOCUMENTATION - PLAN%s", dryRun ? " (DRY RUN)" : ""));
         getLog().info("------------------------------------------------------------------------");
 
-        files.stream().forEach(file -> {
-            getLog().info(String.format("Page.........: %s", file.getName().substring(0, file.getName().indexOf("."))));
-        });
+        plan.getActions().forEach(action -> getLog().info(String.format("%-10s %s", action.getType(), action.getPage())));
 
         getLog().info("------------------------------------------------------------------------");
+        getLog().info(String.format("%s to create, %s to update, %s to delete, %s unchanged, %s kept",
+                plan.count(AnypointDocsPlan.CREATE), plan.count(AnypointDocsPlan.UPDATE), plan.count(AnypointDocsPlan.DELETE),
+                plan.count(AnypointDocsPlan.UNCHANGED), plan.count(AnypointDocsPlan.KEEP)));
         getLog().info("");
+
+        for (String type : new String[]{AnypointDocsPlan.CREATE, AnypointDocsPlan.UPDATE, AnypointDocsPlan.DELETE, AnypointDocsPlan.UNCHANGED, AnypointDocsPlan.KEEP}) {
+            report.metric(String.format("pages.%s", type.toLowerCase()), plan.count(type));
+        }
     }
 
     /**
+     * Queues every documentation file as a page publication of the asset, for the background worker.
+     *
+     * @throws Exception
+     */
+    void enqueue() throws Exception {
+        //--- Get list of documentation files ---//
+        List<File> files = Files.list(Paths.get(documentationFilesLocation)).map(Path::toFile).collect(Collectors.toList());
+
+        //--- Displays configuration ---//
+        this.printConfigInfo(files);
+
+        //--- Gets an Anypoint access token ---//
+        AnypointToken accessToken = this.timed("login", this::getAnypointAccessToken);
+
+        //--- Gets details of current user based on access token ---//
+        AnypointUser user = this.timed("user", session::user);
+
+        //--- Uploads referenced resources and points the pages to them ---//
+        Map<File, String> pages = this.timed("resources", () -> this.uploadResources(accessToken, user, files));
+
+        //--- Starts the background worker, resuming pages left over by previous builds ---//
+        AnypointDocsWorker worker = this.timed("worker", () -> AnypointDocsWorker.start(docsQueueDirectory, username, this::newBackgroundSession, publishConcurrency, publishMaxAttempts));
+
+        //--- Queues each page with contents from source files ---//
+        this.timed("enqueue-pages", () -> {
+            for (File file : files) {
+                worker.publish(AnypointDocsJob.builder()
+                        .organizationId(user.getOrganizationId())
+                        .apiName(apiName)
+                        .apiVersion(apiVersion)
+                        .pageName(file.getName().substring(0, file.getName().indexOf(".")))
+                        .contents(pages.get(file))
+                        .build());
+            }
+        });
+
+        getLog().info(String.format("%s pages queued in %s, published in the background", files.size(), worker.getQueue().getDirectory()));
+        report.metric("publishing", "ASYNC");
+        report.metric("queuedPages", files.size());
+    }
+
+    /**
+     * Reads the pages, uploads the local resources they reference, concurrently and once per
+     * content (within the build and across builds), and rewrites the references to the uploads.
      *
      * @param accessToken
      * @param user
-     * @return
-     */
-    private AnypointExchangeClientApplication getOrCreateAnypointExchangeClientApplication(AnypointToken accessToken, AnypointUser user) {
-        //--------------------------------------------------//
-        //--- CHECK FOR EXISTING APPLICATION IN EXCHANGE ---//
-        //--------------------------------------------------//
-        List<AnypointExchangeClientApplication> clientApplications = client.getClientApplicationsInExchange(accessToken.getAccessToken(), user.getOrganizationId());
-        Optional<AnypointExchangeClientApplication> optionalClientApplication = clientApplications.stream().filter(f -> f.getDescription().equalsIgnoreCase("Temp Application")).findFirst();
-        AnypointExchangeClientApplication clientApplication = null;
-
-        //-------------------------------------//
-        //--- IF APPLICATION DOES NOT EXIST ---//
-        //-------------------------------------//
-        if (optionalClientApplication.isPresent() == false) {
-
-            //---------------------------------------------------//
-            //--- CREATE A NEW CLIENT APPLICATION IN EXCHANGE ---//
-            //---------------------------------------------------//
-            clientApplication = AnypointExchangeClientApplication.builder()
-                    .name("Temp Application")
-                    .description("Temp Application")
-                    .url("http://localhost")
-                    .build();
-
-            clientApplication.getGrantTypes().add("client_credentials");
-            client.createAPIClientApplication(accessToken.getAccessToken(), user.getOrganizationId(), clientApplication);
+     * @param files
+     * @return contents to publish, per page
+     * @throws Exception
+     */
+    private Map<File, String> uploadResources(AnypointToken accessToken, AnypointUser user, List<File> files) throws Exception {
+        Map<File, String> pages = new LinkedHashMap<>();
+        for (File file : files) {
+            pages.put(file, Files.readString(file.toPath()));
+        }
+        if (resourceUploadEnabled == false) {
+            return pages;
+        }
+
+        //--- Resources by content: a file referenced from several pages, or a copy of it, is one resource ---//
+        Map<File, Map<String, File>> references = new LinkedHashMap<>();
+        Map<String, File> resources = new LinkedHashMap<>();
+        Map<File, String> digests = new HashMap<>();
+        for (File file : files) {
+            references.put(file, AnypointDocsResources.references(new File(documentationFilesLocation), file, pages.get(file),
+                    reference -> getLog().warn(String.format("%s: %s is outside %s, not uploaded", file.getName(), reference, documentationFilesLocation))));
+            for (File resource : references.get(file).values()) {
+                File canonical = resource.getCanonicalFile();
+                if (digests.containsKey(canonical) == false) {
+                    digests.put(canonical, AnypointDigests.sha256Hex(Files.readAllBytes(canonical.toPath())));
+                    resources.putIfAbsent(digests.get(canonical), canonical);
+                }
+            }
+        }
+
+        AnypointDocsResourceManifest manifest = new AnypointDocsResourceManifest(resourceCacheDirectory, user.getOrganizationId(), apiName, apiVersion);
+        List<Map.Entry<String, File>> uploads = resources.entrySet().stream().filter(resource -> manifest.lookup(resource.getKey()) == null).collect(Collectors.toList());
+        if (dryRun) {
+            //--- Resources not uploaded yet keep their local reference ---//
+            uploads.forEach(resource -> getLog().info(String.format("%-10s %s", "UPLOAD", resource.getValue().getName())));
         } else {
-            clientApplication = optionalClientApplication.get();
-            clientApplication.getId();
+            try {
+                this.runAdaptively("resources", resourceUploadConcurrency, uploads.stream().map(resource -> (Callable<String>) () -> manifest.upload(resource.getKey(), () -> client.uploadAssetPortalResource(
+                        accessToken.getAccessToken(),
+                        user.getOrganizationId(),
+                        apiName,
+                        apiVersion,
+                        String.format("%s-%s", resource.getKey().substring(0, 12), resource.getValue().getName()),
+                        Files.readAllBytes(resource.getValue().toPath())))).collect(Collectors.toList()));
+            } finally {
+                //--- Uploads that succeeded are not sent again, even when others failed ---//
+                manifest.store();
+            }
         }
-        return clientApplication;
+
+        for (File file : files) {
+            Map<String, String> replacements = new HashMap<>();
+            for (Map.Entry<String, File> reference : references.get(file).entrySet()) {
+                String uploaded = manifest.lookup(digests.get(reference.getValue().getCanonicalFile()));
+                if (uploaded != null) {
+                    replacements.put(reference.getKey(), uploaded);
+                }
+            }
+            pages.put(file, AnypointDocsResources.rewrite(pages.get(file), replacements));
+        }
+
+        getLog().info(String.format("Resources....: %s referenced, %s %s, %s already in the portal", resources.size(), uploads.size(), dryRun ? "to upload" : "uploaded", resources.size() - uploads.size()));
+        report.metric("resources", resources.size());
+        report.metric(dryRun ? "resources.toUpload" : "resources.uploaded", uploads.size());
+        return pages;
+    }
+
+    /**
+     *
+     * @param files
+     * @throws IOException
+     */
+    private void printConfigInfo(List<File> files) throws IOException {
+        getLog().info("");
+        getLog().info("------------------------------------------------------------------------");
+        getLog().info("                   PUBLISH API DOCUMENTATION - DETAILS                  ");
+        getLog().info("------------------------------------------------------------------------");
+
+        files.stream().forEach(file -> {
+            getLog().info(String.format("Page.........: %s", file.getName().substring(0, file.getName().indexOf("."))));
+        });
+
+        getLog().info("------------------------------------------------------------------------");
+        getLog().info("");
     }
 
     /**
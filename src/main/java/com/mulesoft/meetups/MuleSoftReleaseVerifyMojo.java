@@ -0,0 +1,77 @@
+package com.mulesoft.meetups;
+
+import lombok.SneakyThrows;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Publishes the API documentation and smoke tests the API concurrently, on one Anypoint session:
+ * one login, and lookups both workflows need (user, client applications) made once.
+ *
+ * The workflows are configured as the publish-api-docs and smoke-test goals, in the publish and
+ * smokeTest blocks; credentials, timeouts and circuit breakers come from this goal. Both run to
+ * completion, then the first failure fails the goal, and one report holds the phases of both.
+ */
+@Mojo(name = "release-verify", defaultPhase = LifecyclePhase.VERIFY)
+public class MuleSoftReleaseVerifyMojo extends AbstractAnypointMojo
+{
+    @Parameter(name = "publish", required = true)
+    private MuleSoftPublishApiDocsMojo publish = null;
+
+    @Parameter(name = "smokeTest", required = true)
+    private MuleSoftSmokeTestMojo smokeTest = null;
+
+    public MuleSoftReleaseVerifyMojo() {
+        super("release-verify");
+    }
+
+    /**
+     * Publish the documentation and smoke test the API.
+     *
+     * @throws MojoExecutionException
+     */
+    @SneakyThrows
+    public void execute() throws MojoExecutionException {
+
+        //--- Starts the execution deadline ---//
+        this.startExecution();
+
+        //--- Workflows share the client session, deadline and report of this execution ---//
+        publish.joinExecution(this);
+        smokeTest.joinExecution(this);
+
+        List<Object> results = null;
+        try {
+            //--- Logs in once for both workflows ---//
+            this.timed("login", this::getAnypointAccessToken);
+            this.timed("user", session::user);
+
+            //--- Runs both workflows, the release stage takes as long as the slower one ---//
+            results = this.runConcurrently(2, Arrays.asList(
+                    (Callable<Object>) () -> {
+                        publish.publish();
+                        return null;
+                    },
+                    (Callable<Object>) () -> smokeTest.verify()));
+        } catch (AnypointCircuitOpenException exception) {
+            //--- Anypoint is known to be down: fails fast, or skips when configured ---//
+            this.skipOrFail(exception);
+        } finally {
+            report.metric("session.deduplicatedCalls", session.getDeduplicatedCalls());
+
+            //--- Displays time breakdown and writes execution metrics ---//
+            this.finishExecution();
+        }
+
+        //--- Finalizes the smoke test (nothing to report when skipped) ---//
+        if (results != null && results.get(1) != null) {
+            smokeTest.finalize((List<SmokeTestRun>) results.get(1));
+        }
+    }
+}
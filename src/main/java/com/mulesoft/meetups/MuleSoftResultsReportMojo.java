@@ -0,0 +1,140 @@
+package com.mulesoft.meetups;
+
+import lombok.SneakyThrows;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Renders the latency and throughput trends recorded by smoke-test in the results store: a table
+ * per API and environment in the build log, and an HTML page with one chart per series.
+ */
+@Mojo(name = "results-report", requiresProject = false)
+public class MuleSoftResultsReportMojo extends AbstractMojo
+{
+    private static final int CHART_WIDTH = 720;
+    private static final int CHART_HEIGHT = 180;
+
+    @Parameter(name = "resultsDirectory", defaultValue = "${user.home}/.anypoint-maven-plugin/results")
+    private File resultsDirectory = null;
+
+    /**
+     * Most recent runs shown per series.
+     */
+    @Parameter(name = "runs", defaultValue = "30")
+    private int runs = 30;
+
+    /**
+     * Only reports this API when set.
+     */
+    @Parameter(name = "apiName")
+    private String apiName = null;
+
+    /**
+     * Only reports this environment when set.
+     */
+    @Parameter(name = "environmentName")
+    private String environmentName = null;
+
+    @Parameter(defaultValue = "${project.build.directory}", readonly = true)
+    private File buildDirectory = null;
+
+    /**
+     * Render the report.
+     *
+     * @throws MojoExecutionException
+     */
+    @SneakyThrows
+    public void execute() throws MojoExecutionException {
+        SmokeTestResultsStore store = new SmokeTestResultsStore(resultsDirectory);
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+        StringBuilder html = new StringBuilder("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Smoke test trends</title>"
+                + "<style>body{font-family:sans-serif}td,th{padding:2px 8px;text-align:right}</style></head><body><h1>Smoke test trends</h1>");
+        int series = 0;
+
+        for (Path file : store.files()) {
+            List<SmokeTestResultRecord> records = store.read(file);
+            if (records.isEmpty() || this.matches(records.get(0)) == false) {
+                continue;
+            }
+            records = records.subList(Math.max(0, records.size() - runs), records.size());
+            SmokeTestResultRecord last = records.get(records.size() - 1);
+            series++;
+
+            getLog().info("");
+            getLog().info("------------------------------------------------------------------------");
+            getLog().info(String.format("API: %s - Environment: %s (%s runs)", last.getApi(), last.getEnvironment(), records.size()));
+            getLog().info("------------------------------------------------------------------------");
+            getLog().info(String.format("%-16s %-10s %6s %7s %7s %7s %9s", "date", "version", "reqs", "p50", "p95", "p99", "req/s"));
+            for (SmokeTestResultRecord record : records) {
+                getLog().info(String.format("%-16s %-10s %6s %7s %7s %7s %9.1f%s",
+                        format.format(record.getTimestamp()), record.getAssetVersion(), record.getRequests(),
+                        record.getP50InMilliseconds(), record.getP95InMilliseconds(), record.getP99InMilliseconds(),
+                        record.getThroughputPerSecond(), record.getFailures() > 0 ? " (failed)" : ""));
+            }
+
+            html.append(String.format("<h2>%s - %s</h2>", escape(last.getApi()), escape(last.getEnvironment())));
+            html.append(chart(records));
+            html.append("<table><tr><th>date</th><th>version</th><th>requests</th><th>failures</th><th>p50 ms</th><th>p95 ms</th><th>p99 ms</th><th>req/s</th></tr>");
+            for (SmokeTestResultRecord record : records) {
+                html.append(String.format("<tr><td>%s</td><td>%s</td><td>%s</td><td>%s</td><td>%s</td><td>%s</td><td>%s</td><td>%.1f</td></tr>",
+                        format.format(record.getTimestamp()), escape(record.getAssetVersion()), record.getRequests(), record.getFailures(),
+                        record.getP50InMilliseconds(), record.getP95InMilliseconds(), record.getP99InMilliseconds(), record.getThroughputPerSecond()));
+            }
+            html.append("</table>");
+        }
+        html.append("</body></html>");
+
+        if (series == 0) {
+            getLog().info(String.format("No smoke test results in %s", resultsDirectory));
+            return;
+        }
+
+        File output = AnypointExecutionReport.outputFile(buildDirectory, "results-report.html");
+        output.getParentFile().mkdirs();
+        Files.write(output.toPath(), html.toString().getBytes(StandardCharsets.UTF_8));
+        getLog().info("");
+        getLog().info(String.format("Report: %s", output));
+    }
+
+    private boolean matches(SmokeTestResultRecord record) {
+        return (apiName == null || apiName.equalsIgnoreCase(record.getApi()))
+                && (environmentName == null || environmentName.equalsIgnoreCase(record.getEnvironment()));
+    }
+
+    /**
+     * @return SVG chart of p50 (green), p95 (orange) and p99 (red) over the runs
+     */
+    private static String chart(List<SmokeTestResultRecord> records) {
+        long max = Math.max(1, records.stream().mapToLong(SmokeTestResultRecord::getP99InMilliseconds).max().orElse(1));
+        StringBuilder svg = new StringBuilder(String.format("<svg width=\"%s\" height=\"%s\" style=\"border:1px solid #ccc\">", CHART_WIDTH, CHART_HEIGHT + 20));
+        svg.append(String.format("<text x=\"4\" y=\"12\" font-size=\"11\">%s ms</text>", max));
+        svg.append(polyline(records, SmokeTestResultRecord::getP50InMilliseconds, max, "#2a2"));
+        svg.append(polyline(records, SmokeTestResultRecord::getP95InMilliseconds, max, "#e80"));
+        svg.append(polyline(records, SmokeTestResultRecord::getP99InMilliseconds, max, "#d22"));
+        return svg.append("</svg>").toString();
+    }
+
+    private static String polyline(List<SmokeTestResultRecord> records, ToLongFunction<SmokeTestResultRecord> value, long max, String color) {
+        StringBuilder points = new StringBuilder();
+        for (int index = 0; index < records.size(); index++) {
+            long x = records.size() == 1 ? CHART_WIDTH / 2 : 10 + index * (CHART_WIDTH - 20L) / (records.size() - 1);
+            long y = 20 + CHART_HEIGHT - value.applyAsLong(records.get(index)) * CHART_HEIGHT / max;
+            points.append(x).append(',').append(y).append(' ');
+        }
+        return String.format("<polyline fill=\"none\" stroke=\"%s\" stroke-width=\"2\" points=\"%s\"/>", color, points.toString().trim());
+    }
+
+    private static String escape(String text) {
+        return text == null ? "" : text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -2,31 +2,39 @@ package com.mulesoft.meetups;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.SneakyThrows;
-import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.springframework.web.reactive.function.BodyExtractors;
-import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 /**
  * MuleSoftSmokeTestMojo
  */
 @Mojo(name = "smoke-test", defaultPhase = LifecyclePhase.VERIFY)
-public class MuleSoftSmokeTestMojo extends AbstractMojo
+public class MuleSoftSmokeTestMojo extends AbstractAnypointMojo
 {
-    @Parameter(name = "username", required = true)
-    private String username = null;
-
-    @Parameter(name = "password", required = true)
-    private String password = null;
-
     @Parameter(name = "apiName", required = true)
     private String apiName = null;
 
@@ -37,9 +45,237 @@ public class MuleSoftSmokeTestMojo extends AbstractMojo
     private String endpointUrl = null;
 
     /**
-     * Anypoint REST API client.
+     * Waits for the client ID enforcement policy to accept the new contract before smoke testing.
+     */
+    @Parameter(name = "readinessProbeEnabled", defaultValue = "true")
+    private boolean readinessProbeEnabled = true;
+
+    @Parameter(name = "readinessTimeoutInMilliseconds", defaultValue = "60000")
+    private long readinessTimeoutInMilliseconds = 60000;
+
+    @Parameter(name = "readinessInitialDelayInMilliseconds", defaultValue = "250")
+    private long readinessInitialDelayInMilliseconds = 250;
+
+    @Parameter(name = "readinessMaxDelayInMilliseconds", defaultValue = "5000")
+    private long readinessMaxDelayInMilliseconds = 5000;
+
+    /**
+     * Optional JSON/YAML smoke test scenario; defaults to a single GET on the endpoint URL.
+     */
+    @Parameter(name = "scenarioFile")
+    private File scenarioFile = null;
+
+    /**
+     * Maximum number of response body bytes displayed in the log.
+     */
+    @Parameter(name = "responsePreviewBytes", defaultValue = "1024")
+    private int responsePreviewBytes = 1024;
+
+    /**
+     * Writes full response bodies to target/anypoint/responses.
+     */
+    @Parameter(name = "responseBodyOutputEnabled", defaultValue = "false")
+    private boolean responseBodyOutputEnabled = false;
+
+    /**
+     * Number of client applications (consumers) provisioned and contracted with the API.
+     */
+    @Parameter(name = "clientApplicationCount", defaultValue = "1")
+    private int clientApplicationCount = 1;
+
+    /**
+     * Number of scenario runs per consumer.
+     */
+    @Parameter(name = "iterationsPerClient", defaultValue = "1")
+    private int iterationsPerClient = 1;
+
+    /**
+     * Resolves the environment and API from the local inventory (see the inventory goal), falling
+     * back to Anypoint for names it does not contain.
+     */
+    @Parameter(name = "useInventory", defaultValue = "false")
+    private boolean useInventory = false;
+
+    /**
+     * Directory of the append-only results store, shared by every build on the machine.
+     */
+    @Parameter(name = "resultsDirectory", defaultValue = "${user.home}/.anypoint-maven-plugin/results")
+    private File resultsDirectory = new File(System.getProperty("user.home"), ".anypoint-maven-plugin/results");
+
+    /**
+     * Appends the latency histogram and throughput of the run to the results store.
+     */
+    @Parameter(name = "recordResults", defaultValue = "true")
+    private boolean recordResults = true;
+
+    /**
+     * What to do when the run is slower than the baseline: off, warn or fail.
+     */
+    @Parameter(name = "regressionAction", defaultValue = "warn")
+    private String regressionAction = "warn";
+
+    /**
+     * Latency percentile compared with the baseline.
+     */
+    @Parameter(name = "regressionPercentile", defaultValue = "95")
+    private double regressionPercentile = 95;
+
+    /**
+     * Allowed increase of the percentile over the baseline.
+     */
+    @Parameter(name = "regressionThresholdPercent", defaultValue = "50")
+    private int regressionThresholdPercent = 50;
+
+    /**
+     * Successful runs the baseline is computed from.
+     */
+    @Parameter(name = "baselineRuns", defaultValue = "10")
+    private int baselineRuns = 10;
+
+    /**
+     * Runs needed before the gate applies.
+     */
+    @Parameter(name = "baselineMinimumRuns", defaultValue = "3")
+    private int baselineMinimumRuns = 3;
+
+    /**
+     * Skips provisioning and testing when the same deployment (API instance, asset version,
+     * environment, endpoint URL and scenario) passed within the freshness window. The API is then
+     * always resolved with Anypoint, never from the inventory, so the asset version is current.
+     */
+    @Parameter(name = "resultCacheEnabled", defaultValue = "false")
+    private boolean resultCacheEnabled = false;
+
+    @Parameter(name = "resultCacheFreshnessInMinutes", defaultValue = "60")
+    private long resultCacheFreshnessInMinutes = 60;
+
+    @Parameter(name = "resultCacheDirectory", defaultValue = "${user.home}/.anypoint-maven-plugin/cache")
+    private File resultCacheDirectory = new File(System.getProperty("user.home"), ".anypoint-maven-plugin/cache");
+
+    /**
+     * Validates every smoke test and load response against the OAS specification of the API asset
+     * version in Exchange: declared operation, status, media type and JSON body schema.
+     */
+    @Parameter(name = "specValidationEnabled", defaultValue = "false")
+    private boolean specValidationEnabled = false;
+
+    /**
+     * What to do when a response does not match the specification: warn or fail.
+     */
+    @Parameter(name = "specValidationAction", defaultValue = "fail")
+    private String specValidationAction = "fail";
+
+    /**
+     * Root directory of the compiled specifications, kept per asset version.
+     */
+    @Parameter(name = "specCacheDirectory", defaultValue = "${user.home}/.anypoint-maven-plugin/cache")
+    private File specCacheDirectory = new File(System.getProperty("user.home"), ".anypoint-maven-plugin/cache");
+
+    /**
+     * Sends the smoke test request to every address the endpoint host resolves to, so a degraded
+     * instance behind DNS is noticed.
+     */
+    @Parameter(name = "perInstanceEnabled", defaultValue = "false")
+    private boolean perInstanceEnabled = false;
+
+    /**
+     * Requests per instance.
+     */
+    @Parameter(name = "instanceSamples", defaultValue = "5")
+    private int instanceSamples = 5;
+
+    /**
+     * Allowed increase of an instance median latency over the median of all instances.
+     */
+    @Parameter(name = "instanceOutlierThresholdPercent", defaultValue = "100")
+    private int instanceOutlierThresholdPercent = 100;
+
+    /**
+     * What to do when an instance fails or is an outlier: warn or fail.
+     */
+    @Parameter(name = "instanceOutlierAction", defaultValue = "fail")
+    private String instanceOutlierAction = "fail";
+
+    /**
+     * Measures DNS, connect, TLS, time to first byte and transfer of the endpoint, over new and
+     * over kept-alive connections, to separate network setup cost from application latency.
+     */
+    @Parameter(name = "connectionTimingEnabled", defaultValue = "false")
+    private boolean connectionTimingEnabled = false;
+
+    /**
+     * Requests per connection mode and protocol.
      */
-    private final AnypointRestAPIClient client = new AnypointRestAPIClient();
+    @Parameter(name = "connectionTimingSamples", defaultValue = "5")
+    private int connectionTimingSamples = 5;
+
+    /**
+     * Protocols measured, comma-separated: HTTP/1.1, HTTP/2.
+     */
+    @Parameter(name = "connectionTimingProtocols", defaultValue = "HTTP/1.1")
+    private String connectionTimingProtocols = SmokeTestConnectionProbe.HTTP11;
+
+    /**
+     * Open-model load stage, run after the functional scenario with the provisioned credentials.
+     */
+    @Parameter(name = "load")
+    private SmokeTestLoadConfig load = new SmokeTestLoadConfig();
+
+    /**
+     * Java command of forked load workers.
+     */
+    @Parameter(name = "javaExecutable", defaultValue = "${java.home}/bin/java")
+    private String javaExecutable = new File(System.getProperty("java.home"), "bin/java").getPath();
+
+    /**
+     * Leaves contracts, client applications and the SLA tier in place until the end of the build,
+     * where the plugin build extension removes the resources of every module at once; a client
+     * application shared by several modules is removed once. Needs the plugin declared with
+     * &lt;extensions&gt;true&lt;/extensions&gt; and Maven 3.2.1+, resources are removed immediately otherwise.
+     */
+    @Parameter(name = "deferTeardown", defaultValue = "false")
+    private boolean deferTeardown = false;
+
+    /**
+     * Maximum number of consumers provisioned or torn down at the same time.
+     */
+    @Parameter(name = "provisioningConcurrency", defaultValue = "4")
+    private int provisioningConcurrency = 4;
+
+    /**
+     * Shared reactive client for requests to the endpoint under test.
+     */
+    private final WebClient webClient = WebClient.builder().build();
+
+    /**
+     * Resources provisioned by this execution, removed during clean-up.
+     */
+    private final List<SmokeTestConsumer> consumers = new ArrayList<>();
+    private AnypointToken accessToken;
+    private AnypointUser user;
+    private AnypointEnvironment environment;
+    private AnypointAPI api;
+    private Long slaTierId;
+
+    /**
+     * Organization inventory, loaded on first use when useInventory is set.
+     */
+    private Optional<AnypointInventory> inventory;
+
+    /**
+     * Outcome of the run against the latency baseline.
+     */
+    private SmokeTestRegressionGate.Verdict regression;
+    private SmokeTestResultCache.Key resultCacheKey;
+    private SmokeTestLoadResult loadResult;
+    private SmokeTestSpecification specification;
+    private long contractViolations;
+    private List<SmokeTestInstanceResult> instanceResults;
+    private long smokeTestDurationInMilliseconds;
+
+    public MuleSoftSmokeTestMojo() {
+        super("smoke-test");
+    }
 
     /**
      * Execute smoke test.
@@ -49,62 +285,131 @@ public class MuleSoftSmokeTestMojo extends AbstractMojo
     @SneakyThrows
     public void execute() throws MojoExecutionException {
 
+        //--- Starts the execution deadline ---//
+        this.startExecution();
+
         //--- Prints a banner ---//
         this.printBanner();
 
+        List<SmokeTestRun> results;
+        try {
+            results = this.verify();
+        } finally {
+            //--- Displays time breakdown and writes execution metrics ---//
+            this.finishExecution();
+        }
+
+        //--- Finalizes execution (nothing to report when skipped) ---//
+        if (results != null) {
+            this.finalize(results);
+        }
+    }
+
+    /**
+     * Provisions consumers, runs the scenario (and load stage) with them, then removes them.
+     *
+     * @return scenario runs, null when skipped
+     * @throws Exception
+     */
+    List<SmokeTestRun> verify() throws Exception {
+        //--- Loads (or reuses the cached compilation of) the smoke test scenario ---//
+        SmokeTestCompiledScenario scenario = this.timed("scenario", () -> scenarioFile != null ? SmokeTestScenarioCompiler.load(scenarioFile) : SmokeTestScenarioCompiler.defaultScenario());
+
         //--- Displays configuration ---//
-        this.printConfigInfo();
+        this.printConfigInfo(scenario);
 
-        //--- Gets an Anypoint access token ---//
-        AnypointToken accessToken = getAnypointAccessToken();
+        List<SmokeTestRun> results = null;
+        try {
+            //--- Gets an Anypoint access token ---//
+            accessToken = this.timed("login", this::getAnypointAccessToken);
 
-        //--- Gets details of current user based on access token ---//
-        AnypointUser user = client.getUser(accessToken.getAccessToken());
+            //--- Gets details of current user based on access token ---//
+            user = this.timed("user", session::user);
 
-        //--- Gets or Creates a new client application ---//
-        AnypointExchangeClientApplication clientApplication = getOrCreateAnypointExchangeClientApplication(accessToken, user);
+            //--- Gets environment details ---//
+            environment = this.timed("environment", () -> this.getAnypointEnvironment(accessToken, user));
 
-        //--- Gets environment details ---//
-        AnypointEnvironment environment = this.getAnypointEnvironment(accessToken, user);
+            //--- Gets API details ---//
+            api = this.timed("api", () -> this.getAnypointAPI(accessToken, user, environment));
 
-        //--- Gets API details ---//
-        AnypointAPI api = this.getAnypointAPI(accessToken, user, environment);
+            //--- Skips the run when the same deployment passed recently ---//
+            resultCacheKey = SmokeTestResultCache.Key.builder()
+                    .apiId(api.getId())
+                    .assetVersion(api.getAssetVersion())
+                    .environmentId(environment.getId())
+                    .endpointUrl(endpointUrl)
+                    .scenarioDigest(scenario.getDigest())
+                    .build();
+            SmokeTestResultCache.Entry cached = resultCacheEnabled
+                    ? this.timed("result-cache", () -> new SmokeTestResultCache(resultCacheDirectory).lookup(resultCacheKey, Duration.ofMinutes(resultCacheFreshnessInMinutes)))
+                    : null;
+            if (cached != null) {
+                getLog().info(String.format("Smoke test SKIPPED: %s %s passed in %s at %s (within %s minutes)",
+                        apiName, api.getAssetVersion(), environmentName, cached.getPassedAt(), resultCacheFreshnessInMinutes));
+                report.metric("resultCache", "HIT");
+                return null;
+            }
+            report.metric("resultCache", resultCacheEnabled ? "MISS" : "DISABLED");
 
-        //--- Creates a new SLA tier for the API ---//
-        Long slaTierId = this.createApiSlaTier(accessToken, user, environment, api);
+            //--- Loads (or reuses the cached compilation of) the API specification ---//
+            if (specValidationEnabled) {
+                specification = this.timed("specification", () -> this.loadSpecification(accessToken, api));
+            }
 
-        //--- Creates a new contract between API and client ---//
-        Long apiClientContractId = this.createApiClientContract(accessToken, user, clientApplication, environment, api, slaTierId);
+            //--- Creates a new SLA tier for the API ---//
+            slaTierId = this.timed("sla-tier", () -> this.createApiSlaTier(accessToken, user, environment, api));
 
-        //--- Executes smoke test and displays results ---//
-        ClientResponse response = this.smokeTestAndDisplayResult(clientApplication);
+            //--- Gets or creates client applications and their contracts with the API ---//
+            this.timed("provisioning", () -> this.provisionConsumers(accessToken, user, environment, api, slaTierId));
 
-        //--- Clean-up (contract, SLA tier, client application) ---//
-        this.cleanUp(accessToken, user, clientApplication, environment, api, slaTierId, apiClientContractId);
+            //--- Waits for the client ID enforcement policy to accept the new contracts ---//
+            this.timed("readiness", () -> this.awaitPolicyPropagation(consumers));
 
-        //--- Finalizes execution ---//
-        this.finalize(response);
-    }
+            //--- Executes smoke test and displays results ---//
+            results = this.timed("smoke-test", () -> this.smokeTestAndDisplayResult(scenario, consumers));
 
-    /**
-     *
-     * @return
-     */
-    private AnypointToken getAnypointAccessToken() {
-        //---------------------------------------------------------//
-        //--- GET A NEW ACCESS TOKEN BASED ON USERNAME/PASSWORD ---//
-        //---------------------------------------------------------//
-        return client.getToken(
-                AnypointLogin.builder()
-                        .username(username)
-                        .password(password)
-                        .build());
+            //--- Tests every instance behind the endpoint host ---//
+            if (perInstanceEnabled) {
+                instanceResults = this.timed("instances", () -> this.smokeTestInstancesAndDisplayResult(consumers.get(0)));
+            }
+
+            //--- Breaks the endpoint latency down, over new and kept-alive connections ---//
+            if (connectionTimingEnabled) {
+                this.timed("connection-timing", () -> this.measureAndDisplayConnectionTiming(consumers.get(0)));
+            }
+
+            //--- Runs the open-model load stage ---//
+            if (load.isEnabled() && results.stream().allMatch(SmokeTestRun::isPassed)) {
+                loadResult = this.timed("load", () -> this.runLoad(consumers));
+            }
+
+            //--- Records latencies and compares them with the baseline of previous runs ---//
+            final List<SmokeTestRun> runs = results;
+            this.timed("baseline", () -> this.recordAndCompare(scenario, runs));
+        } catch (AnypointCircuitOpenException exception) {
+            //--- Anypoint is known to be down: fails fast, or skips when configured ---//
+            this.skipOrFail(exception);
+        } finally {
+            //--- Clean-up (contracts, client applications, SLA tier) within the reserved budget ---//
+            this.enterCleanup();
+            Map<String, Callable<String>> registry = deferTeardown ? this.teardownRegistry() : null;
+            if (deferTeardown && registry == null) {
+                getLog().warn("Teardown NOT deferred: declare the plugin with <extensions>true</extensions>, on Maven 3.2.1+");
+            }
+            report.metric("teardown", registry != null ? "DEFERRED" : "IMMEDIATE");
+            if (slaTierId != null && registry != null) {
+                this.timed("clean-up-deferred", () -> this.deferCleanUp(registry, user, consumers, environment, api, slaTierId));
+            } else if (slaTierId != null) {
+                this.timed("clean-up", () -> this.cleanUp(accessToken, user, consumers, environment, api, slaTierId));
+            }
+        }
+        return results;
     }
 
     /**
      *
      */
-    private void printConfigInfo() {
+    private void printConfigInfo(SmokeTestCompiledScenario scenario) {
         getLog().info("");
         getLog().info("------------------------------------------------------------------------");
         getLog().info("                     SMOKE TEST - DETAILS                               ");
@@ -112,45 +417,26 @@ public class MuleSoftSmokeTestMojo extends AbstractMojo
         getLog().info(String.format("API.........: %s", apiName));
         getLog().info(String.format("Environment.: %s", environmentName));
         getLog().info(String.format("Endpoint URL: %s", endpointUrl));
+        getLog().info(String.format("Scenario....: %s (%s steps)", scenario.getName(), scenario.getSteps().size()));
+        getLog().info(String.format("Clients.....: %s (%s runs each)", clientApplicationCount, iterationsPerClient));
         getLog().info("------------------------------------------------------------------------");
         getLog().info("");
     }
 
     /**
+     * Loads the inventory of the organization once, when useInventory is set.
      *
-     * @param accessToken
-     * @param user
-     * @return
+     * @return inventory, empty when disabled or never written (names are then resolved live)
+     * @throws IOException
      */
-    private AnypointExchangeClientApplication getOrCreateAnypointExchangeClientApplication(AnypointToken accessToken, AnypointUser user) {
-        //--------------------------------------------------//
-        //--- CHECK FOR EXISTING APPLICATION IN EXCHANGE ---//
-        //--------------------------------------------------//
-        List<AnypointExchangeClientApplication> clientApplications = client.getClientApplicationsInExchange(accessToken.getAccessToken(), user.getOrganizationId());
-        Optional<AnypointExchangeClientApplication> optionalClientApplication = clientApplications.stream().filter(f -> f.getDescription().equalsIgnoreCase("Temp Application")).findFirst();
-        AnypointExchangeClientApplication clientApplication = null;
-
-        //-------------------------------------//
-        //--- IF APPLICATION DOES NOT EXIST ---//
-        //-------------------------------------//
-        if (optionalClientApplication.isPresent() == false) {
-
-            //---------------------------------------------------//
-            //--- CREATE A NEW CLIENT APPLICATION IN EXCHANGE ---//
-            //---------------------------------------------------//
-            clientApplication = AnypointExchangeClientApplication.builder()
-                    .name("Temp Application")
-                    .description("Temp Application")
-                    .url("http://localhost")
-                    .build();
-
-            clientApplication.getGrantTypes().add("client_credentials");
-            client.createAPIClientApplication(accessToken.getAccessToken(), user.getOrganizationId(), clientApplication);
-        } else {
-            clientApplication = optionalClientApplication.get();
-            clientApplication.getId();
+    private Optional<AnypointInventory> inventory() throws IOException {
+        if (useInventory && inventory == null) {
+            inventory = AnypointInventory.load(inventoryDirectory, user.getOrganizationId());
+            if (inventory.isPresent() == false) {
+                getLog().warn(String.format("No inventory in %s, resolving names with Anypoint", inventoryDirectory));
+            }
         }
-        return clientApplication;
+        return useInventory ? inventory : Optional.empty();
     }
 
     /**
@@ -164,7 +450,12 @@ public class MuleSoftSmokeTestMojo extends AbstractMojo
         //----------------------------------------//
         //--- GET SPECIFIC ENVIRONMENT DETAILS ---//
         //----------------------------------------//
-        List<AnypointEnvironment> environments = client.getEnvironments(accessToken.getAccessToken(),  user.getOrganizationId());
+        Optional<AnypointEnvironment> cached = inventory().flatMap(i -> i.findEnvironment(environmentName));
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        List<AnypointEnvironment> environments = session.environments();
         Optional<AnypointEnvironment> environment = environments.stream().filter(e -> e.getName().equalsIgnoreCase(environmentName)).findFirst();
 
         if (environment.isPresent() == false) {
@@ -185,6 +476,14 @@ public class MuleSoftSmokeTestMojo extends AbstractMojo
         //-----------------------------------------------------------//
         //--- GET DETAILS OF API INSTANCE WITHIN THAT ENVIRONMENT ---//
         //-----------------------------------------------------------//
+        Optional<AnypointInventory> inventory = inventory();
+        if (inventory.isPresent() && resultCacheEnabled == false) {
+            Optional<AnypointAPI> cached = inventory.get().findAPI(environment.getId(), apiName);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+
         List<AnypointAPI> environmentAPIs = client.getAPIsByEnvironmentId(
                 accessToken.getAccessToken(),
                 user.getOrganizationId(),
@@ -199,6 +498,51 @@ public class MuleSoftSmokeTestMojo extends AbstractMojo
         return api.get();
     }
 
+    /**
+     * Gets the compiled specification of the deployed asset version from the cache, or downloads
+     * the OAS specification from Exchange, compiles and caches it.
+     *
+     * @param accessToken
+     * @param api
+     * @return compiled specification, null when the asset has no OAS specification
+     * @throws Exception
+     */
+    private SmokeTestSpecification loadSpecification(AnypointToken accessToken, AnypointAPI api) throws Exception {
+        //--- APIs read from the inventory carry no group: assets are published under the organization ---//
+        final String groupId = api.getGroupId() != null ? api.getGroupId() : user.getOrganizationId();
+        SmokeTestSpecificationCache cache = new SmokeTestSpecificationCache(specCacheDirectory);
+        SmokeTestSpecification cached = cache.lookup(groupId, api.getAssetId(), api.getAssetVersion());
+        if (cached != null) {
+            report.metric("specification.cache", "HIT");
+            getLog().info(String.format("Specification: %s %s (%s, cached)", api.getAssetId(), api.getAssetVersion(), cached.getSource()));
+            return cached;
+        }
+        report.metric("specification.cache", "MISS");
+
+        //--- Prefers the single-file specification, the zip when references span several files ---//
+        List<AnypointExchangeAssetFile> files = client.getExchangeAssetFiles(accessToken.getAccessToken(), groupId, api.getAssetId(), api.getAssetVersion());
+        Optional<AnypointExchangeAssetFile> file = files.stream()
+                .filter(f -> AnypointExchangeAssetFile.OAS_CLASSIFIER.equalsIgnoreCase(f.getClassifier()) || AnypointExchangeAssetFile.FAT_OAS_CLASSIFIER.equalsIgnoreCase(f.getClassifier()))
+                .filter(f -> f.getExternalLink() != null || f.getDownloadURL() != null)
+                .min(Comparator.comparing(f -> AnypointExchangeAssetFile.ZIP_PACKAGING.equalsIgnoreCase(f.getPackaging())));
+        if (file.isPresent() == false) {
+            getLog().warn(String.format("No OAS specification for %s %s in Exchange (found: %s), responses are not validated",
+                    api.getAssetId(), api.getAssetVersion(), files.stream().map(AnypointExchangeAssetFile::getClassifier).collect(Collectors.joining(", "))));
+            return null;
+        }
+
+        SmokeTestSpecification specification = SmokeTestSpecificationCompiler.compile(file.get(), client.downloadExchangeAssetFile(accessToken.getAccessToken(), file.get()));
+        specification.setGroupId(groupId);
+        specification.setAssetId(api.getAssetId());
+        specification.setAssetVersion(api.getAssetVersion());
+        specification.getWarnings().forEach(warning -> getLog().warn(String.format("Specification: %s", warning)));
+        cache.store(specification);
+
+        getLog().info(String.format("Specification: %s %s (%s, %s operations, %s schemas)", api.getAssetId(), api.getAssetVersion(),
+                specification.getSource(), specification.getOperations().size(), specification.getSchemas().size()));
+        return specification;
+    }
+
     /**
      *
      * @param accessToken
@@ -270,75 +614,592 @@ public class MuleSoftSmokeTestMojo extends AbstractMojo
     }
 
     /**
+     * Gets or creates one client application per consumer and contracts each of them with the API,
+     * with at most provisioningConcurrency consumers provisioned at the same time. Consumers are
+     * registered before provisioning starts, so a failure leaves them available for clean-up.
      *
-     * @param response
+     * @param accessToken
+     * @param user
+     * @param environment
+     * @param api
+     * @param slaTierId
+     * @return
+     * @throws Exception
+     */
+    private List<SmokeTestConsumer> provisionConsumers(AnypointToken accessToken, AnypointUser user, AnypointEnvironment environment, AnypointAPI api, Long slaTierId) throws Exception {
+        for (int index = 0; index < clientApplicationCount; index++) {
+            consumers.add(SmokeTestConsumer.builder()
+                    .index(index)
+                    .name(index == 0 ? "Temp Application" : String.format("Temp Application %s", index + 1))
+                    .build());
+        }
+
+        //--- Partially provisioned consumers are removed by the clean-up ---//
+        this.runAdaptively("provisioning", provisioningConcurrency, consumers.stream().map(consumer -> (Callable<SmokeTestConsumer>) () -> {
+            consumer.setClientApplication(session.getOrCreateClientApplication(consumer.getName()));
+            consumer.setContractId(createApiClientContract(accessToken, user, consumer.getClientApplication(), environment, api, slaTierId));
+            return consumer;
+        }).collect(Collectors.toList()));
+        return consumers;
+    }
+
+    /**
+     * Polls the endpoint with the credentials of every consumer until the policy accepts them.
+     *
+     * @param consumers
+     * @throws Exception
+     */
+    private void awaitPolicyPropagation(List<SmokeTestConsumer> consumers) throws Exception {
+        if (readinessProbeEnabled == false) {
+            return;
+        }
+
+        this.runConcurrently(provisioningConcurrency, consumers.stream().map(consumer -> (Callable<SmokeTestReadinessResult>) () -> {
+            consumer.setReadiness(SmokeTestReadinessProbe.builder()
+                    .webClient(webClient)
+                    .endpointUrl(endpointUrl)
+                    .clientId(consumer.getClientApplication().getClientId())
+                    .clientSecret(consumer.getClientApplication().getClientSecret())
+                    .timeoutInMilliseconds(deadline.timeout("readiness probe", Duration.ofMillis(readinessTimeoutInMilliseconds)).toMillis())
+                    .initialDelayInMilliseconds(readinessInitialDelayInMilliseconds)
+                    .maxDelayInMilliseconds(readinessMaxDelayInMilliseconds)
+                    .build()
+                    .await());
+            return consumer.getReadiness();
+        }).collect(Collectors.toList()));
+
+        //--- The slowest consumer determines when the smoke test can start ---//
+        SmokeTestReadinessResult slowest = consumers.stream()
+                .map(SmokeTestConsumer::getReadiness)
+                .max(Comparator.comparingLong(SmokeTestReadinessResult::getPropagationLatencyInMilliseconds))
+                .get();
+
+        report.metric("readiness.ready", consumers.stream().allMatch(c -> c.getReadiness().isReady()));
+        report.metric("readiness.attempts", consumers.stream().mapToInt(c -> c.getReadiness().getAttempts()).sum());
+        report.metric("readiness.propagationLatencyInMilliseconds", slowest.getPropagationLatencyInMilliseconds());
+
+        for (SmokeTestConsumer consumer : consumers) {
+            SmokeTestReadinessResult readiness = consumer.getReadiness();
+            if (readiness.isReady()) {
+                getLog().info(String.format("Policy propagated for %s after %s ms (%s attempts)", consumer.getName(), readiness.getPropagationLatencyInMilliseconds(), readiness.getAttempts()));
+            } else {
+                getLog().warn(String.format("Policy not propagated for %s after %s ms (%s attempts, last status: %s), running smoke test anyway",
+                        consumer.getName(), readiness.getPropagationLatencyInMilliseconds(), readiness.getAttempts(), readiness.getLastStatus()));
+            }
+        }
+    }
+
+    /**
+     *
+     * @param results
      * @throws Exception
      */
-    private void finalize(ClientResponse response) throws Exception {
-        if (response.statusCode().isError()) {
+    void finalize(List<SmokeTestRun> results) throws Exception {
+        if (results.stream().anyMatch(r -> r.isPassed() == false)) {
             throw new Exception("MuleSoft Application Smoke Test failed");
         }
+        if (regression != null && regression.isRegressed() && "fail".equalsIgnoreCase(regressionAction)) {
+            throw new Exception(String.format("MuleSoft Application Smoke Test latency regressed: p%s %s ms, baseline %s ms",
+                    regressionPercentile, regression.getValue(), regression.getBaseline()));
+        }
+        if (instanceResults != null && "fail".equalsIgnoreCase(instanceOutlierAction) && instanceResults.stream().anyMatch(SmokeTestInstanceResult::isOutlier)) {
+            throw new Exception(String.format("MuleSoft Application Smoke Test failed on instances: %s", instanceResults.stream()
+                    .filter(SmokeTestInstanceResult::isOutlier)
+                    .map(r -> String.format("%s (%s)", r.getAddress(), r.getOutlier()))
+                    .collect(Collectors.joining(", "))));
+        }
+        if ("fail".equalsIgnoreCase(specValidationAction) && (contractViolations > 0 || (loadResult != null && loadResult.getContractViolations() > 0))) {
+            throw new Exception(String.format("MuleSoft Application Smoke Test responses do not match the API specification: %s smoke test, %s load responses",
+                    contractViolations, loadResult == null ? 0 : loadResult.getContractViolations()));
+        }
+        if (loadResult != null && loadResult.getErrorRatePercent() > load.getMaxErrorRatePercent()) {
+            throw new Exception(String.format("MuleSoft Application load test failed: %.2f%% errors (maximum: %s%%)",
+                    loadResult.getErrorRatePercent(), load.getMaxErrorRatePercent()));
+        }
+        if (resultCacheEnabled) {
+            new SmokeTestResultCache(resultCacheDirectory).store(resultCacheKey);
+        }
     }
 
     /**
+     * Runs the load profile against the endpoint, rotating over the credentials of all consumers,
+     * within the time left before the execution deadline, in this JVM or split across workers.
      *
-     * @param clientApplication
+     * @param consumers
+     * @return
+     * @throws Exception
+     */
+    private SmokeTestLoadResult runLoad(List<SmokeTestConsumer> consumers) throws Exception {
+        List<String[]> credentials = consumers.stream()
+                .map(c -> new String[]{c.getClientApplication().getClientId(), c.getClientApplication().getClientSecret()})
+                .collect(Collectors.toList());
+
+        //--- Keeps the time the last requests may take before the deadline: no time left fails the stage, not an empty pass ---//
+        Duration budget = deadline.remaining().minusMillis(load.getTimeoutInMilliseconds());
+        if (budget.getSeconds() < 1) {
+            throw new AnypointTimeoutException(String.format("Execution deadline leaves no time for the load test (remaining: %s ms, request timeout: %s ms)",
+                    deadline.remaining().toMillis(), load.getTimeoutInMilliseconds()));
+        }
+        Duration limit = deadline.timeout("load test", budget);
+        if (limit.getSeconds() < load.getDurationInSeconds()) {
+            getLog().warn(String.format("Load stage shortened to %s s by the execution deadline", limit.getSeconds()));
+        }
+
+        SmokeTestLoadCoordinator coordinator = new SmokeTestLoadCoordinator(load, javaExecutable, line -> getLog().info(String.format("Load: %s", line)));
+        SmokeTestLoadResult result;
+        if (coordinator.getWorkers() > 0) {
+            getLog().info(String.format("Load stage split across %s %s", coordinator.getWorkers(), load.getAgents().isEmpty() ? "forked workers" : "agents"));
+            result = coordinator.run(endpointUrl, credentials, specification, limit);
+        } else {
+            result = new SmokeTestLoadGenerator(load, SmokeTestLoadGenerator.templates(load, endpointUrl, credentials), 1, specification).run(limit);
+        }
+        report.metric("load.workers", coordinator.getWorkers());
+        this.displayLoadResult(result);
+        return result;
+    }
+
+    /**
+     * Tests every resolved instance of the endpoint concurrently and displays latency and statuses
+     * per instance.
+     *
+     * @param consumer consumer whose credentials are used
+     * @return results, outliers flagged
+     * @throws Exception
+     */
+    private List<SmokeTestInstanceResult> smokeTestInstancesAndDisplayResult(SmokeTestConsumer consumer) throws Exception {
+        SmokeTestInstanceProbe probe = SmokeTestInstanceProbe.builder()
+                .endpointUrl(endpointUrl)
+                .clientId(consumer.getClientApplication().getClientId())
+                .clientSecret(consumer.getClientApplication().getClientSecret())
+                .samples(instanceSamples)
+                .timeoutInMilliseconds(deadline.timeout("instance smoke test", Duration.ofMillis(operationTimeoutInMilliseconds)).toMillis())
+                .build();
+
+        List<InetAddress> addresses = probe.resolve();
+        List<SmokeTestInstanceResult> results = this.runConcurrently(addresses.size(), addresses.stream()
+                .map(address -> (Callable<SmokeTestInstanceResult>) () -> probe.probe(address))
+                .collect(Collectors.toList()));
+        SmokeTestInstanceProbe.flagOutliers(results, instanceOutlierThresholdPercent);
+
+        getLog().info("");
+        getLog().info("------------------------------------------------------------------------");
+        getLog().info("                     SMOKE TEST - INSTANCES                             ");
+        getLog().info("------------------------------------------------------------------------");
+        for (SmokeTestInstanceResult result : results) {
+            String line = String.format("%-40s p50 %7.1f ms, max %7.1f ms, statuses %s%s", result.getAddress(),
+                    result.getLatency().percentile(50) / 1000d, result.getLatency().getMax() / 1000d, result.getStatuses(),
+                    result.isOutlier() ? String.format(" OUTLIER: %s", result.getOutlier()) : "");
+            if (result.isOutlier()) {
+                getLog().warn(line);
+            } else {
+                getLog().info(line);
+            }
+            report.metric(String.format("instance.%s.p50InMicroseconds", result.getAddress()), result.getLatency().percentile(50));
+            report.metric(String.format("instance.%s.errors", result.getAddress()), result.getErrors());
+        }
+        getLog().info("------------------------------------------------------------------------");
+        report.metric("instance.count", results.size());
+        report.metric("instance.outliers", results.stream().filter(SmokeTestInstanceResult::isOutlier).count());
+        return results;
+    }
+
+    /**
+     * Measures cold and warm requests for each protocol and displays their median breakdown.
+     *
+     * @param consumer consumer whose credentials are used
+     */
+    private void measureAndDisplayConnectionTiming(SmokeTestConsumer consumer) {
+        SmokeTestConnectionProbe probe = SmokeTestConnectionProbe.builder()
+                .endpointUrl(endpointUrl)
+                .clientId(consumer.getClientApplication().getClientId())
+                .clientSecret(consumer.getClientApplication().getClientSecret())
+                .samples(connectionTimingSamples)
+                .timeoutInMilliseconds(deadline.timeout("connection timing", Duration.ofMillis(operationTimeoutInMilliseconds)).toMillis())
+                .build();
+
+        getLog().info("");
+        getLog().info("------------------------------------------------------------------------");
+        getLog().info("                     SMOKE TEST - CONNECTION TIMING (p50, ms)           ");
+        getLog().info("------------------------------------------------------------------------");
+        getLog().info(String.format("%-5s %-9s %7s %7s %7s %7s %8s %7s %6s", "Mode", "Protocol", "DNS", "Connect", "TLS", "TTFB", "Transfer", "Total", "Setup"));
+
+        for (String protocol : connectionTimingProtocols.split(",")) {
+            for (String mode : Arrays.asList(SmokeTestConnectionTiming.COLD, SmokeTestConnectionTiming.WARM)) {
+                SmokeTestConnectionTiming timing = probe.measure(mode, protocol.trim());
+                String negotiated = timing.getNegotiatedProtocol() == null ? protocol.trim() : timing.getNegotiatedProtocol();
+                getLog().info(String.format("%-5s %-9s %7.1f %7.1f %7.1f %7.1f %8.1f %7.1f %5.0f%%%s",
+                        mode, negotiated,
+                        timing.getDns().percentile(50) / 1000d, timing.getConnect().percentile(50) / 1000d, timing.getTls().percentile(50) / 1000d,
+                        timing.getTimeToFirstByte().percentile(50) / 1000d, timing.getTransfer().percentile(50) / 1000d, timing.getTotal().percentile(50) / 1000d,
+                        timing.getSetupSharePercent(), timing.getErrors() > 0 ? String.format(" (%s errors)", timing.getErrors()) : ""));
+
+                String prefix = String.format("connection.%s.%s", mode, negotiated.replaceAll("[^A-Za-z0-9.]", ""));
+                report.metric(prefix + ".dns.p50InMicroseconds", timing.getDns().percentile(50));
+                report.metric(prefix + ".connect.p50InMicroseconds", timing.getConnect().percentile(50));
+                report.metric(prefix + ".tls.p50InMicroseconds", timing.getTls().percentile(50));
+                report.metric(prefix + ".ttfb.p50InMicroseconds", timing.getTimeToFirstByte().percentile(50));
+                report.metric(prefix + ".transfer.p50InMicroseconds", timing.getTransfer().percentile(50));
+                report.metric(prefix + ".total.p50InMicroseconds", timing.getTotal().percentile(50));
+                report.metric(prefix + ".errors", timing.getErrors());
+            }
+        }
+        getLog().info("------------------------------------------------------------------------");
+    }
+
+    /**
+     * Displays throughput, latency percentiles and statuses of the load stage.
+     *
+     * @param result
+     */
+    private void displayLoadResult(SmokeTestLoadResult result) {
+        LatencyHistogram responseTime = result.getResponseTime();
+        LatencyHistogram serviceTime = result.getServiceTime();
+
+        getLog().info("");
+        getLog().info("------------------------------------------------------------------------");
+        getLog().info("                     SMOKE TEST - LOAD                                  ");
+        getLog().info("------------------------------------------------------------------------");
+        getLog().info(String.format("Profile......: %s, %s s (rate: %s/s)", load.getProfile(), load.getDurationInSeconds(), load.getRate()));
+        getLog().info(String.format("Requests.....: %s scheduled, %s completed, %s errors (%s timeouts)",
+                result.getScheduled(), result.getCompleted(), result.getErrors(), result.getTimeouts()));
+        getLog().info(String.format("Throughput...: %.1f requests/s", result.getThroughput()));
+        getLog().info(String.format("Response time: p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, max %.1f ms",
+                responseTime.percentile(50) / 1000d, responseTime.percentile(90) / 1000d, responseTime.percentile(99) / 1000d,
+                responseTime.percentile(99.9) / 1000d, responseTime.getMax() / 1000d));
+        getLog().info(String.format("Service time.: p50 %.1f ms, p99 %.1f ms (excluding schedule delays)",
+                serviceTime.percentile(50) / 1000d, serviceTime.percentile(99) / 1000d));
+        StringBuilder statuses = new StringBuilder();
+        for (int status = 0; status < 600; status++) {
+            if (result.getStatusCount(status) > 0) {
+                statuses.append(String.format("%sx%s ", status == 0 ? "error" : String.valueOf(status), result.getStatusCount(status)));
+            }
+        }
+        getLog().info(String.format("HTTP status..: %s", statuses.toString().trim()));
+        if (specification != null) {
+            getLog().info(String.format("Contract.....: %s responses do not match the specification", result.getContractViolations()));
+        }
+        getLog().info("------------------------------------------------------------------------");
+
+        report.metric("load.scheduled", result.getScheduled());
+        report.metric("load.completed", result.getCompleted());
+        report.metric("load.errors", result.getErrors());
+        report.metric("load.contractViolations", result.getContractViolations());
+        report.metric("load.throughputPerSecond", result.getThroughput());
+        report.metric("load.responseTime.p50InMicroseconds", responseTime.percentile(50));
+        report.metric("load.responseTime.p99InMicroseconds", responseTime.percentile(99));
+        report.metric("load.responseTime.p999InMicroseconds", responseTime.percentile(99.9));
+        report.metric("load.serviceTime.p99InMicroseconds", serviceTime.percentile(99));
+    }
+
+    /**
+     * Builds the latency histogram of the run, compares it with the baseline of the previous
+     * successful runs and appends it to the results store.
+     *
+     * @param scenario
+     * @param runs
+     * @throws IOException
+     */
+    private void recordAndCompare(SmokeTestCompiledScenario scenario, List<SmokeTestRun> runs) throws IOException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long failures = 0;
+        for (SmokeTestRun run : runs) {
+            for (SmokeTestStepResult result : run.getResults()) {
+                if (result.getStatus() != null) {
+                    histogram.record(result.getLatencyInMilliseconds());
+                }
+                failures += result.isPassed() ? 0 : 1;
+            }
+        }
+        if (histogram.getCount() == 0) {
+            return;
+        }
+
+        SmokeTestResultRecord record = SmokeTestResultRecord.builder()
+                .timestamp(new Date())
+                .api(apiName)
+                .environment(environmentName)
+                .assetVersion(api.getAssetVersion())
+                .scenarioDigest(scenario.getDigest())
+                .requests(histogram.getCount())
+                .failures(failures)
+                .durationInMilliseconds(smokeTestDurationInMilliseconds)
+                .throughputPerSecond(histogram.getCount() * 1000d / Math.max(1, smokeTestDurationInMilliseconds))
+                .p50InMilliseconds(histogram.percentile(50))
+                .p95InMilliseconds(histogram.percentile(95))
+                .p99InMilliseconds(histogram.percentile(99))
+                .minInMilliseconds(histogram.getMin())
+                .maxInMilliseconds(histogram.getMax())
+                .sumInMilliseconds(histogram.getSum())
+                .histogram(histogram.toBuckets())
+                .build();
+
+        report.metric("latency.p50InMilliseconds", record.getP50InMilliseconds());
+        report.metric("latency.p95InMilliseconds", record.getP95InMilliseconds());
+        report.metric("latency.p99InMilliseconds", record.getP99InMilliseconds());
+        report.metric("throughputPerSecond", record.getThroughputPerSecond());
+
+        SmokeTestResultsStore store = new SmokeTestResultsStore(resultsDirectory);
+        if ("off".equalsIgnoreCase(regressionAction) == false) {
+            //--- Baseline: last successful runs, the current one excluded ---//
+            List<SmokeTestResultRecord> baseline = store.lastSuccessful(apiName, environmentName, baselineRuns);
+
+            regression = SmokeTestRegressionGate.builder()
+                    .percentile(regressionPercentile)
+                    .thresholdPercent(regressionThresholdPercent)
+                    .minimumRuns(baselineMinimumRuns)
+                    .build()
+                    .evaluate(record, baseline);
+
+            if (regression.getBaseline() < 0) {
+                getLog().info(String.format("Latency baseline: %s of %s runs recorded, regression gate not applied yet", regression.getBaselineRuns(), baselineMinimumRuns));
+            } else if (regression.isRegressed()) {
+                String message = String.format("Latency regression: p%s %s ms, baseline %s ms over %s runs (threshold +%s%%)",
+                        regressionPercentile, regression.getValue(), regression.getBaseline(), regression.getBaselineRuns(), regressionThresholdPercent);
+                if ("fail".equalsIgnoreCase(regressionAction)) {
+                    getLog().error(message);
+                } else {
+                    getLog().warn(message);
+                }
+            } else {
+                getLog().info(String.format("Latency within baseline: p%s %s ms, baseline %s ms over %s runs",
+                        regressionPercentile, regression.getValue(), regression.getBaseline(), regression.getBaselineRuns()));
+            }
+            report.metric("latency.regressed", regression.isRegressed());
+            report.metric("latency.baselineInMilliseconds", regression.getBaseline());
+        }
+
+        if (recordResults) {
+            store.append(record);
+        }
+    }
+
+    /**
+     * Runs the smoke test scenario iterationsPerClient times with the credentials of every consumer.
+     * Consumers run concurrently on the shared WebClient, iterations of one consumer run one after the other.
+     *
+     * @param scenario
+     * @param consumers
      * @return
      */
-    private ClientResponse smokeTestAndDisplayResult(AnypointExchangeClientApplication clientApplication) {
-        ClientResponse response = WebClient.builder().build()
-            .get()
-                .uri(endpointUrl)
-                .header("X-Client-ID", clientApplication.getClientId())
-                .header("X-Client-Secret", clientApplication.getClientSecret())
-                .exchange()
+    private List<SmokeTestRun> smokeTestAndDisplayResult(SmokeTestCompiledScenario scenario, List<SmokeTestConsumer> consumers) {
+        final SmokeTestScenarioRunner runner = new SmokeTestScenarioRunner(
+                webClient,
+                responsePreviewBytes,
+                responseBodyOutputEnabled ? AnypointExecutionReport.outputFile(buildDirectory, "responses").toPath() : null,
+                specification);
+
+        final long start = System.nanoTime();
+        List<SmokeTestRun> runs = Flux.fromIterable(consumers)
+                .flatMapSequential(consumer -> Flux.range(1, iterationsPerClient).concatMap(iteration -> {
+                    Map<String, String> variables = new HashMap<>();
+                    variables.put(SmokeTestScenarioCompiler.CLIENT_ID_VARIABLE, consumer.getClientApplication().getClientId());
+                    variables.put(SmokeTestScenarioCompiler.CLIENT_SECRET_VARIABLE, consumer.getClientApplication().getClientSecret());
+                    variables.put(SmokeTestScenarioCompiler.ENDPOINT_URL_VARIABLE, endpointUrl);
+
+                    String label = consumers.size() == 1 && iterationsPerClient == 1 ? null : String.format("client-%s-%s", consumer.getIndex() + 1, iteration);
+                    return runner.execute(scenario, variables, label).map(results -> SmokeTestRun.builder()
+                            .consumer(consumer)
+                            .iteration(iteration)
+                            .results(results)
+                            .build());
+                }))
+                .collectList()
+                .timeout(deadline.timeout("smoke test", deadline.remaining()))
+                .onErrorMap(TimeoutException.class, exception -> new AnypointTimeoutException("Smoke test did not complete before the execution deadline", exception))
                 .block();
+        smokeTestDurationInMilliseconds = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        contractViolations = runs.stream().flatMap(run -> run.getResults().stream()).filter(r -> r.getContractViolations().isEmpty() == false).count();
 
         getLog().info("");
         getLog().info("------------------------------------------------------------------------");
         getLog().info("                     SMOKE TEST - RESULTS                               ");
         getLog().info("------------------------------------------------------------------------");
-        getLog().info(String.format("HTTP method..: %s", "GET"));
-        getLog().info(String.format("Endpoint URL.: %s", endpointUrl));
-        getLog().info(String.format("HTTP status..: %s - %s", response.statusCode().value(), response.statusCode().getReasonPhrase()));
-        getLog().info(String.format("Response Body: %s", response.bodyToMono(String.class).block()));
+        getLog().info(String.format("Scenario.....: %s", scenario.getName()));
+
+        if (runs.size() == 1) {
+            this.displayStepResults(runs.get(0).getResults());
+        } else {
+            this.displayConsumerBreakdown(consumers, runs);
+        }
+
         getLog().info("------------------------------------------------------------------------");
-        getLog().info(String.format("Result.......: %s", response.statusCode().is2xxSuccessful() ? "SUCCESS" : "FAILURE"));
+        if (specification != null) {
+            getLog().info(String.format("Contract.....: %s responses do not match the specification", contractViolations));
+            report.metric("contract.violations", contractViolations);
+        }
+        getLog().info(String.format("Result.......: %s", runs.stream().allMatch(SmokeTestRun::isPassed) ? "SUCCESS" : "FAILURE"));
         getLog().info("------------------------------------------------------------------------");
         getLog().info("");
-        return response;
+        return runs;
     }
 
     /**
+     * Displays the details of every step of a single run.
+     *
+     * @param results
+     */
+    private void displayStepResults(List<SmokeTestStepResult> results) {
+        for (SmokeTestStepResult result : results) {
+            getLog().info("------------------------------------------------------------------------");
+            getLog().info(String.format("Step.........: %s", result.getStepId()));
+            getLog().info(String.format("HTTP method..: %s", result.getMethod()));
+            getLog().info(String.format("Endpoint URL.: %s", result.getUrl()));
+            if (result.getStatus() != null) {
+                getLog().info(String.format("HTTP status..: %s - %s", result.getStatus(), result.getReasonPhrase()));
+                getLog().info(String.format("Latency......: %s ms (first byte: %s ms)", result.getLatencyInMilliseconds(), result.getTimeToFirstByteInMilliseconds()));
+                getLog().info(String.format("Body length..: %s bytes (sha256: %s)", result.getContentLength(), result.getSha256()));
+                getLog().info(String.format("Response Body: %s%s", result.getBodyPreview(), result.isBodyTruncated() ? "... (truncated)" : ""));
+                if (result.getBodyFile() != null) {
+                    getLog().info(String.format("Body file....: %s", result.getBodyFile()));
+                }
+            }
+            result.getFailures().forEach(failure -> getLog().error(String.format("Failure......: %s", failure)));
+            result.getContractViolations().forEach(violation -> getLog().warn(String.format("Contract.....: %s", violation)));
+            getLog().info(String.format("Result.......: %s", result.isSkipped() ? "SKIPPED" : result.isPassed() ? "SUCCESS" : "FAILURE"));
+
+            report.metric(String.format("step.%s.status", result.getStepId()), result.getStatus());
+            report.metric(String.format("step.%s.latencyInMilliseconds", result.getStepId()), result.getLatencyInMilliseconds());
+        }
+    }
+
+    /**
+     * Displays request counts, latencies and statuses per consumer, followed by the failures.
+     *
+     * @param consumers
+     * @param runs
+     */
+    private void displayConsumerBreakdown(List<SmokeTestConsumer> consumers, List<SmokeTestRun> runs) {
+        for (SmokeTestConsumer consumer : consumers) {
+            List<SmokeTestStepResult> results = runs.stream()
+                    .filter(run -> run.getConsumer() == consumer)
+                    .flatMap(run -> run.getResults().stream())
+                    .collect(Collectors.toList());
+
+            long failed = results.stream().filter(r -> r.isPassed() == false).count();
+            LongSummaryStatistics latency = results.stream().filter(r -> r.getStatus() != null).mapToLong(SmokeTestStepResult::getLatencyInMilliseconds).summaryStatistics();
+            String statuses = results.stream()
+                    .collect(Collectors.groupingBy(r -> r.getStatus() == null ? "error" : String.valueOf(r.getStatus()), TreeMap::new, Collectors.counting()))
+                    .entrySet().stream().map(e -> String.format("%sx%s", e.getKey(), e.getValue())).collect(Collectors.joining(" "));
+
+            getLog().info("------------------------------------------------------------------------");
+            getLog().info(String.format("Client.......: %s", consumer.getName()));
+            getLog().info(String.format("Requests.....: %s (%s failed)", results.size(), failed));
+            getLog().info(String.format("Latency......: avg %.0f ms, max %s ms", latency.getAverage(), latency.getCount() == 0 ? 0 : latency.getMax()));
+            getLog().info(String.format("HTTP status..: %s", statuses));
+
+            String prefix = String.format("client.%s.", consumer.getIndex() + 1);
+            report.metric(prefix + "requests", results.size());
+            report.metric(prefix + "failed", failed);
+            report.metric(prefix + "averageLatencyInMilliseconds", latency.getAverage());
+            report.metric(prefix + "maxLatencyInMilliseconds", latency.getCount() == 0 ? 0 : latency.getMax());
+        }
+
+        getLog().info("------------------------------------------------------------------------");
+        runs.stream().filter(run -> run.isPassed() == false).limit(20).forEach(run -> run.getResults().stream()
+                .filter(r -> r.isPassed() == false)
+                .forEach(r -> r.getFailures().forEach(failure -> getLog().error(String.format("Failure......: %s #%s %s: %s",
+                        run.getConsumer().getName(), run.getIteration(), r.getStepId(), failure)))));
+        runs.stream().flatMap(run -> run.getResults().stream().flatMap(r -> r.getContractViolations().stream()
+                        .map(violation -> String.format("%s #%s %s: %s", run.getConsumer().getName(), run.getIteration(), r.getStepId(), violation))))
+                .limit(20)
+                .forEach(violation -> getLog().warn(String.format("Contract.....: %s", violation)));
+    }
+
+    /**
+     * Deletes the contracts and client applications of all consumers concurrently, then the SLA tier.
+     * Consumers that were only partially provisioned are cleaned up as far as they got.
      *
      * @param accessToken
      * @param user
-     * @param clientApplication
+     * @param consumers
      * @param environment
      * @param api
      * @param slaTierId
-     * @param apiClientContractId
-     * @throws JsonProcessingException
+     * @throws Exception
      */
-    private void cleanUp(AnypointToken accessToken, AnypointUser user, AnypointExchangeClientApplication clientApplication, AnypointEnvironment environment, AnypointAPI api, Long slaTierId, Long apiClientContractId) throws JsonProcessingException {
-        client.deleteAPIClientContract(
-                accessToken.getAccessToken(),
-                user.getOrganizationId(),
-                environment.getId(),
-                api.getId(),
-                apiClientContractId);
+    private void cleanUp(AnypointToken accessToken, AnypointUser user, List<SmokeTestConsumer> consumers, AnypointEnvironment environment, AnypointAPI api, Long slaTierId) throws Exception {
+        try {
+            this.runAdaptively("clean-up", provisioningConcurrency, consumers.stream().map(consumer -> (Callable<SmokeTestConsumer>) () -> {
+                if (consumer.getContractId() != null) {
+                    client.deleteAPIClientContract(
+                            accessToken.getAccessToken(),
+                            user.getOrganizationId(),
+                            environment.getId(),
+                            api.getId(),
+                            consumer.getContractId());
 
-        client.deleteAPISlaTier(
-                accessToken.getAccessToken(),
+                    //--- A throttled task is tried again, from the application on ---//
+                    consumer.setContractId(null);
+                }
+
+                if (consumer.getClientApplication() != null) {
+                    client.deleteClientApplicationInExchange(
+                            accessToken.getAccessToken(),
+                            user.getOrganizationId(),
+                            consumer.getClientApplication().getId());
+                }
+                return consumer;
+            }).collect(Collectors.toList()));
+        } finally {
+            client.deleteAPISlaTier(
+                    accessToken.getAccessToken(),
+                    user.getOrganizationId(),
+                    environment.getId(),
+                    api.getId(),
+                    slaTierId);
+        }
+    }
+
+    /**
+     * Registers the contracts, client applications and SLA tier for removal at the end of the
+     * build: contracts first, then the resources they bind.
+     *
+     * @param registry
+     * @param user
+     * @param consumers
+     * @param environment
+     * @param api
+     * @param slaTierId
+     */
+    private void deferCleanUp(Map<String, Callable<String>> registry, AnypointUser user, List<SmokeTestConsumer> consumers, AnypointEnvironment environment, AnypointAPI api, Long slaTierId) {
+        int registered = 0;
+        int deduplicated = 0;
+        for (SmokeTestConsumer consumer : consumers) {
+            if (consumer.getContractId() != null) {
+                final Long contractId = consumer.getContractId();
+                boolean added = this.deferTeardown(registry, AnypointTeardown.CONTRACTS, String.format("contract:%s", contractId), (teardownClient, token) -> teardownClient.deleteAPIClientContract(
+                        token.getAccessToken(),
+                        user.getOrganizationId(),
+                        environment.getId(),
+                        api.getId(),
+                        contractId));
+                registered += added ? 1 : 0;
+                deduplicated += added ? 0 : 1;
+            }
+
+            if (consumer.getClientApplication() != null) {
+                final AnypointExchangeClientApplication clientApplication = consumer.getClientApplication();
+                boolean added = this.deferTeardown(registry, AnypointTeardown.RESOURCES, String.format("client-application:%s", clientApplication.getId()), (teardownClient, token) -> teardownClient.deleteClientApplicationInExchange(
+                        token.getAccessToken(),
+                        user.getOrganizationId(),
+                        clientApplication.getId()));
+                registered += added ? 1 : 0;
+                deduplicated += added ? 0 : 1;
+            }
+        }
+
+        boolean added = this.deferTeardown(registry, AnypointTeardown.RESOURCES, String.format("sla-tier:%s", slaTierId), (teardownClient, token) -> teardownClient.deleteAPISlaTier(
+                token.getAccessToken(),
                 user.getOrganizationId(),
                 environment.getId(),
                 api.getId(),
-                slaTierId);
+                slaTierId));
+        registered += added ? 1 : 0;
+        deduplicated += added ? 0 : 1;
 
-        client.deleteClientApplicationInExchange(
-                accessToken.getAccessToken(),
-                user.getOrganizationId(),
-                clientApplication.getId());
+        getLog().info(String.format("Teardown deferred to the end of the build: %s resources registered, %s already registered", registered, deduplicated));
+        report.metric("teardown.registered", registered);
+        report.metric("teardown.deduplicated", deduplicated);
     }
 
     /**
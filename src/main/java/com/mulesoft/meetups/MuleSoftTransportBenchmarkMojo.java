@@ -0,0 +1,136 @@
+package com.mulesoft.meetups;
+
+import lombok.SneakyThrows;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the startup and first-request latency of the HTTP transports. Each sample runs in a
+ * fresh JVM, on the plugin class path, against a local stub server, so class loading and
+ * connection set-up are measured the way a build pays for them.
+ */
+@Mojo(name = "transport-benchmark", requiresProject = false)
+public class MuleSoftTransportBenchmarkMojo extends AbstractMojo
+{
+    private static final String[] METRICS = {"process", "jvmStartToMain", "transportInit", "firstRequest", "secondRequest", "loadedClasses"};
+
+    /**
+     * Transports to compare.
+     */
+    @Parameter(name = "transports", defaultValue = "webclient,jdk")
+    private List<String> transports = Arrays.asList(AnypointHttpTransport.WEBCLIENT, AnypointHttpTransport.JDK);
+
+    /**
+     * Forked JVMs per transport.
+     */
+    @Parameter(name = "forks", defaultValue = "5")
+    private int forks = 5;
+
+    @Parameter(name = "javaExecutable", defaultValue = "${java.home}/bin/java")
+    private String javaExecutable = null;
+
+    @Parameter(defaultValue = "${project.build.directory}", readonly = true)
+    private File buildDirectory = null;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @throws MojoExecutionException
+     */
+    @SneakyThrows
+    public void execute() throws MojoExecutionException {
+        final Map<String, List<long[]>> samples = new LinkedHashMap<>();
+        transports.forEach(transport -> samples.put(transport, new ArrayList<>()));
+
+        try (AnypointLocalStubServer server = new AnypointLocalStubServer()) {
+            //--- Interleaves transports so machine noise affects all of them alike ---//
+            for (int fork = 0; fork < forks; fork++) {
+                for (String transport : transports) {
+                    samples.get(transport).add(this.fork(transport, server.getUrl()));
+                }
+            }
+        }
+
+        this.displayResults(samples);
+    }
+
+    /**
+     * Runs one sample in a new JVM.
+     *
+     * @return process time (ms), JVM start to main (ms), transport init, first and second request (us), loaded classes
+     */
+    private long[] fork(String transport, String url) throws Exception {
+        final long start = System.nanoTime();
+        Process process = AnypointForkedJvm.java(javaExecutable, AnypointTransportBenchmark.class, transport, url).start();
+
+        String result = null;
+        List<String> output = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                output.add(line);
+                if (line.startsWith(AnypointTransportBenchmark.RESULT_PREFIX)) {
+                    result = line.substring(AnypointTransportBenchmark.RESULT_PREFIX.length());
+                }
+            }
+        }
+        if (process.waitFor() != 0 || result == null) {
+            throw new Exception(String.format("Benchmark of transport: %s failed:%n%s", transport, String.join(System.lineSeparator(), output)));
+        }
+
+        long[] sample = new long[METRICS.length];
+        sample[0] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        String[] values = result.split(" ");
+        for (int index = 0; index < values.length; index++) {
+            sample[index + 1] = Long.parseLong(values[index]);
+        }
+        return sample;
+    }
+
+    /**
+     * Displays the median of each metric and writes them to the report.
+     */
+    private void displayResults(Map<String, List<long[]>> samples) {
+        AnypointExecutionReport report = new AnypointExecutionReport("transport-benchmark");
+
+        getLog().info("");
+        getLog().info("------------------------------------------------------------------------");
+        getLog().info(String.format("            TRANSPORT BENCHMARK - MEDIAN OF %s FORKS                  ", forks));
+        getLog().info("------------------------------------------------------------------------");
+        getLog().info(String.format("%-10s %10s %10s %10s %10s %10s %8s", "transport", "process", "jvm->main", "init", "1st req", "2nd req", "classes"));
+        getLog().info(String.format("%-10s %10s %10s %10s %10s %10s %8s", "", "ms", "ms", "us", "us", "us", ""));
+
+        samples.forEach((transport, runs) -> {
+            long[] medians = new long[METRICS.length];
+            for (int metric = 0; metric < METRICS.length; metric++) {
+                final int index = metric;
+                List<Long> values = runs.stream().map(run -> run[index]).sorted().collect(Collectors.toList());
+                medians[metric] = values.get(values.size() / 2);
+                report.metric(String.format("%s.%s", transport, METRICS[metric]), medians[metric]);
+            }
+            getLog().info(String.format("%-10s %10s %10s %10s %10s %10s %8s", transport,
+                    medians[0], medians[1], medians[2], medians[3], medians[4], medians[5]));
+        });
+        getLog().info("------------------------------------------------------------------------");
+        getLog().info("");
+
+        try {
+            report.write(AnypointExecutionReport.outputFile(buildDirectory, "transport-benchmark-report.json"));
+        } catch (Exception exception) {
+            getLog().warn("Could not write benchmark report", exception);
+        }
+    }
+}
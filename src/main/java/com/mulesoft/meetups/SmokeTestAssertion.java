@@ -0,0 +1,23 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * JSONPath assertion on a response body. Without equalTo, the path must exist (or not, when exists is false).
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SmokeTestAssertion {
+
+    private String path;
+    private JsonNode equalTo;
+    private Boolean exists;
+}
@@ -0,0 +1,51 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.http.HttpMethod;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Smoke test scenario validated and prepared for execution: JSONPath expressions are compiled,
+ * dependencies are resolved and steps are in topological order.
+ */
+@Builder
+@Getter
+public class SmokeTestCompiledScenario {
+
+    private final String name;
+    private final String digest;
+    private final List<Step> steps;
+
+    @Builder
+    @Getter
+    public static class Step {
+
+        private final String id;
+        private final HttpMethod method;
+        private final String url;
+        private final Map<String, String> headers;
+        private final String body;
+        private final Integer expectedStatus;
+        private final Long latencyBudgetInMilliseconds;
+        private final List<Assertion> assertions;
+        private final Map<String, JsonPointer> extract;
+        private final List<String> dependsOn;
+        private final Set<String> pointers;
+    }
+
+    @Builder
+    @Getter
+    public static class Assertion {
+
+        private final String path;
+        private final JsonPointer pointer;
+        private final JsonNode equalTo;
+        private final boolean exists;
+    }
+}
@@ -0,0 +1,201 @@
+package com.mulesoft.meetups;
+
+import io.netty.handler.codec.http.HttpMethod;
+import lombok.Builder;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientMetricsRecorder;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+
+/**
+ * Measures where the time of a request to the endpoint under test goes: DNS, connect, TLS, time to
+ * first byte and transfer, over fresh connections and over one kept-alive connection.
+ *
+ * Timings come from the reactor-netty metrics callbacks; requests run one after the other, so each
+ * callback belongs to the request in flight.
+ */
+@Builder
+public class SmokeTestConnectionProbe {
+
+    public static final String HTTP11 = "HTTP/1.1";
+    public static final String HTTP2 = "HTTP/2";
+
+    private final String endpointUrl;
+    private final String clientId;
+    private final String clientSecret;
+    private final int samples;
+    private final long timeoutInMilliseconds;
+
+    /**
+     * @param mode cold (new connection per request) or warm (one reused connection)
+     * @param protocol HTTP/1.1 or HTTP/2
+     * @return latency breakdown of the samples
+     */
+    public SmokeTestConnectionTiming measure(String mode, String protocol) {
+        final boolean warm = SmokeTestConnectionTiming.WARM.equals(mode);
+        final boolean secure = endpointUrl.startsWith("https://");
+        final Recorder recorder = new Recorder();
+        final ConnectionProvider provider = warm ? ConnectionProvider.create("smoke-test-connection-timing", 1) : ConnectionProvider.newConnection();
+
+        HttpClient warmClient = warm ? this.httpClient(provider, recorder, protocol, secure) : null;
+
+        final LatencyHistogram dns = new LatencyHistogram();
+        final LatencyHistogram connect = new LatencyHistogram();
+        final LatencyHistogram tls = new LatencyHistogram();
+        final LatencyHistogram timeToFirstByte = new LatencyHistogram();
+        final LatencyHistogram transfer = new LatencyHistogram();
+        final LatencyHistogram total = new LatencyHistogram();
+        String negotiated = null;
+        int errors = 0;
+        try {
+            //--- Opens the kept-alive connection, the first request is not measured ---//
+            if (warm) {
+                this.send(warmClient, new Sample());
+            }
+            for (int index = 0; index < samples; index++) {
+                Sample sample = new Sample();
+                recorder.sample = sample;
+                try {
+                    //--- A new client per cold request has its own, empty, DNS cache ---//
+                    negotiated = this.send(warm ? warmClient : this.httpClient(provider, recorder, protocol, secure), sample);
+                } catch (Exception exception) {
+                    errors++;
+                    continue;
+                }
+                dns.record(sample.dns);
+                connect.record(sample.connect);
+                tls.record(sample.tls);
+                timeToFirstByte.record(Math.max(0, sample.response - sample.transfer));
+                transfer.record(sample.transfer);
+                total.record(sample.total);
+            }
+        } finally {
+            provider.disposeLater().block(Duration.ofMillis(timeoutInMilliseconds));
+        }
+
+        return SmokeTestConnectionTiming.builder()
+                .mode(mode)
+                .protocol(protocol)
+                .negotiatedProtocol(negotiated)
+                .errors(errors)
+                .dns(dns)
+                .connect(connect)
+                .tls(tls)
+                .timeToFirstByte(timeToFirstByte)
+                .transfer(transfer)
+                .total(total)
+                .build();
+    }
+
+    private HttpClient httpClient(ConnectionProvider provider, Recorder recorder, String protocol, boolean secure) {
+        HttpClient httpClient = HttpClient.create(provider)
+                .protocol(this.protocols(protocol, secure))
+                .resolver(spec -> spec.queryTimeout(Duration.ofMillis(timeoutInMilliseconds)))
+                .metrics(true, () -> recorder, uri -> "endpoint")
+                .headers(headers -> headers.set("X-Client-ID", clientId).set("X-Client-Secret", clientSecret));
+        return secure ? httpClient.secure() : httpClient;
+    }
+
+    /**
+     * HTTP/2 is negotiated with ALPN over TLS; without TLS, the connection is upgraded when the
+     * endpoint supports h2c and stays HTTP/1.1 otherwise.
+     */
+    private HttpProtocol[] protocols(String protocol, boolean secure) {
+        if (HTTP2.equalsIgnoreCase(protocol)) {
+            return secure ? new HttpProtocol[]{HttpProtocol.H2} : new HttpProtocol[]{HttpProtocol.HTTP11, HttpProtocol.H2C};
+        }
+        if (HTTP11.equalsIgnoreCase(protocol)) {
+            return new HttpProtocol[]{HttpProtocol.HTTP11};
+        }
+        throw new IllegalArgumentException(String.format("Unknown protocol: %s (expected %s or %s)", protocol, HTTP11, HTTP2));
+    }
+
+    /**
+     * @return protocol of the response
+     */
+    private String send(HttpClient httpClient, Sample sample) {
+        final long start = System.nanoTime();
+        String version = httpClient.request(HttpMethod.GET)
+                .uri(endpointUrl)
+                .responseSingle((response, body) -> body.asByteArray().defaultIfEmpty(new byte[0]).thenReturn(response.version().text()))
+                .block(Duration.ofMillis(timeoutInMilliseconds));
+        sample.total = (System.nanoTime() - start) / 1000;
+        return version;
+    }
+    /**
+     * Phase durations of one request, in microseconds.
+     */
+    private static class Sample {
+
+        private volatile long dns;
+        private volatile long connect;
+        private volatile long tls;
+        private volatile long response;
+        private volatile long transfer;
+        private volatile long total;
+    }
+
+    /**
+     * Routes reactor-netty timings to the sample of the request in flight.
+     */
+    private static class Recorder implements HttpClientMetricsRecorder {
+
+        private volatile Sample sample = new Sample();
+
+        @Override
+        public void recordResolveAddressTime(SocketAddress address, Duration time, String status) {
+            sample.dns = time.toNanos() / 1000;
+        }
+
+        @Override
+        public void recordConnectTime(SocketAddress address, Duration time, String status) {
+            sample.connect = time.toNanos() / 1000;
+        }
+
+        @Override
+        public void recordTlsHandshakeTime(SocketAddress address, Duration time, String status) {
+            sample.tls = time.toNanos() / 1000;
+        }
+
+        @Override
+        public void recordResponseTime(SocketAddress address, String uri, String method, String status, Duration time) {
+            sample.response = time.toNanos() / 1000;
+        }
+
+        @Override
+        public void recordDataReceivedTime(SocketAddress address, String uri, String method, String status, Duration time) {
+            sample.transfer = time.toNanos() / 1000;
+        }
+
+        @Override
+        public void recordDataSentTime(SocketAddress address, String uri, String method, Duration time) {
+        }
+
+        @Override
+        public void recordDataReceived(SocketAddress address, String uri, long bytes) {
+        }
+
+        @Override
+        public void recordDataSent(SocketAddress address, String uri, long bytes) {
+        }
+
+        @Override
+        public void incrementErrorsCount(SocketAddress address, String uri) {
+        }
+
+        @Override
+        public void recordDataReceived(SocketAddress address, long bytes) {
+        }
+
+        @Override
+        public void recordDataSent(SocketAddress address, long bytes) {
+        }
+
+        @Override
+        public void incrementErrorsCount(SocketAddress address) {
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.mulesoft.meetups;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Latency breakdown of a series of requests to the endpoint under test, in microseconds.
+ *
+ * Cold requests each open a new connection (DNS lookup without cache, TCP connect, TLS handshake);
+ * warm requests reuse one kept-alive connection, so their setup phases stay empty. TTFB runs from
+ * the start of the request to the first response byte, transfer from there to the last byte.
+ */
+@Builder
+@Getter
+public class SmokeTestConnectionTiming {
+
+    public static final String COLD = "cold";
+    public static final String WARM = "warm";
+
+    private final String mode;
+    private final String protocol;
+    /**
+     * Protocol of the responses, HTTP/1.1 when the endpoint does not support the requested one.
+     */
+    private final String negotiatedProtocol;
+    private final int errors;
+    @Builder.Default
+    private final LatencyHistogram dns = new LatencyHistogram();
+    @Builder.Default
+    private final LatencyHistogram connect = new LatencyHistogram();
+    @Builder.Default
+    private final LatencyHistogram tls = new LatencyHistogram();
+    @Builder.Default
+    private final LatencyHistogram timeToFirstByte = new LatencyHistogram();
+    @Builder.Default
+    private final LatencyHistogram transfer = new LatencyHistogram();
+    @Builder.Default
+    private final LatencyHistogram total = new LatencyHistogram();
+
+    /**
+     * @return part of the median total spent setting up the connection
+     */
+    public double getSetupSharePercent() {
+        long median = total.percentile(50);
+        return median == 0 ? 0 : (dns.percentile(50) + connect.percentile(50) + tls.percentile(50)) * 100d / median;
+    }
+}
@@ -0,0 +1,20 @@
+package com.mulesoft.meetups;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Client application provisioned for the smoke test, with its contract to the API under test.
+ */
+@Builder
+@Getter
+@Setter
+public class SmokeTestConsumer {
+
+    private int index;
+    private String name;
+    private AnypointExchangeClientApplication clientApplication;
+    private Long contractId;
+    private SmokeTestReadinessResult readiness;
+}
@@ -0,0 +1,112 @@
+package com.mulesoft.meetups;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import lombok.Builder;
+import reactor.netty.http.Http11SslContextSpec;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import javax.net.ssl.SNIHostName;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Sends the smoke test request to one instance behind the endpoint host: the connection goes to a
+ * given resolved address, while SNI, certificate verification and the Host header use the host
+ * name, as they would through DNS.
+ */
+@Builder
+public class SmokeTestInstanceProbe {
+
+    private final String endpointUrl;
+    private final String clientId;
+    private final String clientSecret;
+    private final int samples;
+    private final long timeoutInMilliseconds;
+
+    /**
+     * @return every address the endpoint host resolves to
+     * @throws UnknownHostException
+     */
+    public List<InetAddress> resolve() throws UnknownHostException {
+        return Arrays.stream(InetAddress.getAllByName(URI.create(endpointUrl).getHost())).distinct().collect(Collectors.toList());
+    }
+
+    /**
+     * Sends the samples, one after the other, on a connection of its own to the instance.
+     * @param address resolved address of the instance
+     * @return latency and statuses of the instance
+     */
+    public SmokeTestInstanceResult probe(InetAddress address) throws UnknownHostException {
+        final URI uri = URI.create(endpointUrl);
+        final boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        final int port = uri.getPort() != -1 ? uri.getPort() : secure ? 443 : 80;
+        final String host = uri.getHost();
+        final String hostHeader = uri.getPort() != -1 ? String.format("%s:%s", host, uri.getPort()) : host;
+
+        //--- The address keeps the host name, so nothing resolves it again ---//
+        final InetSocketAddress remote = new InetSocketAddress(InetAddress.getByAddress(host, address.getAddress()), port);
+        final ConnectionProvider provider = ConnectionProvider.create("smoke-test-instance", 1);
+
+        HttpClient httpClient = HttpClient.create(provider)
+                .remoteAddress(() -> remote)
+                .headers(headers -> headers
+                        .set(HttpHeaderNames.HOST, hostHeader)
+                        .set("X-Client-ID", clientId)
+                        .set("X-Client-Secret", clientSecret));
+        if (secure) {
+            httpClient = httpClient.secure(spec -> spec.sslContext(Http11SslContextSpec.forClient()).serverNames(new SNIHostName(host)));
+        }
+
+        SmokeTestInstanceResult result = SmokeTestInstanceResult.builder().address(address.getHostAddress()).build();
+        try {
+            for (int index = 0; index < samples; index++) {
+                final long start = System.nanoTime();
+                try {
+                    Integer status = httpClient.request(HttpMethod.GET)
+                            .uri(uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery()))
+                            .responseSingle((response, body) -> body.asByteArray().defaultIfEmpty(new byte[0]).thenReturn(response.status().code()))
+                            .block(Duration.ofMillis(timeoutInMilliseconds));
+                    result.getStatuses().add(status);
+                    if (status == null || status >= 400) {
+                        result.setErrors(result.getErrors() + 1);
+                    }
+                } catch (Exception exception) {
+                    result.getStatuses().add(0);
+                    result.setErrors(result.getErrors() + 1);
+                }
+                result.getLatency().record((System.nanoTime() - start) / 1000);
+            }
+        } finally {
+            provider.disposeLater().block(Duration.ofMillis(timeoutInMilliseconds));
+        }
+        return result;
+    }
+
+    /**
+     * Flags instances with errors, and instances whose median latency exceeds the median of the
+     * instances without errors by more than the threshold.
+     * @param results results of every instance
+     * @param thresholdPercent allowed latency increase over the median of the instances
+     */
+    public static void flagOutliers(List<SmokeTestInstanceResult> results, int thresholdPercent) {
+        long[] medians = results.stream().filter(r -> r.getErrors() == 0).mapToLong(r -> r.getLatency().percentile(50)).sorted().toArray();
+        long median = medians.length == 0 ? 0 : medians[(medians.length - 1) / 2];
+
+        for (SmokeTestInstanceResult result : results) {
+            long p50 = result.getLatency().percentile(50);
+            if (result.getErrors() > 0) {
+                result.setOutlier(String.format("%s of %s requests failed", result.getErrors(), result.getStatuses().size()));
+            } else if (medians.length > 1 && p50 > median * (100 + thresholdPercent) / 100) {
+                result.setOutlier(String.format("p50 %.1f ms, instances median %.1f ms", p50 / 1000d, median / 1000d));
+            }
+        }
+    }
+}
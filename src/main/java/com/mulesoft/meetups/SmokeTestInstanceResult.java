@@ -0,0 +1,33 @@
+package com.mulesoft.meetups;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of the requests sent to one resolved address of the endpoint host. Latencies are in
+ * microseconds.
+ */
+@Builder
+@Getter
+@Setter
+public class SmokeTestInstanceResult {
+
+    private String address;
+    @Builder.Default
+    private LatencyHistogram latency = new LatencyHistogram();
+    @Builder.Default
+    private List<Integer> statuses = new ArrayList<>();
+    private int errors;
+    /**
+     * Why the instance stands out from the others, null when it does not.
+     */
+    private String outlier;
+
+    public boolean isOutlier() {
+        return outlier != null;
+    }
+}
@@ -0,0 +1,63 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.core.JsonPointer;
+
+/**
+ * Compiles the dot/bracket subset of JSONPath ($.a.b[0], $['a']) used by smoke test scenarios into
+ * a Jackson JsonPointer. Wildcards, filters and recursive descent are not supported.
+ */
+public final class SmokeTestJsonPath {
+
+    private SmokeTestJsonPath() {
+    }
+
+    /**
+     * @param path JSONPath expression starting with $
+     * @return equivalent JSON pointer
+     * @throws IllegalArgumentException if the expression is outside the supported subset
+     */
+    public static JsonPointer compile(String path) {
+        if (path == null || path.startsWith("$") == false) {
+            throw new IllegalArgumentException(String.format("JSONPath: %s must start with $", path));
+        }
+
+        StringBuilder pointer = new StringBuilder();
+        int index = 1;
+
+        while (index < path.length()) {
+            char c = path.charAt(index);
+
+            if (c == '.') {
+                int end = index + 1;
+                while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    end++;
+                }
+                appendSegment(pointer, path, path.substring(index + 1, end));
+                index = end;
+            } else if (c == '[') {
+                int end = path.indexOf(']', index);
+                if (end < 0) {
+                    throw new IllegalArgumentException(String.format("JSONPath: %s has an unclosed bracket", path));
+                }
+                String segment = path.substring(index + 1, end).trim();
+                if (segment.startsWith("'") && segment.endsWith("'") && segment.length() >= 2) {
+                    segment = segment.substring(1, segment.length() - 1);
+                } else if (segment.chars().allMatch(Character::isDigit) == false || segment.isEmpty()) {
+                    throw new IllegalArgumentException(String.format("JSONPath: %s uses unsupported selector [%s]", path, segment));
+                }
+                appendSegment(pointer, path, segment);
+                index = end + 1;
+            } else {
+                throw new IllegalArgumentException(String.format("JSONPath: %s has unexpected character '%s'", path, c));
+            }
+        }
+        return JsonPointer.compile(pointer.toString());
+    }
+
+    private static void appendSegment(StringBuilder pointer, String path, String segment) {
+        if (segment.isEmpty() || segment.equals("*") || segment.startsWith(".") || segment.startsWith("?")) {
+            throw new IllegalArgumentException(String.format("JSONPath: %s uses an unsupported selector", path));
+        }
+        pointer.append('/').append(segment.replace("~", "~0").replace("/", "~1"));
+    }
+}
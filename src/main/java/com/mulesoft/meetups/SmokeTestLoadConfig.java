@@ -0,0 +1,83 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Open-model load stage of the smoke test, configured through the load mojo parameter.
+ *
+ * Rates are in requests per second. Profiles: constant (rate), ramp (startRate to rate, linearly),
+ * step (startRate to rate in steps equal stages) and spike (rate, with spikeRate during the spike).
+ *
+ * The profile runs in the Maven JVM, or is split evenly across forked worker JVMs (workers) or
+ * running worker agents (agents, host:port as printed by SmokeTestLoadWorker listen).
+ */
+@Getter
+@Setter
+public class SmokeTestLoadConfig {
+
+    public static final String CONSTANT = "constant";
+    public static final String RAMP = "ramp";
+    public static final String STEP = "step";
+    public static final String SPIKE = "spike";
+
+    private boolean enabled = false;
+    private String profile = CONSTANT;
+    private double rate = 100;
+    private double startRate = 10;
+    private int steps = 5;
+    private double spikeRate = 1000;
+    private long spikeStartInSeconds = 10;
+    private long spikeDurationInSeconds = 5;
+    private long durationInSeconds = 30;
+    /**
+     * Path appended to the endpoint URL.
+     */
+    private String path = "";
+    private String method = "GET";
+    /**
+     * Requests in flight above which the schedule waits; waiting time is counted in the latencies.
+     */
+    private int maxInFlight = 1000;
+    private long timeoutInMilliseconds = 10000;
+    private double maxErrorRatePercent = 1;
+    /**
+     * Number of worker JVMs to fork, 0 to generate the load in the Maven JVM.
+     */
+    private int workers = 0;
+    /**
+     * Addresses of worker agents to use instead of forked workers.
+     */
+    private List<String> agents = new ArrayList<>();
+    /**
+     * Token the agents were started with (ANYPOINT_LOAD_AGENT_TOKEN), never sent within jobs.
+     */
+    @JsonIgnore
+    private String agentToken;
+    private long snapshotIntervalInMilliseconds = 1000;
+
+    /**
+     * @param elapsedSeconds time since the start of the load stage
+     * @return target arrival rate at that time
+     */
+    public double rateAt(double elapsedSeconds) {
+        switch (profile.toLowerCase()) {
+            case RAMP:
+                return startRate + (rate - startRate) * Math.min(1, elapsedSeconds / durationInSeconds);
+            case STEP:
+                int stage = (int) Math.min(steps - 1, Math.floor(elapsedSeconds * steps / durationInSeconds));
+                return steps == 1 ? rate : startRate + (rate - startRate) * stage / (steps - 1);
+            case SPIKE:
+                boolean spiking = elapsedSeconds >= spikeStartInSeconds && elapsedSeconds < spikeStartInSeconds + spikeDurationInSeconds;
+                return spiking ? spikeRate : rate;
+            case CONSTANT:
+                return rate;
+            default:
+                throw new IllegalArgumentException(String.format("Unknown load profile: %s (expected constant, ramp, step or spike)", profile));
+        }
+    }
+}
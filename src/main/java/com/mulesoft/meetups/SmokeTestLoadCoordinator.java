@@ -0,0 +1,206 @@
+package com.mulesoft.meetups;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Splits a load stage across worker JVMs, forked on the plugin class path or running as agents,
+ * and merges the histograms they stream back (see SmokeTestLoadWorker for the protocol).
+ */
+public class SmokeTestLoadCoordinator {
+
+    private static final int CONNECT_TIMEOUT = 30000;
+
+    private final SmokeTestLoadConfig config;
+    private final String javaExecutable;
+    private final Consumer<String> progress;
+
+    /**
+     * @param config load profile, with workers or agents set
+     * @param javaExecutable java command of forked workers
+     * @param progress receives a line of merged results every snapshot interval
+     */
+    public SmokeTestLoadCoordinator(SmokeTestLoadConfig config, String javaExecutable, Consumer<String> progress) {
+        this.config = config;
+        this.javaExecutable = javaExecutable;
+        this.progress = progress;
+    }
+
+    /**
+     * @return number of workers the profile is split across
+     */
+    public int getWorkers() {
+        return config.getAgents().isEmpty() ? config.getWorkers() : config.getAgents().size();
+    }
+
+    /**
+     * Runs the profile on all workers and waits for their final snapshots.
+     * @param endpointUrl endpoint under test
+     * @param credentials client ID and secret of each client application
+     * @param specification API specification responses are validated against, or null
+     * @param limit maximum duration of the profile
+     * @return merged results
+     * @throws Exception when a worker cannot be reached or fails
+     */
+    public SmokeTestLoadResult run(String endpointUrl, List<String[]> credentials, SmokeTestSpecification specification, Duration limit) throws Exception {
+        final int workers = this.getWorkers();
+        final List<Process> processes = new ArrayList<>();
+        final List<Socket> sockets = new ArrayList<>();
+        final ExecutorService executor = AnypointExecutors.newPlatformPool(workers, "load-coordinator");
+
+        try {
+            //--- Forks the workers, which connect back, or connects to the agents ---//
+            if (config.getAgents().isEmpty()) {
+                //--- Only the forked workers know the token: other local processes get no job ---//
+                final byte[] random = new byte[32];
+                new SecureRandom().nextBytes(random);
+                final String token = AnypointDigests.hex(random);
+                try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+                    server.setSoTimeout(CONNECT_TIMEOUT);
+                    for (int worker = 0; worker < workers; worker++) {
+                        ProcessBuilder fork = AnypointForkedJvm.java(javaExecutable, SmokeTestLoadWorker.class,
+                                "connect", server.getInetAddress().getHostAddress(), String.valueOf(server.getLocalPort()))
+                                .redirectOutput(ProcessBuilder.Redirect.INHERIT);
+                        fork.environment().put(SmokeTestLoadWorker.TOKEN_VARIABLE, token);
+                        processes.add(fork.start());
+                    }
+                    while (sockets.size() < workers) {
+                        Socket socket = server.accept();
+                        socket.setSoTimeout(CONNECT_TIMEOUT);
+                        if (SmokeTestLoadWorker.isToken(SmokeTestLoadWorker.readToken(socket), token)) {
+                            socket.setSoTimeout(0);
+                            sockets.add(socket);
+                        } else {
+                            socket.close();
+                        }
+                    }
+                }
+            } else {
+                if (config.getAgentToken() == null || config.getAgentToken().trim().isEmpty()) {
+                    throw new Exception("Load agents require the agentToken they were started with");
+                }
+                for (String agent : config.getAgents()) {
+                    int separator = agent.lastIndexOf(':');
+                    if (separator < 0) {
+                        throw new Exception(String.format("Invalid load agent address: %s (expected host:port)", agent));
+                    }
+                    Socket socket = new Socket();
+                    socket.connect(new InetSocketAddress(agent.substring(0, separator), Integer.parseInt(agent.substring(separator + 1))), CONNECT_TIMEOUT);
+                    sockets.add(socket);
+                    SmokeTestLoadWorker.sendToken(socket, config.getAgentToken().trim());
+                }
+            }
+
+            //--- Every worker gets all credentials and an even share of the rate ---//
+            final AtomicReferenceArray<SmokeTestLoadSnapshot> snapshots = new AtomicReferenceArray<>(workers);
+            final List<List<String>> shared = credentials.stream().map(Arrays::asList).collect(Collectors.toList());
+            final List<Future<?>> sessions = new ArrayList<>();
+            for (int worker = 0; worker < workers; worker++) {
+                final int index = worker;
+                final Socket socket = sockets.get(worker);
+                final SmokeTestLoadJob job = SmokeTestLoadJob.builder()
+                        .worker(index)
+                        .config(config)
+                        .endpointUrl(endpointUrl)
+                        .credentials(shared)
+                        .share(1d / workers)
+                        .limitInMilliseconds(limit.toMillis())
+                        .specification(specification)
+                        .build();
+                sessions.add(executor.submit(() -> {
+                    this.session(socket, job, snapshots);
+                    return null;
+                }));
+            }
+
+            //--- Reports merged progress until every worker sent its final snapshot ---//
+            final long end = System.nanoTime() + limit.toNanos() + TimeUnit.MILLISECONDS.toNanos(config.getTimeoutInMilliseconds() + CONNECT_TIMEOUT);
+            for (Future<?> session : sessions) {
+                while (true) {
+                    long remaining = end - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new AnypointTimeoutException("Load workers did not complete after the load stage");
+                    }
+                    try {
+                        session.get(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(config.getSnapshotIntervalInMilliseconds())), TimeUnit.NANOSECONDS);
+                        break;
+                    } catch (TimeoutException exception) {
+                        SmokeTestLoadResult merged = merge(snapshots);
+                        if (merged.getScheduled() == 0) {
+                            continue;
+                        }
+                        progress.accept(String.format("%s requests completed, %.1f requests/s, p99 %.1f ms, %s errors",
+                                merged.getCompleted(), merged.getThroughput(), merged.getResponseTime().percentile(99) / 1000d, merged.getErrors()));
+                    } catch (ExecutionException exception) {
+                        throw exception.getCause() instanceof Exception ? (Exception) exception.getCause() : exception;
+                    }
+                }
+            }
+            return merge(snapshots);
+        } finally {
+            for (Socket socket : sockets) {
+                try {
+                    socket.close();
+                } catch (IOException exception) {
+                    //--- Nothing to do ---//
+                }
+            }
+            executor.shutdownNow();
+            processes.forEach(Process::destroy);
+        }
+    }
+
+    /**
+     * Sends the job and reads snapshots until the final one.
+     */
+    private void session(Socket socket, SmokeTestLoadJob job, AtomicReferenceArray<SmokeTestLoadSnapshot> snapshots) throws Exception {
+        OutputStream output = socket.getOutputStream();
+        output.write(SmokeTestLoadWorker.MAPPER.writeValueAsBytes(job));
+        output.write('\n');
+        output.flush();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            SmokeTestLoadSnapshot snapshot = SmokeTestLoadWorker.MAPPER.readValue(line, SmokeTestLoadSnapshot.class);
+            snapshots.set(job.getWorker(), snapshot);
+            if (snapshot.isLast()) {
+                if (snapshot.getError() != null) {
+                    throw new Exception(String.format("Load worker %s failed: %s", job.getWorker(), snapshot.getError()));
+                }
+                return;
+            }
+        }
+        throw new Exception(String.format("Load worker %s disconnected before the end of the load stage", job.getWorker()));
+    }
+
+    private static SmokeTestLoadResult merge(AtomicReferenceArray<SmokeTestLoadSnapshot> snapshots) {
+        SmokeTestLoadResult merged = new SmokeTestLoadResult();
+        for (int worker = 0; worker < snapshots.length(); worker++) {
+            SmokeTestLoadSnapshot snapshot = snapshots.get(worker);
+            if (snapshot != null) {
+                merged.merge(SmokeTestLoadResult.fromSnapshot(snapshot));
+            }
+        }
+        return merged;
+    }
+}
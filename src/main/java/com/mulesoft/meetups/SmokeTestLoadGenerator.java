@@ -0,0 +1,156 @@
+package com.mulesoft.meetups;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests start on a fixed timeline derived from the load profile,
+ * whether or not earlier requests have completed.
+ *
+ * When the generator falls behind (in-flight limit reached, scheduler descheduled), requests are
+ * sent late but their latency is still measured from their scheduled time, so stalls of the
+ * service are not hidden by the generator waiting for it (coordinated omission). Requests are
+ * prebuilt once per client application and reused, and results go to primitive histograms.
+ * Response bodies are discarded, unless they are validated against the API specification, which
+ * happens chunk by chunk as they arrive.
+ */
+public class SmokeTestLoadGenerator {
+
+    private static final long IDLE_TICK = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final SmokeTestLoadConfig config;
+    private final HttpClient httpClient;
+    private final HttpRequest[] requests;
+    private final double share;
+    private final HttpResponse.BodyHandler<?> bodyHandler;
+
+    /**
+     * @param config load profile
+     * @param requests request templates, used round-robin
+     * @param share fraction of the profile rate this generator produces (1 when it runs alone)
+     * @param specification API specification responses are validated against, or null
+     */
+    public SmokeTestLoadGenerator(SmokeTestLoadConfig config, List<HttpRequest> requests, double share, SmokeTestSpecification specification) {
+        this.config = config;
+        this.requests = requests.toArray(new HttpRequest[0]);
+        this.share = share;
+        this.bodyHandler = specification == null ? HttpResponse.BodyHandlers.discarding() : validating(config, specification);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(config.getTimeoutInMilliseconds()))
+                .build();
+    }
+
+    /**
+     * Builds one request template per client application.
+     * @param config load profile
+     * @param endpointUrl endpoint under test
+     * @param credentials client ID and secret of each client application
+     * @return request templates
+     */
+    public static List<HttpRequest> templates(SmokeTestLoadConfig config, String endpointUrl, List<String[]> credentials) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(endpointUrl + config.getPath()))
+                .method(config.getMethod().toUpperCase(), HttpRequest.BodyPublishers.noBody())
+                .timeout(Duration.ofMillis(config.getTimeoutInMilliseconds()));
+
+        List<HttpRequest> templates = new ArrayList<>();
+        for (String[] credential : credentials) {
+            templates.add(builder.copy()
+                    .header("X-Client-ID", credential[0])
+                    .header("X-Client-Secret", credential[1])
+                    .build());
+        }
+        return templates;
+    }
+
+    /**
+     * @return body handler validating each response, the body being true when it matches the specification
+     */
+    private static HttpResponse.BodyHandler<Boolean> validating(SmokeTestLoadConfig config, SmokeTestSpecification specification) {
+        final String method = config.getMethod().toUpperCase();
+        final String raw = URI.create(config.getPath()).getRawPath();
+        final String path = raw == null || raw.startsWith("/") == false ? "/" + (raw == null ? "" : raw) : raw;
+
+        return info -> {
+            SmokeTestResponseValidator validator = new SmokeTestResponseValidator(specification, method, path, info.statusCode(),
+                    info.headers().firstValue("Content-Type").orElse(null));
+            return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArrayConsumer(chunk -> {
+                if (chunk.isPresent()) {
+                    validator.feed(chunk.get(), 0, chunk.get().length);
+                } else {
+                    validator.complete();
+                }
+            }), ignored -> validator.isValid());
+        };
+    }
+
+    /**
+     * Runs the profile and waits for the last requests to complete.
+     * @param limit maximum duration, shorter than the profile when the execution deadline is near
+     * @return results
+     * @throws InterruptedException
+     */
+    public SmokeTestLoadResult run(Duration limit) throws InterruptedException {
+        return this.run(new SmokeTestLoadResult(), limit);
+    }
+
+    /**
+     * Runs the profile, recording into a result that may be read while the load is running.
+     * @param result results, updated as requests complete
+     * @param limit maximum duration, shorter than the profile when the execution deadline is near
+     * @return results
+     * @throws InterruptedException
+     */
+    public SmokeTestLoadResult run(SmokeTestLoadResult result, Duration limit) throws InterruptedException {
+        final Semaphore inFlight = new Semaphore(config.getMaxInFlight());
+        final long start = System.nanoTime();
+        final long end = start + Math.min(TimeUnit.SECONDS.toNanos(config.getDurationInSeconds()), limit.toNanos());
+
+        long intended = start;
+        long index = 0;
+        while (intended < end) {
+            double rate = config.rateAt((intended - start) / 1e9) * share;
+            if (rate <= 0) {
+                intended += IDLE_TICK;
+                continue;
+            }
+
+            for (long now = System.nanoTime(); now < intended; now = System.nanoTime()) {
+                LockSupport.parkNanos(intended - now);
+            }
+            inFlight.acquire();
+
+            final long scheduledAt = intended;
+            final long sentAt = System.nanoTime();
+            result.scheduled();
+            httpClient.sendAsync(requests[(int) (index++ % requests.length)], bodyHandler)
+                    .whenComplete((response, error) -> {
+                        if (response != null && Boolean.FALSE.equals(response.body())) {
+                            result.contractViolation();
+                        }
+                        result.record(scheduledAt, sentAt, System.nanoTime(),
+                                response == null ? 0 : response.statusCode(),
+                                error != null && (error instanceof HttpTimeoutException || error.getCause() instanceof HttpTimeoutException));
+                        inFlight.release();
+                    });
+
+            intended += (long) (1e9 / rate);
+        }
+
+        //--- Waits for in-flight requests, at most one request timeout ---//
+        if (inFlight.tryAcquire(config.getMaxInFlight(), config.getTimeoutInMilliseconds() + 1000, TimeUnit.MILLISECONDS) == false) {
+            throw new AnypointTimeoutException("In-flight requests did not complete after the load stage");
+        }
+        result.setDurationInNanoseconds(System.nanoTime() - start);
+        return result;
+    }
+}
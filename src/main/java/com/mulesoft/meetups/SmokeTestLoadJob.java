@@ -0,0 +1,39 @@
+package com.mulesoft.meetups;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Part of a load stage assigned to one worker, sent by the coordinator as one JSON line.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SmokeTestLoadJob {
+
+    private int worker;
+    private SmokeTestLoadConfig config;
+    private String endpointUrl;
+    /**
+     * Client ID and secret of each provisioned client application, shared by all workers.
+     */
+    @Builder.Default
+    private List<List<String>> credentials = new ArrayList<>();
+    /**
+     * Fraction of the profile rate the worker produces.
+     */
+    private double share;
+    private long limitInMilliseconds;
+    /**
+     * API specification responses are validated against, null when not validated.
+     */
+    private SmokeTestSpecification specification;
+}
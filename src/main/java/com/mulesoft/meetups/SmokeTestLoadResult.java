@@ -0,0 +1,175 @@
+package com.mulesoft.meetups;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome of a load stage. Latencies are in microseconds: response time is measured from the
+ * scheduled start of each request (corrected for coordinated omission), service time from the
+ * moment it was actually sent.
+ */
+public class SmokeTestLoadResult {
+
+    private static final int STATUSES = 600;
+
+    private final LatencyHistogram responseTime = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+    private final AtomicLongArray statuses = new AtomicLongArray(STATUSES);
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder contractViolations = new LongAdder();
+    private volatile long durationInNanoseconds;
+
+    /**
+     * Records a completed request, without allocating.
+     * @param scheduledAt time the request was due, by the schedule
+     * @param sentAt time the request was sent
+     * @param completedAt time the response (or error) was received
+     * @param status HTTP status, 0 when no response was received
+     * @param timeout true when the request timed out
+     */
+    public void record(long scheduledAt, long sentAt, long completedAt, int status, boolean timeout) {
+        responseTime.record((completedAt - scheduledAt) / 1000);
+        serviceTime.record((completedAt - sentAt) / 1000);
+        statuses.incrementAndGet(status >= 0 && status < STATUSES ? status : 0);
+        if (status == 0 || status >= 400) {
+            errors.increment();
+        }
+        if (timeout) {
+            timeouts.increment();
+        }
+    }
+
+    public void scheduled() {
+        scheduled.increment();
+    }
+
+    /**
+     * Records a response that does not match the API specification.
+     */
+    public void contractViolation() {
+        contractViolations.increment();
+    }
+
+    /**
+     * Adds the results of another load stage, run in parallel with this one.
+     * @param other results to merge
+     */
+    public void merge(SmokeTestLoadResult other) {
+        responseTime.merge(other.responseTime);
+        serviceTime.merge(other.serviceTime);
+        for (int status = 0; status < STATUSES; status++) {
+            statuses.addAndGet(status, other.statuses.get(status));
+        }
+        scheduled.add(other.scheduled.sum());
+        errors.add(other.errors.sum());
+        timeouts.add(other.timeouts.sum());
+        contractViolations.add(other.contractViolations.sum());
+        durationInNanoseconds = Math.max(durationInNanoseconds, other.durationInNanoseconds);
+    }
+
+    /**
+     * @param worker index of the worker producing the snapshot
+     * @return compact copy of the results recorded so far
+     */
+    public SmokeTestLoadSnapshot toSnapshot(int worker) {
+        Map<Integer, Long> counts = new TreeMap<>();
+        for (int status = 0; status < STATUSES; status++) {
+            if (statuses.get(status) != 0) {
+                counts.put(status, statuses.get(status));
+            }
+        }
+        return SmokeTestLoadSnapshot.builder()
+                .worker(worker)
+                .scheduled(scheduled.sum())
+                .errors(errors.sum())
+                .timeouts(timeouts.sum())
+                .contractViolations(contractViolations.sum())
+                .durationInNanoseconds(durationInNanoseconds)
+                .statuses(counts)
+                .responseTime(SmokeTestLoadSnapshot.Histogram.of(responseTime))
+                .serviceTime(SmokeTestLoadSnapshot.Histogram.of(serviceTime))
+                .build();
+    }
+
+    /**
+     * @param snapshot results of a worker
+     * @return results, to merge with those of the other workers
+     */
+    public static SmokeTestLoadResult fromSnapshot(SmokeTestLoadSnapshot snapshot) {
+        SmokeTestLoadResult result = new SmokeTestLoadResult();
+        result.responseTime.merge(snapshot.getResponseTime().toHistogram());
+        result.serviceTime.merge(snapshot.getServiceTime().toHistogram());
+        snapshot.getStatuses().forEach((status, count) -> result.statuses.addAndGet(status, count));
+        result.scheduled.add(snapshot.getScheduled());
+        result.errors.add(snapshot.getErrors());
+        result.timeouts.add(snapshot.getTimeouts());
+        result.contractViolations.add(snapshot.getContractViolations());
+        result.durationInNanoseconds = snapshot.getDurationInNanoseconds();
+        return result;
+    }
+
+    public LatencyHistogram getResponseTime() {
+        return responseTime;
+    }
+
+    public LatencyHistogram getServiceTime() {
+        return serviceTime;
+    }
+
+    public long getScheduled() {
+        return scheduled.sum();
+    }
+
+    public long getCompleted() {
+        return responseTime.getCount();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * @return responses that do not match the API specification, 0 when not validated
+     */
+    public long getContractViolations() {
+        return contractViolations.sum();
+    }
+
+    /**
+     * @param status HTTP status, 0 for requests without response
+     * @return number of responses with that status
+     */
+    public long getStatusCount(int status) {
+        return statuses.get(status);
+    }
+
+    public long getDurationInNanoseconds() {
+        return durationInNanoseconds;
+    }
+
+    public void setDurationInNanoseconds(long durationInNanoseconds) {
+        this.durationInNanoseconds = durationInNanoseconds;
+    }
+
+    /**
+     * @return completed requests per second
+     */
+    public double getThroughput() {
+        return durationInNanoseconds == 0 ? 0 : getCompleted() * 1e9 / durationInNanoseconds;
+    }
+
+    /**
+     * @return percentage of completed requests that failed
+     */
+    public double getErrorRatePercent() {
+        return getCompleted() == 0 ? 0 : getErrors() * 100d / getCompleted();
+    }
+}
@@ -0,0 +1,65 @@
+package com.mulesoft.meetups;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Cumulative results of a load worker, streamed to the coordinator as one JSON line.
+ * Histograms are sent as sparse buckets, so a snapshot stays a few kilobytes whatever the request count.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SmokeTestLoadSnapshot {
+
+    private int worker;
+    /**
+     * True for the final snapshot of the worker.
+     */
+    private boolean last;
+    /**
+     * Failure of the worker, set on the final snapshot only.
+     */
+    private String error;
+    private long scheduled;
+    private long errors;
+    private long timeouts;
+    private long contractViolations;
+    private long durationInNanoseconds;
+    @Builder.Default
+    private Map<Integer, Long> statuses = new TreeMap<>();
+    private Histogram responseTime;
+    private Histogram serviceTime;
+
+    @Builder
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Histogram {
+
+        @Builder.Default
+        private Map<Integer, Long> buckets = new TreeMap<>();
+        private long min;
+        private long max;
+        private long sum;
+
+        public static Histogram of(LatencyHistogram histogram) {
+            synchronized (histogram) {
+                return new Histogram(histogram.toBuckets(), histogram.getMin(), histogram.getMax(), histogram.getSum());
+            }
+        }
+
+        public LatencyHistogram toHistogram() {
+            return LatencyHistogram.fromBuckets(buckets, min, max, sum);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Load worker, runs its share of a load stage for a coordinator (MuleSoftSmokeTestMojo).
+ *
+ * Protocol, one line per message over a TCP connection: the connecting side first sends the
+ * shared token, which the accepting side checks before anything else; the coordinator then sends a
+ * SmokeTestLoadJob, the worker answers with cumulative SmokeTestLoadSnapshot lines, every
+ * snapshot interval and once more at the end (last set), then closes the connection.
+ *
+ * The token is read from the ANYPOINT_LOAD_AGENT_TOKEN environment variable: agents refuse to
+ * start without it, and coordinators give forked workers a random one. Jobs carry client secrets
+ * in clear text: reach agents on other hosts through a private network or an SSH tunnel.
+ *
+ * Usage:
+ *   SmokeTestLoadWorker connect host port   (forked worker, connects back to its coordinator)
+ *   SmokeTestLoadWorker listen port [host]  (agent, serves jobs until stopped, loopback by default)
+ */
+public final class SmokeTestLoadWorker {
+
+    static final ObjectMapper MAPPER = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    static final String TOKEN_VARIABLE = "ANYPOINT_LOAD_AGENT_TOKEN";
+    private static final int MAX_TOKEN_LENGTH = 256;
+
+    private SmokeTestLoadWorker() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final String token = System.getenv(TOKEN_VARIABLE);
+        if (args.length >= 3 && "connect".equals(args[0])) {
+            try (Socket socket = new Socket(args[1], Integer.parseInt(args[2]))) {
+                sendToken(socket, token);
+                serve(socket, null);
+            }
+        } else if (args.length >= 2 && "listen".equals(args[0])) {
+            if (token == null || token.trim().isEmpty()) {
+                System.err.println(String.format("Set %s to the agentToken of the load configuration", TOKEN_VARIABLE));
+                System.exit(2);
+            }
+            InetAddress address = args.length > 2 ? InetAddress.getByName(args[2]) : InetAddress.getLoopbackAddress();
+            try (ServerSocket server = new ServerSocket()) {
+                server.bind(new InetSocketAddress(address, Integer.parseInt(args[1])));
+                System.out.println(String.format("Load worker listening on %s:%s", address.getHostAddress(), server.getLocalPort()));
+                while (true) {
+                    Socket socket = server.accept();
+                    Thread thread = new Thread(() -> {
+                        try (Socket s = socket) {
+                            serve(s, token);
+                        } catch (Exception exception) {
+                            System.err.println(String.format("Load job failed: %s", exception));
+                        }
+                    }, "load-worker");
+                    thread.setDaemon(true);
+                    thread.start();
+                }
+            }
+        } else {
+            System.err.println("Usage: SmokeTestLoadWorker connect <host> <port> | listen <port> [host]");
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Runs one job received on the connection and streams its snapshots back.
+     * @param socket connection to the coordinator
+     * @param token token the coordinator must send first, null when the worker connected itself
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    static void serve(Socket socket, String token) throws IOException, InterruptedException {
+        OutputStream output = socket.getOutputStream();
+        if (token != null && isToken(readToken(socket), token) == false) {
+            send(output, SmokeTestLoadSnapshot.builder().last(true).error("Unauthorized: invalid load agent token").build());
+            return;
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+        String line = reader.readLine();
+        if (line == null) {
+            return;
+        }
+        SmokeTestLoadJob job = MAPPER.readValue(line, SmokeTestLoadJob.class);
+        List<String[]> credentials = job.getCredentials().stream().map(c -> c.toArray(new String[0])).collect(Collectors.toList());
+
+        final SmokeTestLoadResult result = new SmokeTestLoadResult();
+        final SmokeTestLoadGenerator generator = new SmokeTestLoadGenerator(job.getConfig(),
+                SmokeTestLoadGenerator.templates(job.getConfig(), job.getEndpointUrl(), credentials), job.getShare(), job.getSpecification());
+        final long start = System.nanoTime();
+
+        CompletableFuture<SmokeTestLoadResult> run = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                run.complete(generator.run(result, Duration.ofMillis(job.getLimitInMilliseconds())));
+            } catch (Throwable throwable) {
+                run.completeExceptionally(throwable);
+            }
+        }, "load-generator");
+        thread.setDaemon(true);
+        thread.start();
+
+        //--- Streams cumulative snapshots while the generator runs ---//
+        long interval = Math.max(100, job.getConfig().getSnapshotIntervalInMilliseconds());
+        SmokeTestLoadSnapshot last;
+        while (true) {
+            try {
+                last = run.get(interval, TimeUnit.MILLISECONDS).toSnapshot(job.getWorker());
+                break;
+            } catch (TimeoutException exception) {
+                SmokeTestLoadSnapshot snapshot = result.toSnapshot(job.getWorker());
+                snapshot.setDurationInNanoseconds(System.nanoTime() - start);
+                send(output, snapshot);
+            } catch (ExecutionException exception) {
+                last = result.toSnapshot(job.getWorker());
+                last.setDurationInNanoseconds(System.nanoTime() - start);
+                last.setError(String.valueOf(exception.getCause().getMessage()));
+                break;
+            }
+        }
+        last.setLast(true);
+        send(output, last);
+    }
+
+    /**
+     * Sends the token, first line of a connection.
+     * @param socket connection
+     * @param token shared token
+     * @throws IOException
+     */
+    static void sendToken(Socket socket, String token) throws IOException {
+        OutputStream output = socket.getOutputStream();
+        output.write(String.valueOf(token).getBytes(StandardCharsets.UTF_8));
+        output.write('\n');
+        output.flush();
+    }
+
+    /**
+     * Reads the first line of a connection, byte by byte so nothing after it is consumed.
+     * @param socket connection
+     * @return token sent, null when the line is missing or too long
+     * @throws IOException
+     */
+    static String readToken(Socket socket) throws IOException {
+        InputStream input = socket.getInputStream();
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        for (int b = input.read(); b != '\n'; b = input.read()) {
+            if (b < 0 || line.size() >= MAX_TOKEN_LENGTH) {
+                return null;
+            }
+            line.write(b);
+        }
+        return new String(line.toByteArray(), StandardCharsets.UTF_8).trim();
+    }
+
+    /**
+     * @return true when the token sent matches, compared in constant time
+     */
+    static boolean isToken(String sent, String token) {
+        return sent != null && MessageDigest.isEqual(sent.getBytes(StandardCharsets.UTF_8), token.trim().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(OutputStream output, SmokeTestLoadSnapshot snapshot) throws IOException {
+        output.write(MAPPER.writeValueAsBytes(snapshot));
+        output.write('\n');
+        output.flush();
+    }
+}
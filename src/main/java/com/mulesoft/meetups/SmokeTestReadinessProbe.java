@@ -0,0 +1,104 @@
+package com.mulesoft.meetups;
+
+import lombok.Builder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Polls the endpoint under test with freshly provisioned client credentials until the client ID
+ * enforcement policy accepts them (no more 401/403) or the timeout elapses. A throttled or unavailable
+ * endpoint (429/503) is not ready yet either.
+ *
+ * Delays grow with decorrelated jitter between the initial and maximum delay; a Retry-After header
+ * returned with a 429/503 takes precedence over the computed delay.
+ */
+@Builder
+public class SmokeTestReadinessProbe {
+
+    private final WebClient webClient;
+    private final String endpointUrl;
+    private final String clientId;
+    private final String clientSecret;
+    private final long timeoutInMilliseconds;
+    private final long initialDelayInMilliseconds;
+    private final long maxDelayInMilliseconds;
+
+    /**
+     * Blocks until the credentials are accepted or the timeout elapses.
+     * @return readiness outcome, including the observed propagation latency
+     */
+    public SmokeTestReadinessResult await() throws InterruptedException {
+        final long start = System.nanoTime();
+        final long deadline = start + Duration.ofMillis(timeoutInMilliseconds).toNanos();
+
+        long delay = initialDelayInMilliseconds;
+        int attempts = 0;
+        Integer lastStatus = null;
+
+        while (true) {
+            attempts++;
+            long remaining = Duration.ofNanos(deadline - System.nanoTime()).toMillis();
+            Long retryAfter = null;
+
+            try {
+                Tuple2<Integer, String> response = probe(Math.max(remaining, 1));
+                lastStatus = response.getT1();
+
+                if (lastStatus == 429 || lastStatus == 503) {
+                    //--- Throttled or not up yet: wait as long as the gateway asks ---//
+                    retryAfter = parseRetryAfter(response.getT2());
+                } else if (lastStatus != 401 && lastStatus != 403) {
+                    //--- Anything other than an authorization failure means the policy accepted the client ---//
+                    return result(true, attempts, lastStatus, start);
+                }
+            } catch (Exception exception) {
+                //--- Connection errors are treated as "not ready yet" ---//
+                lastStatus = null;
+            }
+
+            remaining = Duration.ofNanos(deadline - System.nanoTime()).toMillis();
+            if (remaining <= 0) {
+                return result(false, attempts, lastStatus, start);
+            }
+
+            //--- Decorrelated jitter: next delay is random between initial and 3x the previous one ---//
+            delay = Math.min(maxDelayInMilliseconds,
+                    ThreadLocalRandom.current().nextLong(initialDelayInMilliseconds, Math.max(initialDelayInMilliseconds, delay * 3) + 1));
+            long sleep = retryAfter != null ? retryAfter : delay;
+            Thread.sleep(Math.min(sleep, remaining));
+        }
+    }
+
+    private Tuple2<Integer, String> probe(long timeoutInMilliseconds) {
+        return webClient.get()
+                .uri(endpointUrl)
+                .header("X-Client-ID", clientId)
+                .header("X-Client-Secret", clientSecret)
+                .exchangeToMono(response -> response.releaseBody().thenReturn(Tuples.of(
+                        response.rawStatusCode(),
+                        response.headers().header("Retry-After").stream().findFirst().orElse(""))))
+                .timeout(Duration.ofMillis(timeoutInMilliseconds))
+                .block();
+    }
+
+    private Long parseRetryAfter(String retryAfter) {
+        try {
+            return retryAfter.isEmpty() ? null : Math.min(Long.parseLong(retryAfter.trim()) * 1000, maxDelayInMilliseconds);
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    private SmokeTestReadinessResult result(boolean ready, int attempts, Integer lastStatus, long start) {
+        return SmokeTestReadinessResult.builder()
+                .ready(ready)
+                .attempts(attempts)
+                .lastStatus(lastStatus)
+                .propagationLatencyInMilliseconds(Duration.ofNanos(System.nanoTime() - start).toMillis())
+                .build();
+    }
+}
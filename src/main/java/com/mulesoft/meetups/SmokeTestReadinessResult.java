@@ -0,0 +1,16 @@
+package com.mulesoft.meetups;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Builder
+@Getter
+@Setter
+public class SmokeTestReadinessResult {
+
+    private boolean ready;
+    private int attempts;
+    private Integer lastStatus;
+    private long propagationLatencyInMilliseconds;
+}
@@ -0,0 +1,56 @@
+package com.mulesoft.meetups;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Compares a run against a rolling baseline: the median, over the last runs, of the gated
+ * percentile. The median keeps one slow outlier run from moving the baseline.
+ */
+@Builder
+@Getter
+public class SmokeTestRegressionGate {
+
+    private final double percentile;
+    private final int thresholdPercent;
+    private final int minimumRuns;
+
+    /**
+     * @param current current run
+     * @param baseline previous runs
+     * @return verdict, without regression when the baseline has fewer than minimumRuns runs
+     */
+    public Verdict evaluate(SmokeTestResultRecord current, List<SmokeTestResultRecord> baseline) {
+        long value = current.percentile(percentile);
+        if (baseline.size() < minimumRuns) {
+            return new Verdict(false, value, -1, baseline.size());
+        }
+
+        List<Long> values = baseline.stream().map(r -> r.percentile(percentile)).sorted().collect(Collectors.toList());
+        long median = values.get(values.size() / 2);
+        boolean regressed = value > median + Math.max(1, median * thresholdPercent / 100);
+        return new Verdict(regressed, value, median, baseline.size());
+    }
+
+    @Getter
+    public static class Verdict {
+
+        private final boolean regressed;
+        private final long value;
+        /**
+         * Baseline value, -1 when there are not enough runs.
+         */
+        private final long baseline;
+        private final int baselineRuns;
+
+        private Verdict(boolean regressed, long value, long baseline, int baselineRuns) {
+            this.regressed = regressed;
+            this.value = value;
+            this.baseline = baseline;
+            this.baselineRuns = baselineRuns;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import lombok.Getter;
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Consumes a response body chunk by chunk without buffering it.
+ *
+ * Keeps a capped preview, computes length and SHA-256 on the fly, optionally spills the full body to
+ * a file, and feeds a non-blocking JSON parser that only materializes the values located at the
+ * requested JSON pointers. The body may also be validated against the API specification on the way.
+ */
+public class SmokeTestResponseBody {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final int previewBytes;
+    private final Set<String> pointers;
+    private final ObjectMapper mapper;
+    private final SmokeTestResponseValidator validator;
+    private final ByteArrayOutputStream preview = new ByteArrayOutputStream();
+    private final MessageDigest digest;
+    private final long start;
+    private final List<Capture> captures = new ArrayList<>();
+    private final Map<String, JsonNode> values = new HashMap<>();
+    private OutputStream spill;
+    private JsonParser parser;
+    private byte[] chunk = new byte[8192];
+
+    @Getter
+    private long contentLength;
+    @Getter
+    private long timeToFirstByteInMilliseconds = -1;
+    @Getter
+    private long timeToLastByteInMilliseconds = -1;
+    @Getter
+    private String jsonError;
+
+    /**
+     * @param start System.nanoTime() when the request was sent
+     * @param previewBytes maximum number of bytes kept for display
+     * @param spillFile file receiving the full body, or null
+     * @param pointers JSON pointers whose values must be captured, parsing is skipped when empty
+     * @param mapper mapper used to build captured values
+     * @param validator validator of the response against the API specification, or null
+     * @throws IOException
+     */
+    public SmokeTestResponseBody(long start, int previewBytes, Path spillFile, Set<String> pointers, ObjectMapper mapper, SmokeTestResponseValidator validator) throws IOException {
+        this.start = start;
+        this.previewBytes = previewBytes;
+        this.pointers = pointers;
+        this.mapper = mapper;
+        this.validator = validator;
+
+        this.digest = AnypointDigests.newSha256();
+
+        if (spillFile != null) {
+            Files.createDirectories(spillFile.getParent());
+            this.spill = Files.newOutputStream(spillFile);
+        }
+        if (pointers.isEmpty() == false) {
+            this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+        }
+    }
+
+    /**
+     * Consumes one chunk. The buffer is not released.
+     * @param buffer chunk
+     * @throws IOException
+     */
+    public void accept(DataBuffer buffer) throws IOException {
+        final int length = buffer.readableByteCount();
+        if (timeToFirstByteInMilliseconds < 0) {
+            timeToFirstByteInMilliseconds = elapsed();
+        }
+        if (chunk.length < length) {
+            chunk = new byte[length];
+        }
+        buffer.read(chunk, 0, length);
+
+        contentLength += length;
+        digest.update(chunk, 0, length);
+
+        if (preview.size() < previewBytes) {
+            preview.write(chunk, 0, Math.min(length, previewBytes - preview.size()));
+        }
+        if (spill != null) {
+            spill.write(chunk, 0, length);
+        }
+        if (validator != null) {
+            validator.feed(chunk, 0, length);
+        }
+        if (parser != null) {
+            ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(chunk, 0, length);
+            drain();
+        }
+    }
+
+    /**
+     * Signals the end of the body.
+     * @throws IOException
+     */
+    public void complete() throws IOException {
+        timeToLastByteInMilliseconds = elapsed();
+        if (timeToFirstByteInMilliseconds < 0) {
+            timeToFirstByteInMilliseconds = timeToLastByteInMilliseconds;
+        }
+        if (validator != null) {
+            validator.complete();
+        }
+        if (parser != null) {
+            ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).endOfInput();
+            drain();
+            if (jsonError == null && contentLength == 0) {
+                jsonError = "empty body";
+            }
+        }
+        close();
+    }
+
+    /**
+     * Releases resources when the body could not be read completely.
+     */
+    public void close() {
+        try {
+            if (spill != null) {
+                spill.close();
+            }
+            if (parser != null) {
+                parser.close();
+            }
+        } catch (IOException exception) {
+            //--- Nothing left to do with a broken stream ---//
+        }
+    }
+
+    /**
+     * @param pointer one of the pointers passed at construction time
+     * @return captured value, or null when the pointer was not present in the document
+     */
+    public JsonNode value(JsonPointer pointer) {
+        return values.get(pointer.toString());
+    }
+
+    /**
+     * @return differences between the response and the API specification, empty when not validated
+     */
+    public List<String> getContractViolations() {
+        return validator == null ? new ArrayList<>() : validator.getViolations();
+    }
+
+    /**
+     * @return preview of the body, decoded as UTF-8
+     */
+    public String getPreview() {
+        return new String(preview.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    public boolean isTruncated() {
+        return contentLength > preview.size();
+    }
+
+    /**
+     * @return hex SHA-256 of the full body
+     */
+    public String getSha256() {
+        return AnypointDigests.hex(digest.digest());
+    }
+
+    private void drain() {
+        if (jsonError != null) {
+            return;
+        }
+        try {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                //--- Extends the values being captured ---//
+                for (Iterator<Capture> iterator = captures.iterator(); iterator.hasNext(); ) {
+                    Capture capture = iterator.next();
+                    if (capture.copy(token)) {
+                        values.put(capture.pointer, mapper.readTree(capture.buffer.asParser(mapper)));
+                        iterator.remove();
+                    }
+                }
+
+                //--- Starts capturing values located at a requested pointer ---//
+                if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY) {
+                    String pointer = parser.getParsingContext().pathAsPointer().toString();
+                    if (pointers.contains(pointer)) {
+                        Capture capture = new Capture(pointer);
+                        if (capture.copy(token)) {
+                            values.put(pointer, mapper.readTree(capture.buffer.asParser(mapper)));
+                        } else {
+                            captures.add(capture);
+                        }
+                    }
+                }
+            }
+        } catch (IOException exception) {
+            jsonError = exception.getMessage();
+        }
+    }
+
+    private long elapsed() {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private class Capture {
+
+        private final String pointer;
+        private final TokenBuffer buffer = new TokenBuffer(mapper, false);
+        private int depth;
+
+        private Capture(String pointer) {
+            this.pointer = pointer;
+        }
+
+        /**
+         * @return true once the captured value is complete
+         */
+        private boolean copy(JsonToken token) throws IOException {
+            buffer.copyCurrentEvent(parser);
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                depth++;
+            } else if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+                depth--;
+            }
+            return depth == 0 && token != JsonToken.FIELD_NAME;
+        }
+    }
+}
@@ -0,0 +1,426 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Checks one response against the API specification: the operation, status and media type must be
+ * declared, and a JSON body must match the response schema.
+ *
+ * The body is validated chunk by chunk on a non-blocking parser, without building a tree: one
+ * matcher per open value follows the tokens, and the alternatives of allOf/anyOf/oneOf follow the
+ * same tokens side by side.
+ */
+public class SmokeTestResponseValidator {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int MAX_VIOLATIONS = 10;
+    private static final Map<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+
+    private final SmokeTestSpecification specification;
+    private final List<String> violations = new ArrayList<>();
+    private JsonParser parser;
+    private Matcher root;
+    private boolean complete;
+
+    /**
+     * @param specification compiled specification
+     * @param method HTTP method of the request
+     * @param path request path, relative to the endpoint URL
+     * @param status HTTP status of the response
+     * @param contentType Content-Type of the response, null when absent
+     */
+    public SmokeTestResponseValidator(SmokeTestSpecification specification, String method, String path, int status, String contentType) {
+        this.specification = specification;
+
+        SmokeTestSpecification.Operation operation = specification.operation(method, path);
+        if (operation == null) {
+            violations.add(String.format("%s %s is not declared by the specification", method, path));
+            return;
+        }
+        SmokeTestSpecification.Response response = operation.response(status);
+        if (response == null) {
+            violations.add(String.format("Status %s is not declared for %s %s", status, operation.getMethod(), operation.getPath()));
+            return;
+        }
+        if (response.getContent().isEmpty() || contentType == null) {
+            return;
+        }
+
+        String mediaType = contentType.split(";")[0].trim().toLowerCase();
+        Map.Entry<String, Integer> declared = response.getContent().entrySet().stream()
+                .filter(entry -> matches(entry.getKey(), mediaType))
+                .findFirst()
+                .orElse(null);
+        if (declared == null) {
+            violations.add(String.format("Content-Type %s is not declared for %s %s %s (declared: %s)", mediaType, operation.getMethod(), operation.getPath(), status,
+                    String.join(", ", response.getContent().keySet())));
+            return;
+        }
+
+        if (mediaType.contains("json") && declared.getValue() != null) {
+            try {
+                parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+            } catch (IOException exception) {
+                throw new IllegalStateException(exception);
+            }
+            root = new Matcher(specification.schema(declared.getValue()), violations);
+        }
+    }
+
+    /**
+     * Validates the next chunk of the body.
+     * @param bytes buffer
+     * @param offset first byte of the chunk
+     * @param length chunk length
+     */
+    public void feed(byte[] bytes, int offset, int length) {
+        if (parser == null || complete) {
+            return;
+        }
+        try {
+            ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).feedInput(bytes, offset, offset + length);
+            this.drain();
+        } catch (IOException exception) {
+            this.abort(exception);
+        }
+    }
+
+    /**
+     * Signals the end of the body.
+     */
+    public void complete() {
+        if (parser == null || complete) {
+            return;
+        }
+        try {
+            ((ByteArrayFeeder) parser.getNonBlockingInputFeeder()).endOfInput();
+            this.drain();
+            if (complete == false) {
+                violations.add("Response body is not a complete JSON document");
+            }
+            parser.close();
+        } catch (IOException exception) {
+            this.abort(exception);
+        }
+    }
+
+    public List<String> getViolations() {
+        return violations;
+    }
+
+    public boolean isValid() {
+        return violations.isEmpty();
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while (complete == false && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            complete = root.next(token);
+        }
+    }
+
+    private void abort(IOException exception) {
+        complete = true;
+        violations.add(String.format("Response body is not valid JSON: %s", exception.getMessage()));
+        try {
+            parser.close();
+        } catch (IOException ignored) {
+            //--- Nothing left to do with a broken stream ---//
+        }
+    }
+
+    private static boolean matches(String declared, String actual) {
+        String type = declared.split(";")[0].trim();
+        if (type.equals(actual) || type.equals("*/*")) {
+            return true;
+        }
+        return type.endsWith("/*") && actual.startsWith(type.substring(0, type.length() - 1));
+    }
+
+    private static void report(List<String> errors, String format, Object... arguments) {
+        if (errors.size() < MAX_VIOLATIONS) {
+            errors.add(String.format(format, arguments));
+        }
+    }
+
+    /**
+     * Follows the tokens of one JSON value against one schema.
+     */
+    private final class Matcher {
+
+        private final SmokeTestSchema schema;
+        private final List<String> errors;
+        private boolean started;
+        /**
+         * Open containers of a value that is not checked (no schema, or wrong type).
+         */
+        private int skipped = -1;
+        private String pointer;
+        private Matcher child;
+        private Set<String> seen;
+        private int items;
+        private List<Matcher> allOf;
+        private List<Matcher> anyOf;
+        private List<Matcher> oneOf;
+
+        private Matcher(SmokeTestSchema schema, List<String> errors) {
+            this.schema = schema;
+            this.errors = errors;
+        }
+
+        /**
+         * @return true once the value is complete
+         */
+        private boolean next(JsonToken token) throws IOException {
+            if (schema == null || skipped >= 0) {
+                return this.skip(token);
+            }
+
+            final boolean first = started == false;
+            if (first) {
+                started = true;
+                this.branch();
+            }
+
+            //--- Alternatives follow the same tokens as the value itself ---//
+            for (List<Matcher> branches : Arrays.asList(allOf, anyOf, oneOf)) {
+                if (branches != null) {
+                    for (Matcher matcher : branches) {
+                        matcher.next(token);
+                    }
+                }
+            }
+
+            boolean done = first ? this.start(token) : this.proceed(token);
+            if (done && (anyOf != null || oneOf != null)) {
+                this.decide();
+            }
+            return done;
+        }
+
+        private boolean skip(JsonToken token) {
+            skipped = Math.max(skipped, 0);
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                skipped++;
+            } else if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+                skipped--;
+            }
+            return skipped == 0 && token != JsonToken.FIELD_NAME;
+        }
+
+        private void branch() {
+            if (schema.getAllOf() != null) {
+                allOf = this.matchers(schema.getAllOf(), true);
+            }
+            if (schema.getAnyOf() != null) {
+                anyOf = this.matchers(schema.getAnyOf(), false);
+            }
+            if (schema.getOneOf() != null) {
+                oneOf = this.matchers(schema.getOneOf(), false);
+            }
+            if (anyOf != null || oneOf != null) {
+                pointer = this.pointer();
+            }
+        }
+
+        /**
+         * @param shared true when errors of the alternatives are errors of this value (allOf), false
+         *               when each alternative keeps its own to decide which ones match (anyOf, oneOf)
+         */
+        private List<Matcher> matchers(List<Integer> indexes, boolean shared) {
+            return indexes.stream()
+                    .map(index -> new Matcher(specification.schema(index), shared ? errors : new ArrayList<>()))
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * anyOf needs one matching alternative, oneOf exactly one.
+         */
+        private void decide() {
+            if (anyOf != null && anyOf.stream().noneMatch(matcher -> matcher.errors.isEmpty())) {
+                report(errors, "%s: matches none of anyOf (%s)", pointer, anyOf.isEmpty() ? "" : String.join("; ", anyOf.get(0).errors));
+            }
+            if (oneOf != null) {
+                long matching = oneOf.stream().filter(matcher -> matcher.errors.isEmpty()).count();
+                if (matching != 1) {
+                    report(errors, "%s: matches %s schemas of oneOf instead of one", pointer, matching);
+                }
+            }
+        }
+
+        private boolean start(JsonToken token) throws IOException {
+            final String type = type(token);
+            if (type == null) {
+                return true;
+            }
+            if ("null".equals(type) && (schema.isNullable() || schema.getTypes() == null || schema.getTypes().contains("null"))) {
+                return true;
+            }
+            if (schema.getTypes() != null && schema.getTypes().contains(type) == false
+                    && ("integer".equals(type) && schema.getTypes().contains("number")) == false) {
+                report(errors, "%s: expected %s but was %s", this.pointer(), String.join(" or ", schema.getTypes()), type);
+                return token.isStructStart() ? this.skip(token) : true;
+            }
+
+            switch (token) {
+                case START_OBJECT:
+                    if (schema.getRequired() != null) {
+                        pointer = pointer != null ? pointer : this.pointer();
+                        seen = new HashSet<>();
+                    }
+                    return false;
+                case START_ARRAY:
+                    if (schema.getMinItems() != null || schema.getMaxItems() != null) {
+                        pointer = pointer != null ? pointer : this.pointer();
+                    }
+                    return false;
+                case VALUE_STRING:
+                    this.checkString(parser.getText());
+                    break;
+                case VALUE_NUMBER_INT:
+                case VALUE_NUMBER_FLOAT:
+                    this.checkNumber(parser.getDoubleValue(), parser.getText());
+                    break;
+                default:
+                    break;
+            }
+            if (schema.getEnumValues() != null && this.isEnumerated(token == JsonToken.VALUE_NULL ? "null" : parser.getText()) == false) {
+                report(errors, "%s: %s is not one of %s", this.pointer(), parser.getText(), schema.getEnumValues());
+            }
+            return true;
+        }
+
+        private boolean proceed(JsonToken token) throws IOException {
+            if (child != null) {
+                if (child.next(token)) {
+                    child = null;
+                }
+                return false;
+            }
+
+            switch (token) {
+                case FIELD_NAME:
+                    String name = parser.getCurrentName();
+                    if (seen != null) {
+                        seen.add(name);
+                    }
+                    if (schema.getProperties() != null && schema.getProperties().containsKey(name)) {
+                        child = new Matcher(specification.schema(schema.getProperties().get(name)), errors);
+                    } else {
+                        if (schema.isAdditionalPropertiesAllowed() == false) {
+                            report(errors, "%s: property is not declared", parser.getParsingContext().pathAsPointer());
+                        }
+                        child = new Matcher(specification.schema(schema.getAdditionalProperties()), errors);
+                    }
+                    return false;
+                case END_OBJECT:
+                    if (seen != null) {
+                        for (String required : schema.getRequired()) {
+                            if (seen.contains(required) == false) {
+                                report(errors, "%s: required property %s is missing", pointer, required);
+                            }
+                        }
+                    }
+                    return true;
+                case END_ARRAY:
+                    if (schema.getMinItems() != null && items < schema.getMinItems()) {
+                        report(errors, "%s: %s items, at least %s expected", pointer, items, schema.getMinItems());
+                    }
+                    if (schema.getMaxItems() != null && items > schema.getMaxItems()) {
+                        report(errors, "%s: %s items, at most %s expected", pointer, items, schema.getMaxItems());
+                    }
+                    return true;
+                default:
+                    //--- First token of an array element ---//
+                    items++;
+                    Matcher element = new Matcher(specification.schema(schema.getItems()), errors);
+                    if (element.next(token) == false) {
+                        child = element;
+                    }
+                    return false;
+            }
+        }
+
+        private void checkString(String value) {
+            int length = value.codePointCount(0, value.length());
+            if (schema.getMinLength() != null && length < schema.getMinLength()) {
+                report(errors, "%s: length %s is shorter than %s", this.pointer(), length, schema.getMinLength());
+            }
+            if (schema.getMaxLength() != null && length > schema.getMaxLength()) {
+                report(errors, "%s: length %s is longer than %s", this.pointer(), length, schema.getMaxLength());
+            }
+            if (schema.getPattern() != null && PATTERNS.computeIfAbsent(schema.getPattern(), Pattern::compile).matcher(value).find() == false) {
+                report(errors, "%s: %s does not match %s", this.pointer(), value, schema.getPattern());
+            }
+        }
+
+        private void checkNumber(double value, String text) {
+            if (schema.getMinimum() != null && value < schema.getMinimum()) {
+                report(errors, "%s: %s is less than %s", this.pointer(), text, BigDecimal.valueOf(schema.getMinimum()).stripTrailingZeros().toPlainString());
+            }
+            if (schema.getMaximum() != null && value > schema.getMaximum()) {
+                report(errors, "%s: %s is greater than %s", this.pointer(), text, BigDecimal.valueOf(schema.getMaximum()).stripTrailingZeros().toPlainString());
+            }
+        }
+
+        private boolean isEnumerated(String value) {
+            if (schema.getEnumValues().contains(value)) {
+                return true;
+            }
+            try {
+                BigDecimal number = new BigDecimal(value);
+                return schema.getEnumValues().stream().anyMatch(allowed -> {
+                    try {
+                        return new BigDecimal(allowed).compareTo(number) == 0;
+                    } catch (NumberFormatException exception) {
+                        return false;
+                    }
+                });
+            } catch (NumberFormatException exception) {
+                return false;
+            }
+        }
+
+        private String pointer() {
+            String pointer = parser.getParsingContext().pathAsPointer().toString();
+            return pointer.isEmpty() ? "/" : pointer;
+        }
+
+        private String type(JsonToken token) {
+            switch (token) {
+                case START_OBJECT:
+                    return "object";
+                case START_ARRAY:
+                    return "array";
+                case VALUE_STRING:
+                    return "string";
+                case VALUE_NUMBER_INT:
+                    return "integer";
+                case VALUE_NUMBER_FLOAT:
+                    return "number";
+                case VALUE_TRUE:
+                case VALUE_FALSE:
+                    return "boolean";
+                case VALUE_NULL:
+                    return "null";
+                default:
+                    return null;
+            }
+        }
+    }
+}
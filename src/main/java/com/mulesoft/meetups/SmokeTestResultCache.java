@@ -0,0 +1,103 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Remembers when a deployment last passed its smoke test. A deployment is identified by API
+ * instance, deployed asset version, environment, endpoint URL and scenario digest; one small file
+ * per key, named after the SHA-256 of the key.
+ */
+public class SmokeTestResultCache {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Path directory;
+
+    public SmokeTestResultCache(File directory) {
+        this.directory = directory.toPath().resolve("smoke-test");
+    }
+
+    /**
+     * @param key deployment
+     * @param freshness maximum age of the last passing run
+     * @return the last passing run of the deployment, if it is recent enough
+     * @throws IOException
+     */
+    public Entry lookup(Key key, Duration freshness) throws IOException {
+        Path file = directory.resolve(key.digest() + ".json");
+        if (Files.exists(file) == false) {
+            return null;
+        }
+        Entry entry = MAPPER.readValue(file.toFile(), Entry.class);
+        long age = System.currentTimeMillis() - entry.getPassedAt().getTime();
+        return key.equals(entry.getKey()) && age >= 0 && age <= freshness.toMillis() ? entry : null;
+    }
+
+    /**
+     * Records a passing run.
+     * @param key deployment
+     * @throws IOException
+     */
+    public void store(Key key) throws IOException {
+        AnypointFiles.writeAtomically(directory.resolve(key.digest() + ".json"), MAPPER.writerWithDefaultPrettyPrinter(), new Entry(key, new Date()));
+    }
+
+    @Builder
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key {
+
+        private Long apiId;
+        private String assetVersion;
+        private String environmentId;
+        private String endpointUrl;
+        private String scenarioDigest;
+
+        private String text() {
+            return String.join("\n", String.valueOf(apiId), assetVersion, environmentId, endpointUrl, scenarioDigest);
+        }
+
+        /**
+         * @return SHA-256 of the key fields
+         */
+        public String digest() {
+            return AnypointDigests.sha256Hex(text());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && text().equals(((Key) other).text());
+        }
+
+        @Override
+        public int hashCode() {
+            return text().hashCode();
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+
+        private Key key;
+        private Date passedAt;
+    }
+}
@@ -0,0 +1,60 @@
+package com.mulesoft.meetups;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latency and throughput of one smoke test run, as appended to the results store.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SmokeTestResultRecord {
+
+    private Date timestamp;
+    private String api;
+    private String environment;
+    private String assetVersion;
+    private String scenarioDigest;
+    private long requests;
+    private long failures;
+    private long durationInMilliseconds;
+    private double throughputPerSecond;
+    private long p50InMilliseconds;
+    private long p95InMilliseconds;
+    private long p99InMilliseconds;
+    private long maxInMilliseconds;
+    private long minInMilliseconds;
+    private long sumInMilliseconds;
+    /**
+     * Sparse LatencyHistogram buckets, so percentiles can be recomputed over several runs.
+     */
+    @Builder.Default
+    private Map<Integer, Long> histogram = new TreeMap<>();
+
+    /**
+     * @param percentile percentile, between 0 and 100
+     * @return value of the percentile, as stored for 50/95/99 or recomputed from the histogram
+     */
+    public long percentile(double percentile) {
+        if (percentile == 50) {
+            return p50InMilliseconds;
+        }
+        if (percentile == 95) {
+            return p95InMilliseconds;
+        }
+        if (percentile == 99) {
+            return p99InMilliseconds;
+        }
+        return LatencyHistogram.fromBuckets(histogram, minInMilliseconds, maxInMilliseconds, sumInMilliseconds).percentile(percentile);
+    }
+}
@@ -0,0 +1,124 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only store of smoke test results: one JSON-lines file per API and environment, each line
+ * carrying the asset version it was measured on. Appends hold a file lock, so modules of a
+ * parallel build can record into the same file.
+ */
+public class SmokeTestResultsStore {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Path directory;
+
+    public SmokeTestResultsStore(File directory) {
+        this.directory = directory.toPath();
+    }
+
+    /**
+     * @param record result to append
+     * @throws IOException
+     */
+    public void append(SmokeTestResultRecord record) throws IOException {
+        Path file = this.file(record.getApi(), record.getEnvironment());
+        Files.createDirectories(file.getParent());
+
+        byte[] line = (MAPPER.writeValueAsString(record) + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            FileLock lock = channel.lock();
+            try {
+                channel.write(ByteBuffer.wrap(line));
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    /**
+     * @param api API asset ID
+     * @param environment environment name
+     * @return every result of the API in the environment, oldest first
+     * @throws IOException
+     */
+    public List<SmokeTestResultRecord> read(String api, String environment) throws IOException {
+        return this.read(this.file(api, environment));
+    }
+
+    /**
+     * @param api API asset ID
+     * @param environment environment name
+     * @param runs number of runs
+     * @return the last successful runs (no failed request) of the API in the environment, oldest first
+     * @throws IOException
+     */
+    public List<SmokeTestResultRecord> lastSuccessful(String api, String environment, int runs) throws IOException {
+        List<SmokeTestResultRecord> records = this.read(api, environment).stream()
+                .filter(r -> r.getFailures() == 0)
+                .collect(Collectors.toList());
+        return records.subList(Math.max(0, records.size() - runs), records.size());
+    }
+
+    /**
+     * @return every results file of the store
+     * @throws IOException
+     */
+    public List<Path> files() throws IOException {
+        if (Files.isDirectory(directory) == false) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(f -> f.toString().endsWith(".jsonl")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @param file results file
+     * @return its results, oldest first; unreadable lines (interrupted appends) are skipped
+     * @throws IOException
+     */
+    public List<SmokeTestResultRecord> read(Path file) throws IOException {
+        List<SmokeTestResultRecord> records = new ArrayList<>();
+        if (Files.exists(file) == false) {
+            return records;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                try {
+                    if (line.isEmpty() == false) {
+                        records.add(MAPPER.readValue(line, SmokeTestResultRecord.class));
+                    }
+                } catch (IOException exception) {
+                    //--- A crashed append leaves a partial line; the rest of the file is still valid ---//
+                }
+            }
+        }
+        return records;
+    }
+
+    private Path file(String api, String environment) {
+        return directory.resolve(sanitize(api)).resolve(sanitize(environment) + ".jsonl");
+    }
+
+    private static String sanitize(String name) {
+        return name.toLowerCase().replaceAll("[^a-z0-9._-]", "_");
+    }
+}
@@ -0,0 +1,24 @@
+package com.mulesoft.meetups;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One execution of the smoke test scenario with the credentials of one consumer.
+ */
+@Builder
+@Getter
+@Setter
+public class SmokeTestRun {
+
+    private SmokeTestConsumer consumer;
+    private int iteration;
+    private List<SmokeTestStepResult> results;
+
+    public boolean isPassed() {
+        return results.stream().allMatch(SmokeTestStepResult::isPassed);
+    }
+}
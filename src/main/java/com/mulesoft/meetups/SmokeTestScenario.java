@@ -0,0 +1,25 @@
+package com.mulesoft.meetups;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Declarative smoke test scenario, loaded from a JSON or YAML file.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SmokeTestScenario {
+
+    private String name;
+    @Builder.Default
+    private List<SmokeTestStep> steps = new ArrayList<>();
+}
@@ -0,0 +1,275 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.springframework.http.HttpMethod;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Loads and compiles smoke test scenarios.
+ *
+ * Compiled scenarios are cached per file (invalidated on size or modification time change) for the
+ * lifetime of the plugin class loader, so every module of a reactor build shares one compilation.
+ */
+public final class SmokeTestScenarioCompiler {
+
+    public static final String CLIENT_ID_VARIABLE = "clientId";
+    public static final String CLIENT_SECRET_VARIABLE = "clientSecret";
+    public static final String ENDPOINT_URL_VARIABLE = "endpointUrl";
+
+    private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\$\\{([^}]+)}");
+    private static final Set<String> BUILTIN_VARIABLES = new LinkedHashSet<>(Arrays.asList(CLIENT_ID_VARIABLE, CLIENT_SECRET_VARIABLE, ENDPOINT_URL_VARIABLE));
+    private static final Map<String, CachedScenario> CACHE = new ConcurrentHashMap<>();
+
+    private SmokeTestScenarioCompiler() {
+    }
+
+    /**
+     * Scenario equivalent to the historical behaviour: a single GET on the endpoint URL with the client credentials.
+     * @return compiled default scenario
+     */
+    public static SmokeTestCompiledScenario defaultScenario() {
+        return compile(SmokeTestScenario.builder()
+                .name("default")
+                .steps(new ArrayList<>(Arrays.asList(SmokeTestStep.builder().id("smoke-test").build())))
+                .build(), "default");
+    }
+
+    /**
+     * Loads a scenario file (YAML when the extension is .yaml/.yml, JSON otherwise), using the cache when possible.
+     * @param file scenario file
+     * @return compiled scenario
+     * @throws IOException
+     */
+    public static SmokeTestCompiledScenario load(File file) throws IOException {
+        final String key = file.getCanonicalPath();
+        final long lastModified = file.lastModified();
+        final long length = file.length();
+
+        CachedScenario cached = CACHE.get(key);
+        if (cached != null && cached.lastModified == lastModified && cached.length == length) {
+            return cached.scenario;
+        }
+
+        byte[] contents = Files.readAllBytes(file.toPath());
+        String name = file.getName().toLowerCase();
+        ObjectMapper mapper = name.endsWith(".yaml") || name.endsWith(".yml") ? new ObjectMapper(new YAMLFactory()) : new ObjectMapper();
+        SmokeTestScenario scenario = mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true)
+                .readValue(contents, SmokeTestScenario.class);
+
+        if (scenario.getName() == null) {
+            scenario.setName(file.getName());
+        }
+
+        SmokeTestCompiledScenario compiled = compile(scenario, AnypointDigests.sha256Hex(contents));
+        CACHE.put(key, new CachedScenario(lastModified, length, compiled));
+        return compiled;
+    }
+
+    /**
+     * Validates a scenario and compiles it.
+     * @param scenario scenario model
+     * @param digest digest identifying the scenario contents
+     * @return compiled scenario, steps in dependency order
+     * @throws IllegalArgumentException on invalid scenarios (duplicate ids, unknown variables, cycles, bad JSONPath)
+     */
+    public static SmokeTestCompiledScenario compile(SmokeTestScenario scenario, String digest) {
+        if (scenario.getSteps() == null || scenario.getSteps().isEmpty()) {
+            throw new IllegalArgumentException(String.format("Scenario: %s has no steps", scenario.getName()));
+        }
+
+        //--- Assigns ids and indexes variable producers ---//
+        Map<String, SmokeTestStep> steps = new LinkedHashMap<>();
+        Map<String, String> producers = new HashMap<>();
+        int index = 0;
+
+        for (SmokeTestStep step : scenario.getSteps()) {
+            index++;
+            String id = step.getId() != null ? step.getId() : String.format("step-%s", index);
+            step.setId(id);
+
+            if (steps.put(id, step) != null) {
+                throw new IllegalArgumentException(String.format("Scenario: %s has duplicate step id: %s", scenario.getName(), id));
+            }
+            for (String variable : step.getExtract().keySet()) {
+                if (BUILTIN_VARIABLES.contains(variable) || producers.put(variable, id) != null) {
+                    throw new IllegalArgumentException(String.format("Scenario: %s extracts variable: %s more than once", scenario.getName(), variable));
+                }
+            }
+        }
+
+        //--- Compiles each step and resolves its dependencies ---//
+        Map<String, SmokeTestCompiledScenario.Step> compiled = new LinkedHashMap<>();
+
+        for (SmokeTestStep step : steps.values()) {
+            String url = step.getUrl() == null ? "" : step.getUrl();
+            if (url.startsWith("http://") == false && url.startsWith("https://") == false && url.startsWith("${") == false) {
+                url = "${" + ENDPOINT_URL_VARIABLE + "}" + url;
+            }
+
+            Map<String, String> headers = new LinkedHashMap<>(step.getHeaders());
+            headers.putIfAbsent("X-Client-ID", "${" + CLIENT_ID_VARIABLE + "}");
+            headers.putIfAbsent("X-Client-Secret", "${" + CLIENT_SECRET_VARIABLE + "}");
+
+            String body = null;
+            if (step.getBody() != null && step.getBody().isNull() == false) {
+                body = step.getBody().isTextual() ? step.getBody().asText() : step.getBody().toString();
+                if (step.getBody().isTextual() == false) {
+                    headers.putIfAbsent("Content-Type", "application/json");
+                }
+            }
+
+            Set<String> dependsOn = new LinkedHashSet<>(step.getDependsOn());
+            List<String> texts = new ArrayList<>(headers.values());
+            texts.add(url);
+            texts.add(body);
+
+            for (String variable : variables(texts)) {
+                if (producers.containsKey(variable)) {
+                    dependsOn.add(producers.get(variable));
+                } else if (BUILTIN_VARIABLES.contains(variable) == false) {
+                    throw new IllegalArgumentException(String.format("Step: %s references unknown variable: %s", step.getId(), variable));
+                }
+            }
+            for (String dependency : dependsOn) {
+                if (steps.containsKey(dependency) == false || dependency.equals(step.getId())) {
+                    throw new IllegalArgumentException(String.format("Step: %s depends on unknown step: %s", step.getId(), dependency));
+                }
+            }
+
+            HttpMethod method = HttpMethod.resolve(step.getMethod().toUpperCase());
+            if (method == null) {
+                throw new IllegalArgumentException(String.format("Step: %s has unsupported method: %s", step.getId(), step.getMethod()));
+            }
+
+            //--- Pointers whose values the streaming parser has to capture ---//
+            Set<String> pointers = new LinkedHashSet<>();
+            step.getAssertions().forEach(a -> pointers.add(SmokeTestJsonPath.compile(a.getPath()).toString()));
+            step.getExtract().values().forEach(path -> pointers.add(SmokeTestJsonPath.compile(path).toString()));
+
+            compiled.put(step.getId(), SmokeTestCompiledScenario.Step.builder()
+                    .id(step.getId())
+                    .method(method)
+                    .url(url)
+                    .headers(headers)
+                    .body(body)
+                    .expectedStatus(step.getExpectedStatus())
+                    .latencyBudgetInMilliseconds(step.getLatencyBudgetInMilliseconds())
+                    .assertions(step.getAssertions().stream().map(a -> SmokeTestCompiledScenario.Assertion.builder()
+                            .path(a.getPath())
+                            .pointer(SmokeTestJsonPath.compile(a.getPath()))
+                            .equalTo(a.getEqualTo())
+                            .exists(a.getExists() == null || a.getExists())
+                            .build()).collect(Collectors.toList()))
+                    .extract(step.getExtract().entrySet().stream().collect(Collectors.toMap(
+                            Map.Entry::getKey, e -> SmokeTestJsonPath.compile(e.getValue()), (a, b) -> a, LinkedHashMap::new)))
+                    .dependsOn(new ArrayList<>(dependsOn))
+                    .pointers(pointers)
+                    .build());
+        }
+
+        return SmokeTestCompiledScenario.builder()
+                .name(scenario.getName())
+                .digest(digest)
+                .steps(topologicalOrder(scenario.getName(), compiled))
+                .build();
+    }
+
+    /**
+     * @param texts templates, null entries are ignored
+     * @return names of all ${variables} referenced
+     */
+    public static Set<String> variables(List<String> texts) {
+        Set<String> variables = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text != null) {
+                Matcher matcher = VARIABLE_PATTERN.matcher(text);
+                while (matcher.find()) {
+                    variables.add(matcher.group(1));
+                }
+            }
+        }
+        return variables;
+    }
+
+    /**
+     * Replaces ${variables} in a template.
+     * @param template template, may be null
+     * @param variables variable values
+     * @return resolved text
+     */
+    public static String resolve(String template, Map<String, String> variables) {
+        if (template == null) {
+            return null;
+        }
+        Matcher matcher = VARIABLE_PATTERN.matcher(template);
+        StringBuffer resolved = new StringBuffer();
+        while (matcher.find()) {
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(variables.getOrDefault(matcher.group(1), "")));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+
+    private static List<SmokeTestCompiledScenario.Step> topologicalOrder(String scenario, Map<String, SmokeTestCompiledScenario.Step> steps) {
+        Map<String, Integer> pending = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        Deque<String> ready = new ArrayDeque<>();
+
+        for (SmokeTestCompiledScenario.Step step : steps.values()) {
+            pending.put(step.getId(), step.getDependsOn().size());
+            step.getDependsOn().forEach(d -> dependents.computeIfAbsent(d, k -> new ArrayList<>()).add(step.getId()));
+            if (step.getDependsOn().isEmpty()) {
+                ready.add(step.getId());
+            }
+        }
+
+        List<SmokeTestCompiledScenario.Step> ordered = new ArrayList<>();
+        while (ready.isEmpty() == false) {
+            String id = ready.poll();
+            ordered.add(steps.get(id));
+            for (String dependent : dependents.getOrDefault(id, new ArrayList<>())) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        if (ordered.size() != steps.size()) {
+            throw new IllegalArgumentException(String.format("Scenario: %s has a dependency cycle", scenario));
+        }
+        return ordered;
+    }
+
+    private static class CachedScenario {
+
+        private final long lastModified;
+        private final long length;
+        private final SmokeTestCompiledScenario scenario;
+
+        private CachedScenario(long lastModified, long length, SmokeTestCompiledScenario scenario) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.scenario = scenario;
+        }
+    }
+}
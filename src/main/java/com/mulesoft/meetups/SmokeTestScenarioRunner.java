@@ -0,0 +1,227 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Executes a compiled smoke test scenario on a shared WebClient.
+ *
+ * Every step is subscribed immediately; a step only waits for the steps it depends on, so
+ * independent steps run concurrently while data-dependent steps chain. A step whose dependency
+ * failed is skipped. When an API specification is given, every response is validated against it
+ * while it streams in.
+ */
+public class SmokeTestScenarioRunner {
+
+    private final WebClient webClient;
+    private final int previewBytes;
+    private final Path bodyOutputDirectory;
+    private final SmokeTestSpecification specification;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * @param webClient shared reactive client
+     * @param previewBytes maximum number of response bytes kept for display
+     * @param bodyOutputDirectory directory receiving full response bodies, or null to discard them
+     * @param specification API specification responses are validated against, or null
+     */
+    public SmokeTestScenarioRunner(WebClient webClient, int previewBytes, Path bodyOutputDirectory, SmokeTestSpecification specification) {
+        this.webClient = webClient;
+        this.previewBytes = previewBytes;
+        this.bodyOutputDirectory = bodyOutputDirectory;
+        this.specification = specification;
+    }
+
+    /**
+     * @param scenario compiled scenario
+     * @param variables initial variables (client credentials, endpoint URL)
+     * @return one result per step, in dependency order
+     */
+    public List<SmokeTestStepResult> run(SmokeTestCompiledScenario scenario, Map<String, String> variables) {
+        return execute(scenario, variables, null).block();
+    }
+
+    /**
+     * @param scenario compiled scenario
+     * @param variables initial variables (client credentials, endpoint URL)
+     * @param label prefix of the spilled response body files, distinguishing concurrent runs
+     * @return one result per step, in dependency order, once every step has completed
+     */
+    public Mono<List<SmokeTestStepResult>> execute(SmokeTestCompiledScenario scenario, Map<String, String> variables, String label) {
+        final Map<String, String> context = new ConcurrentHashMap<>(variables);
+        final Map<String, Mono<SmokeTestStepResult>> results = new LinkedHashMap<>();
+
+        //--- Steps are in topological order, so dependencies are always already registered ---//
+        for (SmokeTestCompiledScenario.Step step : scenario.getSteps()) {
+            List<Mono<SmokeTestStepResult>> dependencies = step.getDependsOn().stream().map(results::get).collect(Collectors.toList());
+
+            results.put(step.getId(), Flux.fromIterable(dependencies)
+                    .flatMap(dependency -> dependency)
+                    .collectList()
+                    .flatMap(completed -> {
+                        List<String> failed = completed.stream().filter(r -> r.isPassed() == false).map(SmokeTestStepResult::getStepId).collect(Collectors.toList());
+                        return failed.isEmpty() ? execute(step, context, label) : Mono.just(skipped(step, failed));
+                    })
+                    .cache());
+        }
+
+        return Flux.fromIterable(results.values()).flatMapSequential(result -> result).collectList();
+    }
+
+    private Mono<SmokeTestStepResult> execute(SmokeTestCompiledScenario.Step step, Map<String, String> context, String label) {
+        return Mono.defer(() -> {
+            final long start = System.nanoTime();
+            final String url = SmokeTestScenarioCompiler.resolve(step.getUrl(), context);
+            final String body = SmokeTestScenarioCompiler.resolve(step.getBody(), context);
+
+            WebClient.RequestBodySpec request = webClient.method(step.getMethod()).uri(URI.create(url));
+            step.getHeaders().forEach((name, value) -> request.header(name, SmokeTestScenarioCompiler.resolve(value, context)));
+            WebClient.RequestHeadersSpec<?> exchange = body == null ? request : request.bodyValue(body);
+
+            final Path bodyFile = bodyOutputDirectory == null ? null : bodyOutputDirectory.resolve(
+                    (label == null ? "" : label + "-") + step.getId() + ".body");
+
+            return exchange.exchangeToMono(response -> consume(step, start, bodyFile, response, validator(step, url, response, context))
+                            .map(responseBody -> evaluate(step, url, response.rawStatusCode(), responseBody, bodyFile, context)))
+                    .onErrorResume(exception -> Mono.just(SmokeTestStepResult.builder()
+                            .stepId(step.getId())
+                            .method(step.getMethod().name())
+                            .url(url)
+                            .latencyInMilliseconds(Duration.ofNanos(System.nanoTime() - start).toMillis())
+                            .failures(new ArrayList<>(Arrays.asList(String.format("Request failed: %s", exception.getMessage()))))
+                            .build()));
+        });
+    }
+
+    /**
+     * Streams the response body through a {@link SmokeTestResponseBody}, releasing each chunk as soon as it is consumed.
+     */
+    private Mono<SmokeTestResponseBody> consume(SmokeTestCompiledScenario.Step step, long start, Path bodyFile, ClientResponse response, SmokeTestResponseValidator validator) {
+        return Mono.fromCallable(() -> new SmokeTestResponseBody(start, previewBytes, bodyFile, step.getPointers(), mapper, validator))
+                .flatMap(responseBody -> {
+                    Flux<DataBuffer> chunks = response.bodyToFlux(DataBuffer.class);
+
+                    //--- Writing to disk must not happen on the event loop ---//
+                    if (bodyFile != null) {
+                        chunks = chunks.publishOn(Schedulers.boundedElastic());
+                    }
+
+                    return chunks
+                            .doOnNext(chunk -> {
+                                try {
+                                    responseBody.accept(chunk);
+                                } catch (IOException exception) {
+                                    throw Exceptions.propagate(exception);
+                                } finally {
+                                    DataBufferUtils.release(chunk);
+                                }
+                            })
+                            .then(Mono.fromCallable(() -> {
+                                responseBody.complete();
+                                return responseBody;
+                            }))
+                            .doOnError(exception -> responseBody.close())
+                            .doOnCancel(responseBody::close);
+                });
+    }
+
+    /**
+     * @return validator of the response against the API specification, null when responses are not validated
+     */
+    private SmokeTestResponseValidator validator(SmokeTestCompiledScenario.Step step, String url, ClientResponse response, Map<String, String> context) {
+        if (specification == null) {
+            return null;
+        }
+        String path = SmokeTestSpecification.path(context.get(SmokeTestScenarioCompiler.ENDPOINT_URL_VARIABLE), url);
+        return new SmokeTestResponseValidator(specification, step.getMethod().name(), path, response.rawStatusCode(),
+                response.headers().contentType().map(Object::toString).orElse(null));
+    }
+
+    private SmokeTestStepResult evaluate(SmokeTestCompiledScenario.Step step, String url, int status, SmokeTestResponseBody body, Path bodyFile, Map<String, String> context) {
+        final long latency = body.getTimeToLastByteInMilliseconds();
+        final List<String> failures = new ArrayList<>();
+        final HttpStatus httpStatus = HttpStatus.resolve(status);
+
+        if (step.getExpectedStatus() == null ? status >= 400 : status != step.getExpectedStatus()) {
+            failures.add(String.format("Unexpected HTTP status: %s", status));
+        }
+        if (step.getLatencyBudgetInMilliseconds() != null && latency > step.getLatencyBudgetInMilliseconds()) {
+            failures.add(String.format("Latency %s ms exceeds budget of %s ms", latency, step.getLatencyBudgetInMilliseconds()));
+        }
+
+        if (step.getPointers().isEmpty() == false) {
+            if (body.getJsonError() != null) {
+                failures.add(String.format("Response body is not valid JSON: %s", body.getJsonError()));
+            } else {
+                for (SmokeTestCompiledScenario.Assertion assertion : step.getAssertions()) {
+                    JsonNode node = body.value(assertion.getPointer());
+                    if (assertion.getEqualTo() != null) {
+                        if (node == null || node.equals(assertion.getEqualTo()) == false) {
+                            failures.add(String.format("%s: expected %s but was %s", assertion.getPath(), assertion.getEqualTo(), node == null ? "missing" : node));
+                        }
+                    } else if ((node == null) == assertion.isExists()) {
+                        failures.add(String.format("%s: expected to %s", assertion.getPath(), assertion.isExists() ? "exist" : "be absent"));
+                    }
+                }
+
+                for (Map.Entry<String, JsonPointer> extract : step.getExtract().entrySet()) {
+                    JsonNode node = body.value(extract.getValue());
+                    if (node == null) {
+                        failures.add(String.format("Cannot extract variable: %s", extract.getKey()));
+                    } else {
+                        context.put(extract.getKey(), node.isValueNode() ? node.asText() : node.toString());
+                    }
+                }
+            }
+        }
+
+        return SmokeTestStepResult.builder()
+                .stepId(step.getId())
+                .method(step.getMethod().name())
+                .url(url)
+                .status(status)
+                .reasonPhrase(httpStatus == null ? "" : httpStatus.getReasonPhrase())
+                .latencyInMilliseconds(latency)
+                .timeToFirstByteInMilliseconds(body.getTimeToFirstByteInMilliseconds())
+                .contentLength(body.getContentLength())
+                .sha256(body.getSha256())
+                .bodyPreview(body.getPreview())
+                .bodyTruncated(body.isTruncated())
+                .bodyFile(bodyFile == null ? null : bodyFile.toString())
+                .failures(failures)
+                .contractViolations(body.getContractViolations())
+                .build();
+    }
+
+    private SmokeTestStepResult skipped(SmokeTestCompiledScenario.Step step, List<String> failedDependencies) {
+        return SmokeTestStepResult.builder()
+                .stepId(step.getId())
+                .method(step.getMethod().name())
+                .url(step.getUrl())
+                .skipped(true)
+                .failures(new ArrayList<>(Arrays.asList(String.format("Skipped, dependency failed: %s", String.join(", ", failedDependencies)))))
+                .build();
+    }
+}
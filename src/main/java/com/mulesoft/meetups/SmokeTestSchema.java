@@ -0,0 +1,54 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled response schema: the subset of JSON Schema used by OAS responses, with every $ref
+ * resolved to the index of another schema of the same specification, so recursive schemas need no
+ * further lookup. A null reference means any value.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class SmokeTestSchema {
+
+    /**
+     * Allowed JSON types (object, array, string, number, integer, boolean, null), any when empty.
+     */
+    private List<String> types;
+    private boolean nullable;
+    /**
+     * Allowed values, as text.
+     */
+    private List<String> enumValues;
+    private Map<String, Integer> properties;
+    private List<String> required;
+    /**
+     * Schema of properties not listed, any when null.
+     */
+    private Integer additionalProperties;
+    @Builder.Default
+    private boolean additionalPropertiesAllowed = true;
+    private Integer items;
+    private List<Integer> allOf;
+    private List<Integer> anyOf;
+    private List<Integer> oneOf;
+    private Integer minLength;
+    private Integer maxLength;
+    private String pattern;
+    private Double minimum;
+    private Double maximum;
+    private Integer minItems;
+    private Integer maxItems;
+}
@@ -0,0 +1,176 @@
+package com.mulesoft.meetups;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * API specification compiled for response validation: operations with a path pattern, responses
+ * per status with their media types, and the response schemas they refer to.
+ *
+ * The compiled form is plain data, so it is cached on disk per asset version and sent as is to
+ * load workers.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SmokeTestSpecification {
+
+    /**
+     * Version of the compiled form, compilations of another version are not reused.
+     */
+    public static final int FORMAT = 1;
+
+    private static final Map<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+
+    @Builder.Default
+    private int format = FORMAT;
+    private String groupId;
+    private String assetId;
+    private String assetVersion;
+    /**
+     * Specification the form was compiled from, e.g. OpenAPI 3.0.1 or Swagger 2.0.
+     */
+    private String source;
+    @Builder.Default
+    private List<Operation> operations = new ArrayList<>();
+    @Builder.Default
+    private List<SmokeTestSchema> schemas = new ArrayList<>();
+    /**
+     * Constructs the compiler could not handle (external references, unsupported keywords), accepted as any value.
+     */
+    @Builder.Default
+    private List<String> warnings = new ArrayList<>();
+
+    /**
+     * Finds the operation of a request. The path is first matched exactly against the path
+     * templates, then as a suffix, for endpoints exposed under a base path the specification does
+     * not declare; the longest template wins.
+     *
+     * @param method HTTP method
+     * @param path request path, relative to the endpoint URL
+     * @return operation, or null when the specification does not declare it
+     */
+    public Operation operation(String method, String path) {
+        Operation suffix = null;
+        for (Operation operation : operations) {
+            if (operation.getMethod().equalsIgnoreCase(method) == false) {
+                continue;
+            }
+            if (compiled(operation.getPattern() + "/?").matcher(path).matches()) {
+                return operation;
+            }
+            if (operation.getPattern().isEmpty() == false
+                    && compiled("(/.*)?" + operation.getPattern() + "/?").matcher(path).matches()
+                    && (suffix == null || operation.getPath().length() > suffix.getPath().length())) {
+                suffix = operation;
+            }
+        }
+        return suffix;
+    }
+
+    /**
+     * @param index schema index, null for any value
+     * @return schema, null for any value
+     */
+    public SmokeTestSchema schema(Integer index) {
+        return index == null ? null : schemas.get(index);
+    }
+
+    /**
+     * @param endpointUrl URL of the endpoint under test
+     * @param url request URL
+     * @return request path relative to the endpoint URL, or the full path for other URLs
+     */
+    public static String path(String endpointUrl, String url) {
+        String path = URI.create(url).getRawPath();
+        String base = endpointUrl == null ? "" : URI.create(endpointUrl).getRawPath();
+        base = base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        return base.isEmpty() == false && path.startsWith(base) && (path.length() == base.length() || path.charAt(base.length()) == '/')
+                ? (path.length() == base.length() ? "/" : path.substring(base.length()))
+                : path;
+    }
+
+    private static Pattern compiled(String regex) {
+        return PATTERNS.computeIfAbsent(regex, Pattern::compile);
+    }
+
+    @Builder
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Operation {
+
+        private String method;
+        /**
+         * Path template, e.g. /orders/{orderId}.
+         */
+        private String path;
+        /**
+         * Regular expression of the path template, without the base path.
+         */
+        private String pattern;
+        /**
+         * Responses by status code, status range (2XX) or default.
+         */
+        @Builder.Default
+        private Map<String, Response> responses = new LinkedHashMap<>();
+
+        /**
+         * @param status HTTP status
+         * @return declared response for the status, its range or the default response, null when not declared
+         */
+        public Response response(int status) {
+            Response response = responses.get(String.valueOf(status));
+            if (response == null) {
+                response = responses.get(String.format("%sXX", status / 100));
+            }
+            return response != null ? response : responses.get("default");
+        }
+
+        /**
+         * @param path path template
+         * @return regular expression matching the paths of the template
+         */
+        public static String regex(String path) {
+            StringBuilder regex = new StringBuilder();
+            for (String segment : path.split("/")) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                regex.append('/').append(segment.startsWith("{") && segment.endsWith("}") ? "[^/]+" : Pattern.quote(segment));
+            }
+            return regex.toString();
+        }
+    }
+
+    @Builder
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Response {
+
+        /**
+         * Schema index per declared media type, null when the media type has no schema.
+         */
+        @Builder.Default
+        private Map<String, Integer> content = new LinkedHashMap<>();
+    }
+}
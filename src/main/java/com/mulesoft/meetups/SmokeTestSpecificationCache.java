@@ -0,0 +1,76 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled API specifications, one file per asset version, named after the SHA-256 of the asset
+ * coordinates. Published Exchange asset versions do not change, so entries never expire; they are
+ * only ignored when compiled by another version of the compiler.
+ *
+ * Entries read once are also kept for the lifetime of the plugin class loader.
+ */
+public class SmokeTestSpecificationCache {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final Map<String, SmokeTestSpecification> LOADED = new ConcurrentHashMap<>();
+
+    private final Path directory;
+
+    public SmokeTestSpecificationCache(File directory) {
+        this.directory = directory.toPath().resolve("specification");
+    }
+
+    /**
+     * @param groupId asset group
+     * @param assetId asset
+     * @param assetVersion asset version
+     * @return compiled specification of the asset version, null when not cached
+     * @throws IOException
+     */
+    public SmokeTestSpecification lookup(String groupId, String assetId, String assetVersion) throws IOException {
+        final String digest = digest(groupId, assetId, assetVersion);
+        SmokeTestSpecification loaded = LOADED.get(digest);
+        if (loaded != null) {
+            return loaded;
+        }
+
+        Path file = directory.resolve(digest + ".json");
+        if (Files.exists(file) == false) {
+            return null;
+        }
+        SmokeTestSpecification specification = MAPPER.readValue(file.toFile(), SmokeTestSpecification.class);
+        if (specification.getFormat() != SmokeTestSpecification.FORMAT
+                || Objects.equals(groupId, specification.getGroupId()) == false
+                || Objects.equals(assetId, specification.getAssetId()) == false
+                || Objects.equals(assetVersion, specification.getAssetVersion()) == false) {
+            return null;
+        }
+        LOADED.put(digest, specification);
+        return specification;
+    }
+
+    /**
+     * Stores a compiled specification under its asset coordinates.
+     * @param specification compiled specification
+     * @throws IOException
+     */
+    public void store(SmokeTestSpecification specification) throws IOException {
+        final String digest = digest(specification.getGroupId(), specification.getAssetId(), specification.getAssetVersion());
+        AnypointFiles.writeAtomically(directory.resolve(digest + ".json"), MAPPER.writer(), specification);
+        LOADED.put(digest, specification);
+    }
+
+    private static String digest(String groupId, String assetId, String assetVersion) {
+        return AnypointDigests.sha256Hex(String.valueOf(groupId), String.valueOf(assetId), String.valueOf(assetVersion));
+    }
+}
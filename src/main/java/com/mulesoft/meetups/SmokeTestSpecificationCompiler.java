@@ -0,0 +1,354 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Compiles the response schemas of an OpenAPI 3 or Swagger 2 specification (JSON or YAML, single
+ * file or Exchange zip) into a {@link SmokeTestSpecification}.
+ *
+ * Every $ref, local or to another file of the zip, is resolved once: each referenced schema gets an
+ * index, and references become that index, so recursive schemas compile to a finite table.
+ */
+public final class SmokeTestSpecificationCompiler {
+
+    private static final Set<String> METHODS = new LinkedHashSet<>(Arrays.asList("get", "put", "post", "delete", "options", "head", "patch", "trace"));
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory());
+
+    private SmokeTestSpecificationCompiler() {
+    }
+
+    /**
+     * @param file Exchange file the contents were downloaded from
+     * @param contents specification, or zip of the specification files
+     * @return compiled specification, without asset coordinates
+     * @throws IOException when a document cannot be parsed
+     * @throws IllegalArgumentException when the main document is not an OpenAPI 3 or Swagger 2 specification
+     */
+    public static SmokeTestSpecification compile(AnypointExchangeAssetFile file, byte[] contents) throws IOException {
+        Map<String, byte[]> documents = new LinkedHashMap<>();
+        String main = "api";
+
+        if (AnypointExchangeAssetFile.ZIP_PACKAGING.equalsIgnoreCase(file.getPackaging())) {
+            try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(contents))) {
+                for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                    if (entry.isDirectory() == false) {
+                        documents.put(normalize(entry.getName()), readAll(zip));
+                    }
+                }
+            }
+            main = file.getMainFile() != null ? normalize(file.getMainFile()) : documents.keySet().stream()
+                    .filter(name -> isSpecification(documents.get(name)))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Specification archive has no OpenAPI or Swagger document"));
+        } else {
+            documents.put(main, contents);
+        }
+
+        return new Compilation(documents).compile(main);
+    }
+
+    private static boolean isSpecification(byte[] contents) {
+        String head = new String(contents, 0, Math.min(contents.length, 512), StandardCharsets.UTF_8);
+        return head.contains("openapi") || head.contains("swagger");
+    }
+
+    private static byte[] readAll(ZipInputStream zip) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        for (int read = zip.read(chunk); read > 0; read = zip.read(chunk)) {
+            buffer.write(chunk, 0, read);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static String normalize(String name) {
+        String normalized = Paths.get(name).normalize().toString().replace('\\', '/');
+        return normalized.startsWith("/") ? normalized.substring(1) : normalized;
+    }
+
+    /**
+     * State of one compilation: parsed documents, resolved references and the schema table.
+     */
+    private static final class Compilation {
+
+        private final Map<String, byte[]> contents;
+        private final Map<String, JsonNode> documents = new HashMap<>();
+        private final Map<String, Integer> references = new HashMap<>();
+        private final List<SmokeTestSchema> schemas = new ArrayList<>();
+        private final Set<String> warnings = new LinkedHashSet<>();
+
+        private Compilation(Map<String, byte[]> contents) {
+            this.contents = contents;
+        }
+
+        private SmokeTestSpecification compile(String main) throws IOException {
+            final JsonNode root = document(main);
+            if (root == null) {
+                throw new IllegalArgumentException(String.format("Specification document: %s not found", main));
+            }
+
+            final boolean openApi = root.has("openapi");
+            if (openApi == false && root.has("swagger") == false) {
+                throw new IllegalArgumentException(String.format("Specification document: %s is neither OpenAPI 3 nor Swagger 2 (RAML is not supported)", main));
+            }
+
+            List<SmokeTestSpecification.Operation> operations = new ArrayList<>();
+            for (Iterator<Map.Entry<String, JsonNode>> paths = root.path("paths").fields(); paths.hasNext(); ) {
+                Map.Entry<String, JsonNode> path = paths.next();
+                Located item = this.dereference(path.getValue(), main);
+
+                for (Iterator<Map.Entry<String, JsonNode>> methods = item.node.fields(); methods.hasNext(); ) {
+                    Map.Entry<String, JsonNode> method = methods.next();
+                    if (METHODS.contains(method.getKey().toLowerCase()) == false) {
+                        continue;
+                    }
+
+                    //--- Swagger 2 declares media types per operation or globally ---//
+                    JsonNode produces = method.getValue().has("produces") ? method.getValue().get("produces") : root.path("produces");
+
+                    SmokeTestSpecification.Operation operation = SmokeTestSpecification.Operation.builder()
+                            .method(method.getKey().toUpperCase())
+                            .path(path.getKey())
+                            .pattern(SmokeTestSpecification.Operation.regex(path.getKey()))
+                            .build();
+
+                    for (Iterator<Map.Entry<String, JsonNode>> responses = method.getValue().path("responses").fields(); responses.hasNext(); ) {
+                        Map.Entry<String, JsonNode> response = responses.next();
+                        Located declared = this.dereference(response.getValue(), item.document);
+                        String status = "default".equalsIgnoreCase(response.getKey()) ? "default" : response.getKey().toUpperCase();
+                        operation.getResponses().put(status,
+                                openApi ? this.openApiResponse(declared) : this.swaggerResponse(declared, produces));
+                    }
+                    operations.add(operation);
+                }
+            }
+
+            return SmokeTestSpecification.builder()
+                    .source(openApi ? String.format("OpenAPI %s", root.get("openapi").asText()) : String.format("Swagger %s", root.get("swagger").asText()))
+                    .operations(operations)
+                    .schemas(schemas)
+                    .warnings(new ArrayList<>(warnings))
+                    .build();
+        }
+
+        private SmokeTestSpecification.Response openApiResponse(Located response) throws IOException {
+            SmokeTestSpecification.Response compiled = SmokeTestSpecification.Response.builder().build();
+            for (Iterator<Map.Entry<String, JsonNode>> media = response.node.path("content").fields(); media.hasNext(); ) {
+                Map.Entry<String, JsonNode> type = media.next();
+                compiled.getContent().put(type.getKey().toLowerCase(), this.schema(type.getValue().get("schema"), response.document));
+            }
+            return compiled;
+        }
+
+        private SmokeTestSpecification.Response swaggerResponse(Located response, JsonNode produces) throws IOException {
+            SmokeTestSpecification.Response compiled = SmokeTestSpecification.Response.builder().build();
+            if (response.node.has("schema")) {
+                Integer schema = this.schema(response.node.get("schema"), response.document);
+                if (produces.size() == 0) {
+                    compiled.getContent().put("application/json", schema);
+                }
+                for (JsonNode type : produces) {
+                    compiled.getContent().put(type.asText().toLowerCase(), schema);
+                }
+            }
+            return compiled;
+        }
+
+        /**
+         * @return index of the compiled schema, null for any value
+         */
+        private Integer schema(JsonNode node, String document) throws IOException {
+            if (node == null || node.isObject() == false) {
+                return null;
+            }
+            if (node.has("$ref")) {
+                String reference = this.target(node.get("$ref").asText(), document);
+                if (references.containsKey(reference)) {
+                    return references.get(reference);
+                }
+
+                Located target = this.resolve(reference);
+                if (target == null) {
+                    warnings.add(String.format("Unresolved reference: %s", reference));
+                    references.put(reference, null);
+                    return null;
+                }
+
+                //--- Registered before compiling, so a recursive reference gets the same index ---//
+                int index = this.allocate();
+                references.put(reference, index);
+                schemas.set(index, this.compileSchema(target.node, target.document));
+                return index;
+            }
+
+            int index = this.allocate();
+            schemas.set(index, this.compileSchema(node, document));
+            return index;
+        }
+
+        private SmokeTestSchema compileSchema(JsonNode node, String document) throws IOException {
+            SmokeTestSchema.SmokeTestSchemaBuilder schema = SmokeTestSchema.builder();
+
+            JsonNode type = node.get("type");
+            if (type != null && type.isArray()) {
+                List<String> types = new ArrayList<>();
+                type.forEach(t -> types.add(t.asText()));
+                schema.types(types);
+            } else if (type != null && "file".equals(type.asText()) == false) {
+                schema.types(new ArrayList<>(Arrays.asList(type.asText())));
+            }
+            schema.nullable(node.path("nullable").asBoolean() || node.path("x-nullable").asBoolean());
+
+            if (node.has("enum")) {
+                List<String> values = new ArrayList<>();
+                node.get("enum").forEach(value -> values.add(value.isNull() ? "null" : value.asText()));
+                schema.enumValues(values);
+            }
+
+            if (node.has("properties")) {
+                Map<String, Integer> properties = new LinkedHashMap<>();
+                for (Iterator<Map.Entry<String, JsonNode>> fields = node.get("properties").fields(); fields.hasNext(); ) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    properties.put(field.getKey(), this.schema(field.getValue(), document));
+                }
+                schema.properties(properties);
+            }
+            if (node.has("required") && node.get("required").isArray()) {
+                List<String> required = new ArrayList<>();
+                node.get("required").forEach(name -> required.add(name.asText()));
+                schema.required(required);
+            }
+            JsonNode additional = node.get("additionalProperties");
+            if (additional != null && additional.isBoolean()) {
+                schema.additionalPropertiesAllowed(additional.asBoolean());
+            } else if (additional != null) {
+                schema.additionalProperties(this.schema(additional, document));
+            }
+            schema.items(this.schema(node.get("items"), document));
+
+            schema.allOf(this.schemas(node.get("allOf"), document));
+            schema.anyOf(this.schemas(node.get("anyOf"), document));
+            schema.oneOf(this.schemas(node.get("oneOf"), document));
+
+            if (node.has("pattern")) {
+                try {
+                    Pattern.compile(node.get("pattern").asText());
+                    schema.pattern(node.get("pattern").asText());
+                } catch (PatternSyntaxException exception) {
+                    warnings.add(String.format("Unsupported pattern: %s", node.get("pattern").asText()));
+                }
+            }
+            schema.minLength(node.has("minLength") ? node.get("minLength").asInt() : null);
+            schema.maxLength(node.has("maxLength") ? node.get("maxLength").asInt() : null);
+            schema.minimum(node.has("minimum") ? node.get("minimum").asDouble() : null);
+            schema.maximum(node.has("maximum") ? node.get("maximum").asDouble() : null);
+            schema.minItems(node.has("minItems") ? node.get("minItems").asInt() : null);
+            schema.maxItems(node.has("maxItems") ? node.get("maxItems").asInt() : null);
+            return schema.build();
+        }
+
+        private List<Integer> schemas(JsonNode nodes, String document) throws IOException {
+            if (nodes == null || nodes.isArray() == false) {
+                return null;
+            }
+            List<Integer> indexes = new ArrayList<>();
+            for (JsonNode node : nodes) {
+                indexes.add(this.schema(node, document));
+            }
+            return indexes;
+        }
+
+        private int allocate() {
+            schemas.add(null);
+            return schemas.size() - 1;
+        }
+
+        /**
+         * Follows the $ref of a path item or response, if any.
+         */
+        private Located dereference(JsonNode node, String document) throws IOException {
+            if (node.has("$ref")) {
+                Located target = this.resolve(this.target(node.get("$ref").asText(), document));
+                if (target != null) {
+                    return target;
+                }
+                warnings.add(String.format("Unresolved reference: %s", node.get("$ref").asText()));
+            }
+            return new Located(node, document);
+        }
+
+        /**
+         * @return reference as document#pointer, the document resolved against the referring one
+         */
+        private String target(String reference, String document) {
+            int hash = reference.indexOf('#');
+            String file = hash < 0 ? reference : reference.substring(0, hash);
+            String pointer = hash < 0 ? "" : reference.substring(hash + 1);
+            if (file.isEmpty()) {
+                return document + "#" + pointer;
+            }
+            int slash = document.lastIndexOf('/');
+            return normalize((slash < 0 ? "" : document.substring(0, slash + 1)) + file) + "#" + pointer;
+        }
+
+        private Located resolve(String reference) throws IOException {
+            int hash = reference.indexOf('#');
+            JsonNode document = this.document(reference.substring(0, hash));
+            if (document == null) {
+                return null;
+            }
+            JsonNode node = document.at(JsonPointer.compile(reference.substring(hash + 1)));
+            return node.isMissingNode() ? null : new Located(node, reference.substring(0, hash));
+        }
+
+        private JsonNode document(String name) throws IOException {
+            if (documents.containsKey(name) == false) {
+                byte[] document = contents.get(name);
+                JsonNode parsed = null;
+                if (document != null) {
+                    String head = new String(document, 0, Math.min(document.length, 64), StandardCharsets.UTF_8).trim();
+                    parsed = (head.startsWith("{") ? JSON_MAPPER : YAML_MAPPER).readTree(document);
+                }
+                documents.put(name, parsed);
+            }
+            return documents.get(name);
+        }
+    }
+
+    /**
+     * Node and the document it belongs to, against which its own references resolve.
+     */
+    private static final class Located {
+
+        private final JsonNode node;
+        private final String document;
+
+        private Located(JsonNode node, String document) {
+            this.node = node;
+            this.document = document;
+        }
+    }
+}
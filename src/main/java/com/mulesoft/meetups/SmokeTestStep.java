@@ -0,0 +1,45 @@
+package com.mulesoft.meetups;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single request of a smoke test scenario.
+ *
+ * The url may be absolute or relative to the configured endpoint URL. Url, headers and body may
+ * reference variables as ${name}: clientId, clientSecret, endpointUrl and any variable extracted
+ * by another step. Referencing an extracted variable makes the step depend on its producer.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SmokeTestStep {
+
+    private String id;
+    @Builder.Default
+    private String method = "GET";
+    @Builder.Default
+    private String url = "";
+    @Builder.Default
+    private Map<String, String> headers = new LinkedHashMap<>();
+    private JsonNode body;
+    private Integer expectedStatus;
+    private Long latencyBudgetInMilliseconds;
+    @Builder.Default
+    private List<SmokeTestAssertion> assertions = new ArrayList<>();
+    @Builder.Default
+    private Map<String, String> extract = new LinkedHashMap<>();
+    @Builder.Default
+    private List<String> dependsOn = new ArrayList<>();
+}
@@ -0,0 +1,39 @@
+package com.mulesoft.meetups;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Builder
+@Getter
+@Setter
+public class SmokeTestStepResult {
+
+    private String stepId;
+    private String method;
+    private String url;
+    private Integer status;
+    private String reasonPhrase;
+    private long latencyInMilliseconds;
+    private long timeToFirstByteInMilliseconds;
+    private long contentLength;
+    private String sha256;
+    private String bodyPreview;
+    private boolean bodyTruncated;
+    private String bodyFile;
+    private boolean skipped;
+    @Builder.Default
+    private List<String> failures = new ArrayList<>();
+    /**
+     * Differences between the response and the API specification, reported apart from failures.
+     */
+    @Builder.Default
+    private List<String> contractViolations = new ArrayList<>();
+
+    public boolean isPassed() {
+        return failures.isEmpty();
+    }
+}
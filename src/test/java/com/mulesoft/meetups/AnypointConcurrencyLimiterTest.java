@@ -0,0 +1,116 @@
+package com.mulesoft.meetups;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests of AnypointConcurrencyLimiter. Latencies are simulated by moving the start time given
+ * back on release, so the tests do not depend on timing; a task cannot start before the limiter
+ * was created, hence the waits before simulating a slow task.
+ */
+public class AnypointConcurrencyLimiterTest extends TestCase {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final AnypointConcurrencyLimitConfig config = new AnypointConcurrencyLimitConfig();
+
+    public void testLimitGrowsByAboutOnePerRoundTrip() throws InterruptedException {
+        AnypointConcurrencyLimiter limiter = new AnypointConcurrencyLimiter("test", 4, config);
+
+        for (int round = 0; round < 4; round++) {
+            this.roundTrip(limiter, AnypointConcurrencyLimiter.Outcome.COMPLETED, FAST);
+        }
+
+        assertEquals(6, limiter.getLimit());
+        assertEquals(6, limiter.getPeakLimit());
+        assertEquals("flat latency", limiter.getHistory().get(limiter.getHistory().size() - 1).getReason());
+    }
+
+    public void testLimitDoesNotGrowWhenLessThanHalfUsed() throws InterruptedException {
+        AnypointConcurrencyLimiter limiter = new AnypointConcurrencyLimiter("test", 4, config);
+
+        for (int task = 0; task < 20; task++) {
+            limiter.release(limiter.acquire() - FAST, AnypointConcurrencyLimiter.Outcome.COMPLETED);
+        }
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    public void testLimitStopsAtMaxLimit() throws InterruptedException {
+        config.setMaxLimit(5);
+        AnypointConcurrencyLimiter limiter = new AnypointConcurrencyLimiter("test", 4, config);
+
+        for (int round = 0; round < 10; round++) {
+            this.roundTrip(limiter, AnypointConcurrencyLimiter.Outcome.COMPLETED, FAST);
+        }
+
+        assertEquals(5, limiter.getLimit());
+    }
+
+    public void testThrottlingDecreasesOncePerRoundTrip() throws InterruptedException {
+        AnypointConcurrencyLimiter limiter = new AnypointConcurrencyLimiter("test", 8, config);
+
+        //--- Tasks started before the first decrease do not lower the limit again ---//
+        this.roundTrip(limiter, AnypointConcurrencyLimiter.Outcome.THROTTLED, 0);
+        assertEquals(4, limiter.getLimit());
+        assertEquals(8, limiter.getThrottled());
+
+        this.roundTrip(limiter, AnypointConcurrencyLimiter.Outcome.THROTTLED, 0);
+        assertEquals(2, limiter.getLimit());
+        assertEquals(12, limiter.getThrottled());
+    }
+
+    public void testLatencyAboveToleranceDecreases() throws InterruptedException {
+        AnypointConcurrencyLimiter limiter = new AnypointConcurrencyLimiter("test", 8, config);
+        this.roundTrip(limiter, AnypointConcurrencyLimiter.Outcome.COMPLETED, FAST);
+        int limit = limiter.getLimit();
+        TimeUnit.NANOSECONDS.sleep(SLOW * 2);
+
+        limiter.release(limiter.acquire() - SLOW, AnypointConcurrencyLimiter.Outcome.COMPLETED);
+
+        assertEquals(limit / 2, limiter.getLimit());
+        assertTrue(limiter.getHistory().get(limiter.getHistory().size() - 1).getReason().startsWith("latency"));
+    }
+
+    public void testFailuresDoNotChangeTheLimit() throws InterruptedException {
+        AnypointConcurrencyLimiter limiter = new AnypointConcurrencyLimiter("test", 4, config);
+
+        this.roundTrip(limiter, AnypointConcurrencyLimiter.Outcome.FAILED, FAST);
+
+        assertEquals(4, limiter.getLimit());
+        assertEquals(0, limiter.getThrottled());
+    }
+
+    public void testLimitStaysAboveMinLimit() throws InterruptedException {
+        config.setMinLimit(2);
+        AnypointConcurrencyLimiter limiter = new AnypointConcurrencyLimiter("test", 4, config);
+
+        for (int round = 0; round < 5; round++) {
+            this.roundTrip(limiter, AnypointConcurrencyLimiter.Outcome.THROTTLED, 0);
+        }
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    public void testInitialLimitAboveMaxLimitIsKept() {
+        config.setMaxLimit(4);
+
+        assertEquals(10, new AnypointConcurrencyLimiter("test", 10, config).getLimit());
+    }
+
+    /**
+     * Starts as many tasks as the limit allows, then ends them all with the same outcome and latency.
+     */
+    private void roundTrip(AnypointConcurrencyLimiter limiter, AnypointConcurrencyLimiter.Outcome outcome, long latency) throws InterruptedException {
+        int tasks = limiter.getLimit();
+        long[] startedAt = new long[tasks];
+        for (int task = 0; task < tasks; task++) {
+            startedAt[task] = limiter.acquire() - latency;
+        }
+        for (int task = 0; task < tasks; task++) {
+            limiter.release(startedAt[task], outcome);
+        }
+    }
+}
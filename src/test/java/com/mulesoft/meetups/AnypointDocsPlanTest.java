@@ -0,0 +1,78 @@
+package com.mulesoft.meetups;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests of AnypointDocsPlan.
+ */
+public class AnypointDocsPlanTest extends TestCase {
+
+    public void testActionsInPagePathOrder() {
+        Map<String, String> local = new HashMap<>();
+        local.put("new", "contents");
+        local.put("changed", "new contents");
+        local.put("same", "contents");
+        Map<String, String> remote = new HashMap<>();
+        remote.put("changed", "old contents");
+        remote.put("same", "contents");
+        remote.put("orphan", "contents");
+
+        AnypointDocsPlan plan = AnypointDocsPlan.compute(local, remote, false);
+
+        assertEquals("changed=UPDATE new=CREATE orphan=KEEP same=UNCHANGED", describe(plan.getActions()));
+        assertEquals("changed=UPDATE new=CREATE", describe(plan.changes()));
+        assertEquals(1, plan.count(AnypointDocsPlan.KEEP));
+        assertEquals(0, plan.count(AnypointDocsPlan.DELETE));
+    }
+
+    public void testPruneDeletesPagesWithoutFile() {
+        Map<String, String> local = new HashMap<>();
+        local.put("home", "contents");
+        Map<String, String> remote = new HashMap<>();
+        remote.put("home", "contents");
+        remote.put("orphan", "contents");
+
+        AnypointDocsPlan plan = AnypointDocsPlan.compute(local, remote, true);
+
+        assertEquals("home=UNCHANGED orphan=DELETE", describe(plan.getActions()));
+        assertEquals("orphan=DELETE", describe(plan.changes()));
+        assertNull(plan.getActions().get(1).getContents());
+    }
+
+    public void testLineEndingsAndSurroundingWhitespaceAreNotChanges() {
+        Map<String, String> local = new HashMap<>();
+        local.put("crlf", "# Title\r\n\r\nText\r\n");
+        local.put("trailing", "# Title\n\nText");
+        local.put("inner", "# Title\n\nText  more");
+        Map<String, String> remote = new HashMap<>();
+        remote.put("crlf", "# Title\n\nText");
+        remote.put("trailing", "  # Title\n\nText\n\n");
+        remote.put("inner", "# Title\n\nText more");
+
+        AnypointDocsPlan plan = AnypointDocsPlan.compute(local, remote, false);
+
+        assertEquals("crlf=UNCHANGED inner=UPDATE trailing=UNCHANGED", describe(plan.getActions()));
+    }
+
+    public void testEmptyDraftCreatesEveryPage() {
+        Map<String, String> local = new HashMap<>();
+        local.put("home", "");
+        local.put("guide", "contents");
+
+        AnypointDocsPlan plan = AnypointDocsPlan.compute(local, new HashMap<>(), true);
+
+        assertEquals("guide=CREATE home=CREATE", describe(plan.changes()));
+        assertEquals("contents", plan.getActions().get(0).getContents());
+    }
+
+    private static String describe(List<AnypointDocsPlan.Action> actions) {
+        List<String> described = new ArrayList<>();
+        actions.forEach(action -> described.add(action.getPage() + "=" + action.getType()));
+        return String.join(" ", described);
+    }
+}
@@ -0,0 +1,89 @@
+package com.mulesoft.meetups;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests of LatencyHistogram.
+ */
+public class LatencyHistogramTest extends TestCase {
+
+    public void testValuesBelow128HaveTheirOwnBucket() {
+        for (long value = 0; value < 128; value++) {
+            assertEquals(value, LatencyHistogram.index(value));
+            assertEquals(value, LatencyHistogram.highestValue((int) value));
+        }
+    }
+
+    public void testEveryValueFallsInsideItsBucket() {
+        int previous = LatencyHistogram.index(127);
+        for (long value = 128; value < 1 << 20; value++) {
+            int index = LatencyHistogram.index(value);
+            assertTrue(index == previous || index == previous + 1);
+            assertTrue(value <= LatencyHistogram.highestValue(index));
+            assertTrue(value > LatencyHistogram.highestValue(index - 1));
+            previous = index;
+        }
+    }
+
+    public void testRelativeErrorStaysBelowTwoPercent() {
+        for (long value = 128; value < Long.MAX_VALUE / 4; value = value * 3 + 1) {
+            long highest = LatencyHistogram.highestValue(LatencyHistogram.index(value));
+            assertTrue(String.valueOf(value), (highest - value) / (double) value < 0.016);
+        }
+    }
+
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(1, histogram.percentile(0));
+        assertEquals(50, histogram.percentile(50));
+        assertEquals(95, histogram.percentile(95));
+        assertEquals(100, histogram.percentile(100));
+        assertEquals(50.5, histogram.getMean(), 0);
+    }
+
+    public void testPercentilesAreCappedToTheRecordedRange() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000, 10);
+
+        assertEquals(1000, histogram.getMin());
+        assertEquals(1000, histogram.percentile(1));
+        assertEquals(1000, histogram.percentile(99));
+    }
+
+    public void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.percentile(99));
+    }
+
+    public void testNegativeValuesAreRecordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getSum());
+    }
+
+    public void testMergeAndStoredBuckets() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        for (long value = 1; value <= 50; value++) {
+            first.record(value * 10);
+            second.record(value * 10 + 500);
+        }
+        first.merge(second);
+
+        LatencyHistogram stored = LatencyHistogram.fromBuckets(first.toBuckets(), first.getMin(), first.getMax(), first.getSum());
+        assertEquals(100, stored.getCount());
+        assertEquals(10, stored.getMin());
+        assertEquals(1000, stored.getMax());
+        assertEquals(first.percentile(50), stored.percentile(50));
+        assertEquals(first.percentile(99), stored.percentile(99));
+    }
+}
@@ -0,0 +1,89 @@
+package com.mulesoft.meetups;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit tests of SmokeTestRegressionGate.
+ */
+public class SmokeTestRegressionGateTest extends TestCase {
+
+    private final SmokeTestRegressionGate gate = SmokeTestRegressionGate.builder()
+            .percentile(95)
+            .thresholdPercent(20)
+            .minimumRuns(3)
+            .build();
+
+    public void testBaselineIsTheMedianOfTheRuns() {
+        SmokeTestRegressionGate.Verdict verdict = gate.evaluate(run(110), runs(100, 90, 5000, 100, 120));
+
+        assertEquals(100, verdict.getBaseline());
+        assertEquals(110, verdict.getValue());
+        assertEquals(5, verdict.getBaselineRuns());
+        assertFalse(verdict.isRegressed());
+    }
+
+    public void testRunAboveTheThresholdRegresses() {
+        assertFalse(gate.evaluate(run(120), runs(100, 100, 100)).isRegressed());
+        assertTrue(gate.evaluate(run(121), runs(100, 100, 100)).isRegressed());
+    }
+
+    public void testOneSlowRunDoesNotMoveTheBaseline() {
+        assertTrue(gate.evaluate(run(200), runs(100, 100, 10000)).isRegressed());
+    }
+
+    public void testFastBaselineAllowsOneMillisecond() {
+        assertFalse(gate.evaluate(run(3), runs(2, 2, 2)).isRegressed());
+        assertTrue(gate.evaluate(run(4), runs(2, 2, 2)).isRegressed());
+    }
+
+    public void testFewerRunsThanMinimumNeverRegress() {
+        SmokeTestRegressionGate.Verdict verdict = gate.evaluate(run(10000), runs(100, 100));
+
+        assertFalse(verdict.isRegressed());
+        assertEquals(-1, verdict.getBaseline());
+        assertEquals(2, verdict.getBaselineRuns());
+        assertFalse(gate.evaluate(run(10000), new ArrayList<>()).isRegressed());
+    }
+
+    public void testOtherPercentilesAreReadFromTheHistogram() {
+        SmokeTestRegressionGate p90 = SmokeTestRegressionGate.builder().percentile(90).thresholdPercent(20).minimumRuns(1).build();
+
+        SmokeTestRegressionGate.Verdict verdict = p90.evaluate(histogram(300), Arrays.asList(histogram(100)));
+        assertEquals(90, verdict.getBaseline());
+        //--- Upper bound of the 268-271 bucket ---//
+        assertEquals(271, verdict.getValue());
+        assertTrue(verdict.isRegressed());
+    }
+
+    private static SmokeTestResultRecord run(long p95) {
+        return SmokeTestResultRecord.builder().p95InMilliseconds(p95).build();
+    }
+
+    private static List<SmokeTestResultRecord> runs(long... p95s) {
+        List<SmokeTestResultRecord> runs = new ArrayList<>();
+        for (long p95 : p95s) {
+            runs.add(run(p95));
+        }
+        return runs;
+    }
+
+    /**
+     * @return run of ten requests, at max/10, 2*max/10, ... max
+     */
+    private static SmokeTestResultRecord histogram(long max) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = max / 10; value <= max; value += max / 10) {
+            histogram.record(value);
+        }
+        return SmokeTestResultRecord.builder()
+                .histogram(histogram.toBuckets())
+                .minInMilliseconds(histogram.getMin())
+                .maxInMilliseconds(histogram.getMax())
+                .sumInMilliseconds(histogram.getSum())
+                .build();
+    }
+}